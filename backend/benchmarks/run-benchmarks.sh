@@ -0,0 +1,46 @@
+#!/usr/bin/env sh
+# Builds and runs the JMH suite with the GC profiler (allocation rate per op).
+#
+#   ./run-benchmarks.sh                      run everything, write results/current.json
+#   ./run-benchmarks.sh --baseline           run everything, overwrite baseline/results.json
+#   ./run-benchmarks.sh Leaderboard -p users=1000000   extra arguments are passed to JMH
+set -e
+cd "$(dirname "$0")"
+
+out=results/current.json
+if [ "$1" = "--baseline" ]; then
+  out=baseline/results.json
+  shift
+fi
+mkdir -p "$(dirname "$out")"
+
+(cd .. && ./mvnw -q install -DskipTests)
+../mvnw -q -f pom.xml package
+
+# The contention benchmark starts Postgres in a container
+skip=""
+if ! docker info >/dev/null 2>&1; then
+  echo "No Docker daemon: skipping UserStatsContentionBenchmark" >&2
+  skip="-e UserStatsContentionBenchmark"
+fi
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$out" $skip "$@"
+
+if [ "$out" = baseline/results.json ]; then
+  {
+    echo "recorded: $(date -u +%Y-%m-%dT%H:%M:%SZ)"
+    echo "commit:   $(git rev-parse --short HEAD 2>/dev/null || echo unknown)"
+    echo "os:       $(uname -srm)"
+    if [ -r /proc/cpuinfo ]; then
+      echo "cpu:      $(grep -m1 'model name' /proc/cpuinfo | cut -d: -f2- | sed 's/^ *//')"
+    else
+      echo "cpu:      $(sysctl -n machdep.cpu.brand_string 2>/dev/null || echo unknown)"
+    fi
+    echo "cores:    $(getconf _NPROCESSORS_ONLN)"
+    echo "jdk:      $(java -version 2>&1 | head -1)"
+  } > baseline/environment.txt
+fi
+
+if [ "$out" != baseline/results.json ] && [ -f baseline/results.json ]; then
+  java -cp target/benchmarks.jar backend.benchmarks.CompareResults baseline/results.json "$out"
+fi
@@ -0,0 +1,83 @@
+package backend.benchmarks;
+
+import backend.util.PrefixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title autocomplete at catalog scale: one- and three-letter prefixes, a two-word query and an incremental add.
+ * The index footprint is printed once per trial (look for "footprint" in the output).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ru", "te", "zo", "pa", "ni", "vo", "de",
+            "su", "ga", "fi", "ho", "ba", "ne", "ti", "wu", "ma", "ro"};
+
+    @Param({"1000000"})
+    public int titles;
+
+    private PrefixIndex index;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() {
+        SplittableRandom seed = new SplittableRandom(42);
+        PrefixIndex.Builder builder = PrefixIndex.builder();
+        for (int i = 0; i < titles; i++) {
+            builder.add(new UUID(seed.nextLong(), seed.nextLong()), title(seed), seed.nextInt(10_000));
+        }
+        long startedAt = System.nanoTime();
+        index = builder.build();
+        System.out.printf("%nAutocomplete index: %d titles, footprint %.1f MiB, sort %d ms%n",
+                index.size(), index.footprintBytes() / (1024.0 * 1024.0), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Match> oneLetter() {
+        return index.search(SYLLABLES[random.nextInt(SYLLABLES.length)].substring(0, 1), 10);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Match> threeLetters() {
+        return index.search(word(random).substring(0, 3), 10);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Match> twoWords() {
+        return index.search(word(random) + " " + word(random).substring(0, 2), 10);
+    }
+
+    @Benchmark
+    public void add() {
+        index.add(new UUID(random.nextLong(), random.nextLong()), title(random), random.nextInt(10_000));
+    }
+
+    // Four words from an 8000-word pseudo-vocabulary, like the load-test seeder
+    private static String title(SplittableRandom random) {
+        return word(random) + " " + word(random) + " " + word(random) + " " + word(random);
+    }
+
+    private static String word(SplittableRandom random) {
+        return SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                + SYLLABLES[random.nextInt(SYLLABLES.length)];
+    }
+}
@@ -0,0 +1,52 @@
+package backend.benchmarks;
+
+import backend.dto.ChallengeCursor;
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.SortType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request parameter parsing for GET /api/challenges.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChallengeQueryBenchmark {
+
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        cursor = new ChallengeCursor(SortType.likes, "1234", UUID.randomUUID()).encode();
+    }
+
+    @Benchmark
+    public ChallengeQueryDTO noFilters() {
+        return ChallengeQueryDTO.fromStrings(null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public ChallengeQueryDTO allFilters() {
+        return ChallengeQueryDTO.fromStrings("active", "medium", "sports", "likes", null, 50);
+    }
+
+    @Benchmark
+    public ChallengeQueryDTO allFiltersWithCursor() {
+        return ChallengeQueryDTO.fromStrings("active", "medium", "sports", "likes", cursor, 50);
+    }
+}
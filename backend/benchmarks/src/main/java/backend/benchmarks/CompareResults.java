@@ -0,0 +1,70 @@
+package backend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (e.g. baseline/results.json and results/current.json) and prints the change
+ * of the primary score and of the normalized allocation rate reported by the GC profiler.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar backend.benchmarks.CompareResults <baseline.json> <current.json>}
+ */
+public final class CompareResults {
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s %12s %12s%n",
+                "benchmark", "baseline", "current", "change", "B/op base", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double nowScore = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s %12s %12s%n",
+                        entry.getKey(), "-", nowScore, "new", "-", alloc(now));
+                continue;
+            }
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double change = beforeScore == 0 ? 0 : (nowScore - beforeScore) / beforeScore * 100;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s %12s  %s%n",
+                    entry.getKey(), beforeScore, nowScore, change, alloc(before), alloc(now), unit);
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            results.put(key(run), run);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        Map<String, String> params = new LinkedHashMap<>();
+        run.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+        String name = run.path("benchmark").asText().replace("backend.", "");
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static String alloc(JsonNode run) {
+        JsonNode metric = run.path("secondaryMetrics").path(ALLOC_NORM);
+        return metric.isMissingNode() ? "-" : String.format("%.1f", metric.path("score").asDouble());
+    }
+}
@@ -0,0 +1,77 @@
+package backend.benchmarks;
+
+import backend.config.JwtDecoderConfig;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token handling: full local RS256 verification with the decoder used in production against a
+ * cached key set, versus the unverified subject extraction done at login.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+    private static final String ISSUER = "http://keycloak.local/realms/bench";
+
+    private JwtDecoder decoder;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench").generate();
+        decoder = JwtDecoderConfig.localJwtDecoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER);
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(UUID.randomUUID().toString())
+                .issueTime(new Date())
+                // far enough out to outlive any benchmark run
+                .expirationTime(Date.from(Instant.now().plusSeconds(86_400)))
+                .claim("preferred_username", "bench-user")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+    }
+
+    @Benchmark
+    public Jwt verifyLocally() {
+        return decoder.decode(token);
+    }
+
+    @Benchmark
+    public DecodedJWT decodeSubjectOnly() {
+        return JWT.decode(token);
+    }
+}
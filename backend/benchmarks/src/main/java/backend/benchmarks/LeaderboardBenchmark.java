@@ -0,0 +1,80 @@
+package backend.benchmarks;
+
+import backend.util.OrderStatisticTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking structure behind the leaderboard at production-like user counts: a score update, a rank lookup,
+ * the top page and a neighbourhood around a user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    private OrderStatisticTree tree;
+    private UUID[] ids;
+    private long[] scores;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() {
+        tree = new OrderStatisticTree();
+        ids = new UUID[users];
+        scores = new long[users];
+        SplittableRandom seed = new SplittableRandom(42);
+        for (int i = 0; i < users; i++) {
+            ids[i] = new UUID(seed.nextLong(), seed.nextLong());
+            scores[i] = seed.nextInt(1_000_000);
+            tree.insert(ids[i], scores[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean addPoints() {
+        int i = random.nextInt(users);
+        boolean removed = tree.remove(ids[i], scores[i]);
+        scores[i] += random.nextInt(1, 100);
+        tree.insert(ids[i], scores[i]);
+        return removed;
+    }
+
+    @Benchmark
+    public int rankOf() {
+        int i = random.nextInt(users);
+        return tree.indexOf(ids[i], scores[i]);
+    }
+
+    @Benchmark
+    public List<OrderStatisticTree.Entry> top100() {
+        return tree.range(0, 100);
+    }
+
+    @Benchmark
+    public List<OrderStatisticTree.Entry> around() {
+        int i = random.nextInt(users);
+        int rank = tree.indexOf(ids[i], scores[i]);
+        return tree.range(Math.max(0, rank - 10), 21);
+    }
+}
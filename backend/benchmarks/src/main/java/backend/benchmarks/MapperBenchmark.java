@@ -0,0 +1,69 @@
+package backend.benchmarks;
+
+import backend.benchmarks.support.Fixtures;
+import backend.dto.response.ChallengeDetailsDTO;
+import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.UserResponseDTO;
+import backend.mapper.ChallengeMapper;
+import backend.mapper.ChallengeMapperImpl;
+import backend.mapper.UserMapper;
+import backend.mapper.UserMapperImpl;
+import backend.model.ChallengeEntity;
+import backend.model.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct-generated entity to DTO mappings used on every listing, details and profile response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private ChallengeMapper challengeMapper;
+    private UserMapper userMapper;
+    private ChallengeEntity challenge;
+    private UserEntity user;
+    private UUID authorId;
+
+    @Setup
+    public void setUp() {
+        challengeMapper = new ChallengeMapperImpl();
+        userMapper = new UserMapperImpl();
+        SplittableRandom random = new SplittableRandom(42);
+        challenge = Fixtures.challenge(random);
+        user = Fixtures.user(random);
+        authorId = user.getId();
+    }
+
+    @Benchmark
+    public ChallengeSummaryDTO challengeToSummary() {
+        return challengeMapper.toSummaryDTO(challenge, user.getUsername(), user.getAvatarUrl());
+    }
+
+    @Benchmark
+    public ChallengeDetailsDTO challengeToDetails() {
+        return challengeMapper.toDetailsDTO(challenge, authorId, user.getUsername(), user.getAvatarUrl());
+    }
+
+    @Benchmark
+    public UserResponseDTO userToDto() {
+        return userMapper.toDto(user);
+    }
+}
@@ -0,0 +1,108 @@
+package backend.benchmarks;
+
+import backend.benchmarks.support.PostgresBackend;
+import backend.model.UserStatsEntity;
+import backend.model.enums.ConnectionType;
+import backend.service.UserStatsDelta;
+import backend.service.UserStatsService;
+import backend.service.UserStatsWriteBehindBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserStatsServiceBenchmark} against Postgres instead of the in-memory stand-in, comparing the synchronous
+ * UPDATE with the write-behind buffer. With a small user set many threads queue on the same row locks, which is the
+ * contention the buffer exists to absorb; the large set shows the uncontended cost. Needs Docker for the database
+ * container.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class UserStatsContentionBenchmark {
+
+    @Param({"sync", "write_behind"})
+    public String mode;
+
+    @Param({"10", "10000"})
+    public int users;
+
+    private UUID[] userIds;
+    private PostgresBackend backend;
+    private UserStatsWriteBehindBuffer buffer;
+    private UserStatsService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = new PostgresBackend(Map.of(
+                "user-stats.write-behind.enabled", "write_behind".equals(mode),
+                "outbox.poll-interval-ms", 3_600_000));
+        buffer = backend.bean(UserStatsWriteBehindBuffer.class);
+        service = backend.bean(UserStatsService.class);
+
+        List<UUID> ids = new ArrayList<>(users);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < users; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        userIds = ids.toArray(UUID[]::new);
+        JdbcTemplate jdbc = backend.bean(JdbcTemplate.class);
+        jdbc.batchUpdate("INSERT INTO users (id, username) VALUES (?, ?)", ids, 1_000, (ps, id) -> {
+            ps.setObject(1, id);
+            ps.setString(2, "bench-" + id);
+        });
+        // Enough active challenges that the measured transitions never hit the non-negative CHECK
+        jdbc.update("INSERT INTO user_stats (user_id, active_challenges_count) SELECT id, 1000000000 FROM users");
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        buffer.flush(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public void recordTransitionDelta(Caller caller) {
+        // active -> pending_verification, as applied by a submission
+        UserStatsDelta delta = UserStatsDelta.forConnection(ConnectionType.active, -1)
+                .plus(UserStatsDelta.forConnection(ConnectionType.pending_verification, 1));
+        service.recordCounterDeltas(Map.of(userIds[caller.random.nextInt(userIds.length)], delta));
+    }
+
+    @Benchmark
+    public UserStatsEntity readStats(Caller caller) {
+        return service.getStatsByUserId(userIds[caller.random.nextInt(userIds.length)]);
+    }
+}
@@ -0,0 +1,105 @@
+package backend.benchmarks;
+
+import backend.benchmarks.support.InMemoryUserStatsRepository;
+import backend.config.UserStatsWriteBehindProperties;
+import backend.model.UserStatsEntity;
+import backend.model.enums.ConnectionType;
+import backend.repository.UserStatsRepository;
+import backend.service.UserStatsDelta;
+import backend.service.UserStatsService;
+import backend.service.UserStatsWriteBehindBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counter paths of {@link UserStatsService} against an in-memory repository, comparing the synchronous UPDATE the
+ * outbox stats handler issues with the write-behind buffer. Measures our own code;
+ * {@link UserStatsContentionBenchmark} runs the same paths against Postgres.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UserStatsServiceBenchmark {
+
+    @Param({"sync", "write_behind"})
+    public String mode;
+
+    @Param({"100", "10000"})
+    public int users;
+
+    private UUID[] userIds;
+    private ThreadPoolTaskScheduler scheduler;
+    private UserStatsWriteBehindBuffer buffer;
+    private UserStatsService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<UUID> ids = new ArrayList<>(users);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < users; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        userIds = ids.toArray(UUID[]::new);
+
+        UserStatsRepository repository = new InMemoryUserStatsRepository(ids).proxy();
+        UserStatsWriteBehindProperties props = new UserStatsWriteBehindProperties();
+        props.setEnabled("write_behind".equals(mode));
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        buffer = new UserStatsWriteBehindBuffer(repository, props, scheduler);
+        // Points events and the leaderboard are only touched by addPoints, which is not measured here
+        service = new UserStatsService(repository, buffer, null, null);
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        buffer.flush(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public void recordTransitionDelta(Caller caller) {
+        // active -> pending_verification, as applied by a submission
+        UserStatsDelta delta = UserStatsDelta.forConnection(ConnectionType.active, -1)
+                .plus(UserStatsDelta.forConnection(ConnectionType.pending_verification, 1));
+        service.recordCounterDeltas(Map.of(userIds[caller.random.nextInt(userIds.length)], delta));
+    }
+
+    @Benchmark
+    public UserStatsEntity readStats(Caller caller) {
+        return service.getStatsByUserId(userIds[caller.random.nextInt(userIds.length)]);
+    }
+}
@@ -0,0 +1,81 @@
+package backend.benchmarks.support;
+
+import backend.dto.response.ChallengeSummaryDTO;
+import backend.model.ChallengeEntity;
+import backend.model.UserEntity;
+import backend.model.UserStatsEntity;
+import backend.model.enums.ChallengeCategory;
+import backend.model.enums.ChallengeDifficulty;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic entities and DTOs shaped like production rows.
+ */
+public final class Fixtures {
+    private static final OffsetDateTime EPOCH = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+
+    private Fixtures() {
+    }
+
+    public static ChallengeEntity challenge(SplittableRandom random) {
+        ChallengeCategory[] categories = ChallengeCategory.values();
+        ChallengeDifficulty[] difficulties = ChallengeDifficulty.values();
+        return ChallengeEntity.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .title("Run a 10k every morning for " + random.nextInt(1, 60) + " days")
+                .description("Lace up, get out before breakfast and log every run. ".repeat(4))
+                .coverImageUrl("https://cdn.example.com/challenges/" + random.nextInt(1_000_000) + ".jpg")
+                .points(random.nextInt(10, 500))
+                .category(categories[random.nextInt(categories.length)])
+                .difficulty(difficulties[random.nextInt(difficulties.length)])
+                .likesCount(random.nextInt(10_000))
+                .submissionsCount(random.nextInt(1_000))
+                .createdAt(EPOCH.plusSeconds(random.nextInt(30_000_000)))
+                .submissions(new ArrayList<>())
+                .comments(new ArrayList<>())
+                .build();
+    }
+
+    public static UserEntity user(SplittableRandom random) {
+        UUID id = new UUID(random.nextLong(), random.nextLong());
+        UserEntity user = UserEntity.builder()
+                .id(id)
+                .username("user" + random.nextInt(1_000_000))
+                .email("user" + random.nextInt(1_000_000) + "@example.com")
+                .firstName("Alex")
+                .lastName("Example")
+                .bio("Collects challenges, rarely finishes them.")
+                .avatarUrl("https://cdn.example.com/avatars/" + random.nextInt(1_000_000) + ".png")
+                .createdAt(EPOCH.plusSeconds(random.nextInt(30_000_000)))
+                .build();
+        user.setStats(UserStatsEntity.builder()
+                .userId(id)
+                .points(random.nextInt(100_000))
+                .createdChallengesCount(random.nextInt(50))
+                .completeChallengesCount(random.nextInt(200))
+                .activeChallengesCount(random.nextInt(20))
+                .savedChallengesCount(random.nextInt(100))
+                .submissionsCount(random.nextInt(300))
+                .build());
+        return user;
+    }
+
+    public static List<ChallengeSummaryDTO> summaries(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ChallengeSummaryDTO> summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ChallengeEntity c = challenge(random);
+            summaries.add(new ChallengeSummaryDTO(c.getId(), c.getTitle(), c.getDescription(), c.getCoverImageUrl(),
+                    c.getPoints(), c.getCategory(), c.getDifficulty(), "author" + i,
+                    "https://cdn.example.com/avatars/" + i + ".png",
+                    c.getLikesCount(), c.getSubmissionsCount(), c.getActiveCount(), c.getPendingCount(),
+                    c.getCompleteCount(), c.getSavedCount(), c.getCreatedAt()));
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,64 @@
+package backend.benchmarks.support;
+
+import backend.model.UserStatsEntity;
+import backend.repository.UserStatsRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for {@link UserStatsRepository} keeping rows in a map, so service-level benchmarks measure our code
+ * rather than the database. Only the methods used by the stats write paths are implemented.
+ */
+public final class InMemoryUserStatsRepository {
+    private final ConcurrentHashMap<UUID, UserStatsEntity> rows = new ConcurrentHashMap<>();
+
+    public InMemoryUserStatsRepository(Collection<UUID> userIds) {
+        for (UUID userId : userIds) {
+            rows.put(userId, UserStatsEntity.builder().userId(userId).build());
+        }
+    }
+
+    public UserStatsRepository proxy() {
+        return (UserStatsRepository) Proxy.newProxyInstance(
+                UserStatsRepository.class.getClassLoader(),
+                new Class<?>[]{UserStatsRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(rows.get((UUID) args[0]));
+                    case "applyDelta" -> applyDelta((UUID) args[0], (int) args[1], (int) args[2], (int) args[3],
+                            (int) args[4], (int) args[5], (int) args[6]);
+                    case "applyDeltas" -> applyDeltas((UUID[]) args[0], (Integer[]) args[1], (Integer[]) args[2],
+                            (Integer[]) args[3], (Integer[]) args[4], (Integer[]) args[5], (Integer[]) args[6]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserStatsRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private int applyDelta(UUID userId, int points, int created, int complete, int active, int saved, int submissions) {
+        // compute() serializes writers per row, like the row lock taken by the SQL UPDATE
+        UserStatsEntity updated = rows.computeIfPresent(userId, (id, row) -> {
+            row.setPoints(row.getPoints() + points);
+            row.setCreatedChallengesCount(row.getCreatedChallengesCount() + created);
+            row.setCompleteChallengesCount(row.getCompleteChallengesCount() + complete);
+            row.setActiveChallengesCount(row.getActiveChallengesCount() + active);
+            row.setSavedChallengesCount(row.getSavedChallengesCount() + saved);
+            row.setSubmissionsCount(row.getSubmissionsCount() + submissions);
+            return row;
+        });
+        return updated == null ? 0 : 1;
+    }
+
+    private int applyDeltas(UUID[] userIds, Integer[] points, Integer[] created, Integer[] complete,
+                            Integer[] active, Integer[] saved, Integer[] submissions) {
+        int updated = 0;
+        for (int i = 0; i < userIds.length; i++) {
+            updated += applyDelta(userIds[i], points[i], created[i], complete[i], active[i], saved[i], submissions[i]);
+        }
+        return updated;
+    }
+}
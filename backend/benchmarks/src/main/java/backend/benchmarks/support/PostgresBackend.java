@@ -0,0 +1,47 @@
+package backend.benchmarks.support;
+
+import backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The backend's Spring context against a throwaway Postgres 16 container with the real schema, for benchmarks
+ * whose cost is in the database (row locks, statement round trips). Needs a Docker daemon.
+ */
+public final class PostgresBackend implements AutoCloseable {
+    private final PostgreSQLContainer<?> postgres;
+    private final ConfigurableApplicationContext context;
+
+    public PostgresBackend(Map<String, Object> properties) {
+        postgres = new PostgreSQLContainer<>("postgres:16");
+        postgres.start();
+
+        Map<String, Object> all = new HashMap<>();
+        all.put("spring.datasource.url", postgres.getJdbcUrl());
+        all.put("spring.datasource.username", postgres.getUsername());
+        all.put("spring.datasource.password", postgres.getPassword());
+        all.put("server.port", 0);
+        // Keycloak is not needed; it is unreachable and the app starts without it
+        all.put("KEYCLOAK_BASE_URL", "http://localhost:65535");
+        all.put("KEYCLOAK_REALM", "bench");
+        all.put("KEYCLOAK_CLIENT_ID", "bench");
+        all.put("KEYCLOAK_CLIENT_SECRET", "bench");
+        all.put("keycloak.jwks-file", "");
+        all.putAll(properties);
+        context = new SpringApplicationBuilder(BackendApplication.class).properties(all).run();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,57 @@
+package backend.service;
+
+import backend.dto.ChallengeCursor;
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.SortType;
+import backend.model.ChallengeEntity;
+import backend.model.enums.ChallengeCategory;
+import backend.model.enums.ChallengeDifficulty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Specification construction for {@link ChallengeServiceImpl#listChallenges}. Lives in the service package because
+ * {@link ChallengeSpecifications} is package-private; rendering the predicate to SQL needs Hibernate and is covered
+ * by the listing query-count test instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChallengeSpecificationBenchmark {
+
+    private ChallengeQueryDTO unfiltered;
+    private ChallengeQueryDTO filteredWithCursor;
+
+    @Setup
+    public void setUp() {
+        unfiltered = new ChallengeQueryDTO(null, null, null, null, null, ChallengeQueryDTO.DEFAULT_PAGE_SIZE);
+        filteredWithCursor = new ChallengeQueryDTO(null, ChallengeDifficulty.medium, ChallengeCategory.sports,
+                SortType.likes, new ChallengeCursor(SortType.likes, "1234", UUID.randomUUID()),
+                ChallengeQueryDTO.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Specification<ChallengeEntity> unfiltered() {
+        return ChallengeSpecifications.forQuery(unfiltered);
+    }
+
+    @Benchmark
+    public Specification<ChallengeEntity> filteredWithCursor() {
+        return ChallengeSpecifications.forQuery(filteredWithCursor);
+    }
+}
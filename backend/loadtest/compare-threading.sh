@@ -0,0 +1,23 @@
+#!/usr/bin/env sh
+# Mixed /auth/login + /api/challenges load against the default (platform thread) and the virtual-threads
+# profile. Compare "max in-flight" and the p99 columns of the two reports.
+#
+#   ./compare-threading.sh [extra runner options]
+#
+# STUB_DELAY adds Keycloak latency (default 50ms) so logins hold requests open the way a remote Keycloak does.
+set -e
+cd "$(dirname "$0")"
+
+RATES="--rate login=${LOGIN_RATE:-200} --rate list=${LIST_RATE:-800} --rate view=${VIEW_RATE:-400}"
+export STUB_DELAY=${STUB_DELAY:-50ms}
+
+# shellcheck disable=SC2086
+SPRING_PROFILES=default REPORT=results/threading-platform.txt ./run-local.sh --duration 60s $RATES "$@"
+# shellcheck disable=SC2086
+SPRING_PROFILES=virtual-threads REPORT=results/threading-virtual.txt \
+  ./run-local.sh --duration 60s $RATES "$@"
+
+echo
+echo "== platform threads =="; cat results/threading-platform.txt
+echo
+echo "== virtual threads ==";  cat results/threading-virtual.txt
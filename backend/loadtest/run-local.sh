@@ -0,0 +1,63 @@
+#!/usr/bin/env sh
+# End-to-end local run: Keycloak stub + seeded Postgres + backend + scenario runner, all on this machine.
+#
+# Needs a running Postgres reachable at JDBC_URL (e.g. `docker compose up -d db` in backend/, or a local server)
+# with POSTGRES_USER / POSTGRES_PASSWORD set. Extra arguments are passed to the scenario runner, e.g.
+#   ./run-local.sh --duration 120s --rate login=50 --rate list=400
+#
+# Environment:
+#   SPRING_PROFILES    backend profiles to activate (e.g. virtual-threads)
+#   SEED_ARGS          seeder options (default: --users 10000 --challenges 50000 --reset)
+#   STUB_DELAY         artificial Keycloak latency (default 0ms)
+#   REPORT             report file (default results/report-<profiles>.txt)
+set -e
+cd "$(dirname "$0")"
+
+JDBC_URL=${JDBC_URL:-jdbc:postgresql://localhost:5433/app}
+STUB_PORT=${STUB_PORT:-8180}
+APP_PORT=${APP_PORT:-8081}
+REALM=loadtest
+PROFILES=${SPRING_PROFILES:-default}
+REPORT=${REPORT:-results/report-$PROFILES.txt}
+
+(cd .. && ./mvnw -q package -DskipTests)
+../mvnw -q -f pom.xml package
+mkdir -p results
+
+java -jar target/loadtest.jar stub --port "$STUB_PORT" --realm "$REALM" --delay "${STUB_DELAY:-0ms}" > results/stub.log 2>&1 &
+STUB_PID=$!
+
+# The backend must be started once so Flyway creates the schema before seeding
+KEYCLOAK_BASE_URL="http://localhost:$STUB_PORT" \
+KEYCLOAK_REALM="$REALM" \
+KEYCLOAK_CLIENT_ID=backend \
+KEYCLOAK_CLIENT_SECRET=loadtest \
+KEYCLOAK_JWKS_FILE=results/jwks.json \
+SPRING_DATASOURCE_URL="$JDBC_URL" \
+SPRING_PROFILES_ACTIVE="$PROFILES" \
+SERVER_PORT="$APP_PORT" \
+  java -jar ../target/backend-0.0.1-SNAPSHOT-exec.jar > results/backend.log 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID $STUB_PID 2>/dev/null' EXIT
+
+echo "Waiting for the backend on port $APP_PORT..."
+until curl -s -o /dev/null "http://localhost:$APP_PORT/api/leaderboard"; do sleep 1; done
+
+# shellcheck disable=SC2086
+java -jar target/loadtest.jar seed --jdbc-url "$JDBC_URL" ${SEED_ARGS:---users 10000 --challenges 50000 --reset}
+
+# Restart so in-memory state (leaderboard, caches) reflects the seeded data
+kill $APP_PID && wait $APP_PID 2>/dev/null || true
+KEYCLOAK_BASE_URL="http://localhost:$STUB_PORT" \
+KEYCLOAK_REALM="$REALM" \
+KEYCLOAK_CLIENT_ID=backend \
+KEYCLOAK_CLIENT_SECRET=loadtest \
+KEYCLOAK_JWKS_FILE=results/jwks.json \
+SPRING_DATASOURCE_URL="$JDBC_URL" \
+SPRING_PROFILES_ACTIVE="$PROFILES" \
+SERVER_PORT="$APP_PORT" \
+  java -jar ../target/backend-0.0.1-SNAPSHOT-exec.jar >> results/backend.log 2>&1 &
+APP_PID=$!
+until curl -s -o /dev/null "http://localhost:$APP_PORT/api/leaderboard"; do sleep 1; done
+
+java -jar target/loadtest.jar run --base-url "http://localhost:$APP_PORT" --jdbc-url "$JDBC_URL" --out "$REPORT" "$@"
@@ -0,0 +1,22 @@
+#!/usr/bin/env sh
+# Ranked full-text search against a multi-million-row catalog; the target is p99 below 50ms.
+# "search" draws terms with the catalog's Zipf word frequencies, "search_common" uses only the ten most frequent.
+#
+#   ./search-benchmark.sh [extra runner options]
+#
+# CHALLENGES sets the catalog size (default 2000000), SEARCH_RATE and COMMON_RATE the arrival rates
+# (default 200/s and 20/s). The report is copied to results-search.txt next to this script, for committing.
+set -e
+cd "$(dirname "$0")"
+
+export SEED_ARGS=${SEED_ARGS:-"--users 20000 --challenges ${CHALLENGES:-2000000} --connections-per-user 5 --reset"}
+
+REPORT=results/search.txt ./run-local.sh --duration 60s --rate "search=${SEARCH_RATE:-200}" \
+  --rate "search_common=${COMMON_RATE:-20}" "$@"
+
+{
+  echo "catalog: ${CHALLENGES:-2000000} challenges; $(uname -srm); $(getconf _NPROCESSORS_ONLN) cores"
+  cat results/search.txt
+} > results-search.txt
+echo
+cat results-search.txt
@@ -0,0 +1,64 @@
+package backend.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code --key value} command line options; keys may repeat (e.g. several {@code --rate} entries).
+ */
+final class Args {
+    private final Map<String, List<String>> values = new LinkedHashMap<>();
+
+    Args(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String key = arg.substring(2);
+            String value = i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "true";
+            values.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+    }
+
+    String get(String key, String defaultValue) {
+        List<String> list = values.get(key);
+        return list == null ? defaultValue : list.getLast();
+    }
+
+    String require(String key) {
+        String value = get(key, null);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required option --" + key);
+        }
+        return value;
+    }
+
+    int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    List<String> all(String key) {
+        return values.getOrDefault(key, List.of());
+    }
+
+    /**
+     * Durations as {@code 500ms}, {@code 30s}, {@code 5m} or plain seconds.
+     */
+    Duration getDuration(String key, Duration defaultValue) {
+        String value = get(key, null);
+        if (value == null) return defaultValue;
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
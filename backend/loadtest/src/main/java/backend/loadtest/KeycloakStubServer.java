@@ -0,0 +1,234 @@
+package backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for the Keycloak endpoints the backend calls: the token endpoint (password, refresh_token and
+ * client_credentials grants), admin user creation/deletion and the realm JWKS. Access tokens are real RS256 JWTs,
+ * so the backend verifies them exactly as it would Keycloak's.
+ * <p>
+ * User ids are derived from usernames ({@link #userId}), so users written by the {@link Seeder} can log in without
+ * the stub knowing about them.
+ */
+final class KeycloakStubServer implements AutoCloseable {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final String realm;
+    private final String issuer;
+    private final String defaultPassword;
+    private final int tokenLifetimeSeconds;
+    private final long delayMillis;
+    private final RSAKey signingKey;
+    private final JWSSigner signer;
+    private final Map<String, String> registeredPasswords = new ConcurrentHashMap<>();
+
+    KeycloakStubServer(int port, String issuerBaseUrl, String realm, String defaultPassword,
+                       int tokenLifetimeSeconds, long delayMillis) throws IOException, JOSEException {
+        this.realm = realm;
+        this.issuer = issuerBaseUrl + "/realms/" + realm;
+        this.defaultPassword = defaultPassword;
+        this.tokenLifetimeSeconds = tokenLifetimeSeconds;
+        this.delayMillis = delayMillis;
+        this.signingKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        this.signer = new RSASSASigner(signingKey);
+
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/realms/" + realm + "/protocol/openid-connect/token", this::token);
+        server.createContext("/realms/" + realm + "/protocol/openid-connect/certs", this::certs);
+        server.createContext("/admin/realms/" + realm + "/users", this::users);
+    }
+
+    static UUID userId(String username) {
+        return UUID.nameUUIDFromBytes(("loadtest-user:" + username).getBytes(StandardCharsets.UTF_8));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    String issuer() {
+        return issuer;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String grantType = form.getOrDefault("grant_type", "");
+        try {
+            switch (grantType) {
+                case "password" -> {
+                    String username = form.get("username");
+                    String expected = registeredPasswords.getOrDefault(username, defaultPassword);
+                    if (username == null || !expected.equals(form.get("password"))) {
+                        send(exchange, 401, Map.of("error", "invalid_grant", "error_description", "Invalid user credentials"));
+                        return;
+                    }
+                    send(exchange, 200, tokenResponse(username));
+                }
+                case "refresh_token" -> {
+                    String username = usernameFromRefreshToken(form.get("refresh_token"));
+                    if (username == null) {
+                        send(exchange, 400, Map.of("error", "invalid_grant"));
+                        return;
+                    }
+                    send(exchange, 200, tokenResponse(username));
+                }
+                case "client_credentials" -> send(exchange, 200, tokenResponse("service-account-" + form.get("client_id")));
+                default -> send(exchange, 400, Map.of("error", "unsupported_grant_type"));
+            }
+        } catch (JOSEException e) {
+            send(exchange, 500, Map.of("error", e.getMessage()));
+        }
+    }
+
+    private void certs(HttpExchange exchange) throws IOException {
+        byte[] body = new JWKSet(signingKey.toPublicJWK()).toString(true).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void users(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        String method = exchange.getRequestMethod();
+        if ("POST".equals(method)) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> user = JSON.readValue(exchange.getRequestBody(), Map.class);
+            String username = (String) user.get("username");
+            String password = passwordOf(user);
+            if (username == null || registeredPasswords.putIfAbsent(username, password) != null) {
+                send(exchange, 409, Map.of("errorMessage", "User exists with same username"));
+                return;
+            }
+            exchange.getResponseHeaders().add("Location",
+                    issuer.replace("/realms/", "/admin/realms/") + "/users/" + userId(username));
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        } else if ("DELETE".equals(method)) {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else {
+            send(exchange, 405, Map.of("error", "method not allowed"));
+        }
+    }
+
+    private Map<String, Object> tokenResponse(String username) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(userId(username).toString())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(tokenLifetimeSeconds)))
+                .claim("preferred_username", username)
+                .claim("typ", "Bearer")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(signer);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("access_token", jwt.serialize());
+        response.put("expires_in", tokenLifetimeSeconds);
+        response.put("refresh_token", refreshToken(username));
+        response.put("refresh_expires_in", tokenLifetimeSeconds * 2);
+        response.put("token_type", "Bearer");
+        return response;
+    }
+
+    private static String refreshToken(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + "." + UUID.randomUUID();
+    }
+
+    private static String usernameFromRefreshToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.indexOf('.') < 1) return null;
+        try {
+            return new String(Base64.getUrlDecoder().decode(refreshToken.substring(0, refreshToken.indexOf('.'))),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String passwordOf(Map<String, Object> user) {
+        Object credentials = user.get("credentials");
+        if (credentials instanceof Iterable<?> list) {
+            for (Object credential : list) {
+                if (credential instanceof Map<?, ?> map && map.get("value") instanceof String value) {
+                    return value;
+                }
+            }
+        }
+        return defaultPassword;
+    }
+
+    private void simulateLatency() {
+        if (delayMillis <= 0) return;
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        byte[] bytes = JSON.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package backend.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Entry point of the load-test harness.
+ * <pre>
+ *   java -jar loadtest.jar stub [--port 8180] [--realm loadtest] [--issuer-base-url http://localhost:8180]
+ *                               [--password password] [--token-lifetime 3600] [--delay 0ms]
+ *   java -jar loadtest.jar seed [--jdbc-url ...] [--users 10000] [--challenges 50000] [--connections-per-user 20] [--reset]
+ *   java -jar loadtest.jar run  [--base-url http://localhost:8081] [--jdbc-url ...] [--duration 60s] [--warmup 10s]
+ *                               [--rate list=100 --rate login=10 ...] [--user-pool 500] [--out results/report.txt]
+ *   java -jar loadtest.jar outbox [--jdbc-url ...] [--events 200000] [--chunk 100] [--users 10000] [--challenges 50000]
+ *                                 [--complete-share 0.1] [--timeout 10m]
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] argv) throws Exception {
+        if (argv.length == 0) {
+            System.err.println("usage: loadtest (stub|seed|run|outbox) [--option value ...]");
+            System.exit(2);
+        }
+        Args args = new Args(argv, 1);
+        switch (argv[0]) {
+            case "stub" -> runStub(args);
+            case "seed" -> new Seeder(args).run(args.has("reset"));
+            case "run" -> new ScenarioRunner(args).run();
+            case "outbox" -> new OutboxBenchmark(args).run();
+            default -> {
+                System.err.println("Unknown command: " + argv[0]);
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void runStub(Args args) throws Exception {
+        int port = args.getInt("port", 8180);
+        KeycloakStubServer stub = new KeycloakStubServer(
+                port,
+                args.get("issuer-base-url", "http://localhost:" + port),
+                args.get("realm", "loadtest"),
+                args.get("password", "password"),
+                args.getInt("token-lifetime", 3600),
+                args.getDuration("delay", Duration.ZERO).toMillis());
+        stub.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.printf("Keycloak stub listening on port %d, issuer %s%n", stub.port(), stub.issuer());
+        Thread.currentThread().join();
+    }
+}
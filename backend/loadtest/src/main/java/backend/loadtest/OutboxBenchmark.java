@@ -0,0 +1,119 @@
+package backend.loadtest;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * End-to-end throughput of the outbox pipeline against a running backend on seeded data. Writes connection events
+ * the way request transactions do, {@code --chunk} per transaction, and waits until every handler's offset has
+ * passed the last one. Random user/challenge pairs are saved, or completed ({@code --complete-share}), and later
+ * removed again, so counters return to where they were and only completions leave points behind.
+ */
+final class OutboxBenchmark {
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int events;
+    private final int chunk;
+    private final int users;
+    private final int challenges;
+    private final double completeShare;
+    private final long timeoutMillis;
+
+    OutboxBenchmark(Args args) {
+        this.jdbcUrl = args.get("jdbc-url", "jdbc:postgresql://localhost:5433/app");
+        this.dbUser = args.get("db-user", System.getenv().getOrDefault("POSTGRES_USER", "postgres"));
+        this.dbPassword = args.get("db-password", System.getenv().getOrDefault("POSTGRES_PASSWORD", "postgres"));
+        this.events = args.getInt("events", 200_000);
+        this.chunk = args.getInt("chunk", 100);
+        this.users = args.getInt("users", 10_000);
+        this.challenges = args.getInt("challenges", 50_000);
+        this.completeShare = Double.parseDouble(args.get("complete-share", "0.1"));
+        this.timeoutMillis = args.getDuration("timeout", Duration.ofMinutes(10)).toMillis();
+    }
+
+    void run() throws SQLException, InterruptedException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            List<String> handlers = queryHandlers(connection);
+            if (handlers.isEmpty()) {
+                throw new IllegalStateException("No outbox handlers registered; start the backend first");
+            }
+            connection.setAutoCommit(false);
+            PGConnection pg = connection.unwrap(PGConnection.class);
+
+            // Every addition first, then the same pairs removed again in the same order
+            long startedAt = System.nanoTime();
+            int written = write(connection, pg, events / 2, false) + write(connection, pg, events / 2, true);
+            long writtenAt = System.nanoTime();
+            System.out.printf("Wrote %d events in %d ms%n", written, (writtenAt - startedAt) / 1_000_000);
+
+            connection.setAutoCommit(true);
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            int behind;
+            while ((behind = handlersBehind(connection)) > 0) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException(behind + " handler(s) did not catch up within the timeout");
+                }
+                Thread.sleep(20);
+            }
+            long caughtUpAt = System.nanoTime();
+            double seconds = (caughtUpAt - startedAt) / 1e9;
+            System.out.printf("%d handler(s) %s applied all events %d ms after the last write%n",
+                    handlers.size(), handlers, (caughtUpAt - writtenAt) / 1_000_000);
+            System.out.printf("End to end: %.0f events/s, %.0f handler deliveries/s%n",
+                    written / seconds, written * handlers.size() / seconds);
+        }
+    }
+
+    private int write(Connection connection, PGConnection pg, int count, boolean removal) throws SQLException {
+        SplittableRandom random = new SplittableRandom(7);
+        int written = 0;
+        while (written < count) {
+            try (Seeder.CopyWriter out = new Seeder.CopyWriter(pg.getCopyAPI().copyIn(
+                    "COPY outbox_events (event_type, user_id, challenge_id, source, target) FROM STDIN WITH (FORMAT csv)"))) {
+                for (int i = 0; i < chunk && written < count; i++, written++) {
+                    UUID userId = KeycloakStubServer.userId(Seeder.username(random.nextInt(users)));
+                    UUID challengeId = Seeder.challengeId(random.nextInt(challenges));
+                    String type = random.nextDouble() < completeShare ? "complete" : "saved";
+                    out.row("connection_changed", userId, challengeId, removal ? type : null, removal ? null : type);
+                }
+            }
+            connection.commit();
+        }
+        return written;
+    }
+
+    private static List<String> queryHandlers(Connection connection) throws SQLException {
+        List<String> handlers = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT handler FROM outbox_offsets ORDER BY handler")) {
+            while (rs.next()) {
+                handlers.add(rs.getString(1));
+            }
+        }
+        return handlers;
+    }
+
+    // Handlers whose offset has not yet reached the newest event
+    private static int handlersBehind(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT count(*) FROM outbox_offsets o
+                     JOIN (SELECT txid, id FROM outbox_events ORDER BY txid DESC, id DESC LIMIT 1) last
+                       ON (o.last_txid, o.last_id) < (last.txid, last.id)
+                     """)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: every scenario fires at a fixed arrival rate regardless of how fast the backend answers,
+ * and latency is measured from the intended start time, so a stalled backend shows up as queueing delay instead of
+ * silently lowering the offered load (coordinated omission).
+ * <p>
+ * Scenarios: register, login, list, view, save, accept, like, leaderboard, submit (a seeded active participant
+ * submitting proof) and complete (the author accepting a seeded pending_verification connection). Rates are given as {@code --rate name=perSecond}.
+ */
+final class ScenarioRunner {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] SORT_TYPES = {null, "likes", "points", "submissions"};
+
+    private final URI baseUrl;
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final String password;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int userPool;
+    private final int maxInFlight;
+    private final Map<String, Double> rates = new LinkedHashMap<>();
+    private final Path out;
+
+    private final HttpClient http;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong registrations = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private List<UUID> challengeIds;
+    private List<String> usernames;
+    private final ConcurrentLinkedQueue<PendingCompletion> pendingCompletions = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<PendingSubmission> pendingSubmissions = new ConcurrentLinkedQueue<>();
+    private final Map<String, CompletableFuture<String>> tokens = new ConcurrentHashMap<>();
+    private volatile long measureFrom;
+
+    record PendingCompletion(UUID userId, UUID challengeId, String authorUsername) {
+    }
+
+    record PendingSubmission(UUID challengeId, String username) {
+    }
+
+    ScenarioRunner(Args args) {
+        this.baseUrl = URI.create(args.get("base-url", "http://localhost:8081"));
+        this.jdbcUrl = args.get("jdbc-url", "jdbc:postgresql://localhost:5433/app");
+        this.dbUser = args.get("db-user", System.getenv().getOrDefault("POSTGRES_USER", "postgres"));
+        this.dbPassword = args.get("db-password", System.getenv().getOrDefault("POSTGRES_PASSWORD", "postgres"));
+        this.password = args.get("password", "password");
+        this.duration = args.getDuration("duration", Duration.ofSeconds(60));
+        this.warmup = args.getDuration("warmup", Duration.ofSeconds(10));
+        this.userPool = args.getInt("user-pool", 500);
+        this.maxInFlight = args.getInt("max-in-flight", 20_000);
+        this.out = Path.of(args.get("out", "results/report-" + runId + ".txt"));
+        for (String rate : args.all("rate")) {
+            String[] parts = rate.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected --rate name=perSecond but got " + rate);
+            }
+            rates.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        if (rates.isEmpty()) {
+            rates.putAll(Map.of("list", 100.0, "view", 80.0, "login", 10.0, "save", 5.0, "accept", 5.0,
+                    "complete", 2.0, "register", 1.0));
+        }
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    void run() throws Exception {
+        loadFixtures();
+        System.out.printf("Logging in %d users...%n", usernames.size());
+        List<CompletableFuture<String>> logins = new ArrayList<>();
+        for (String username : usernames) {
+            logins.add(CompletableFuture.supplyAsync(() -> token(username), executor));
+        }
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).join();
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        System.out.printf("Running %s for %s after %s warmup%n", rates, duration, warmup);
+
+        List<Thread> dispatchers = new ArrayList<>();
+        for (Map.Entry<String, Double> rate : rates.entrySet()) {
+            Thread dispatcher = Thread.ofPlatform().name("dispatch-" + rate.getKey())
+                    .start(() -> dispatch(rate.getKey(), rate.getValue(), start, end));
+            dispatchers.add(dispatcher);
+        }
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            System.out.println("Some requests were still in flight after 30s and are not reported");
+        }
+
+        String report = report(duration);
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        Files.writeString(out, report);
+        System.out.print(report);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    private void dispatch(String scenario, double perSecond, long start, long end) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+        for (long next = start; next < end; next += interval) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= maxInFlight) {
+                dropped.increment();
+                continue;
+            }
+            long intendedStart = next;
+            executor.execute(() -> execute(scenario, intendedStart));
+        }
+    }
+
+    private void execute(String scenario, long intendedStart) {
+        int current = inFlight.incrementAndGet();
+        boolean measured = intendedStart >= measureFrom;
+        if (measured) {
+            maxObservedInFlight.accumulateAndGet(current, Math::max);
+        }
+        int status;
+        try {
+            HttpRequest request = request(scenario);
+            status = request == null ? -2 : http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException | RuntimeException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        if (measured) {
+            stats.computeIfAbsent(scenario, k -> new EndpointStats()).record(status, System.nanoTime() - intendedStart);
+        }
+    }
+
+    /**
+     * Returns null when the scenario has nothing left to do (e.g. no pending completions).
+     */
+    private HttpRequest request(String scenario) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (scenario) {
+            case "register" -> {
+                String username = "lt-" + runId + "-" + registrations.incrementAndGet();
+                yield post("/auth/register", null, Map.of("username", username, "email", username + "@loadtest.local",
+                        "firstName", "Load", "lastName", "Test", "password", password));
+            }
+            case "login" -> post("/auth/login", null,
+                    Map.of("username", randomUser(random), "password", password));
+            case "list" -> {
+                String sortType = SORT_TYPES[random.nextInt(SORT_TYPES.length)];
+                yield get("/api/challenges?limit=20" + (sortType == null ? "" : "&sortType=" + sortType),
+                        token(randomUser(random)));
+            }
+            case "view" -> get("/api/challenges/" + randomChallenge(random), null);
+            case "search" -> {
+                // One or two terms with the catalog's own word frequencies; two-term searches are an AND of both
+                String q = Seeder.word(Seeder.zipfWord(random))
+                        + (random.nextBoolean() ? "" : "+" + Seeder.word(Seeder.zipfWord(random)));
+                yield get("/api/challenges/search?limit=20&q=" + q, null);
+            }
+            // Only the ten most frequent words, each matching a large share of the catalog: the worst case for ranking
+            case "search_common" -> get("/api/challenges/search?limit=20&q=" + Seeder.word(random.nextInt(10)), null);
+            case "leaderboard" -> get("/api/leaderboard?limit=20", null);
+            case "save" -> patch("/api/challenges/" + randomChallenge(random) + "/save", token(randomUser(random)));
+            case "accept" -> patch("/api/challenges/" + randomChallenge(random) + "/accept", token(randomUser(random)));
+            case "like" -> post("/api/challenges/" + randomChallenge(random) + "/like", token(randomUser(random)), null);
+            case "submit" -> {
+                PendingSubmission next = pendingSubmissions.poll();
+                yield next == null ? null : post("/api/challenges/" + next.challengeId() + "/submissions",
+                        token(next.username()), Map.of("proof", "https://cdn.loadtest.local/proofs/" + runId + "/"
+                                + next.challengeId(), "description", "load test submission"));
+            }
+            case "complete" -> {
+                PendingCompletion next = pendingCompletions.poll();
+                yield next == null ? null : patch("/api/challenges/" + next.challengeId() + "/accept/" + next.userId(),
+                        token(next.authorUsername()));
+            }
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private String randomUser(ThreadLocalRandom random) {
+        return usernames.get(random.nextInt(usernames.size()));
+    }
+
+    private UUID randomChallenge(ThreadLocalRandom random) {
+        return challengeIds.get(random.nextInt(challengeIds.size()));
+    }
+
+    /**
+     * Access token per user, logging in once; concurrent callers for the same user share the login.
+     */
+    private String token(String username) {
+        CompletableFuture<String> ours = new CompletableFuture<>();
+        CompletableFuture<String> existing = tokens.putIfAbsent(username, ours);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            HttpResponse<String> response = http.send(
+                    post("/auth/login", null, Map.of("username", username, "password", password)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode());
+            }
+            JsonNode body = JSON.readTree(response.body());
+            ours.complete(body.path("token").path("accessToken").asText());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            tokens.remove(username, ours);
+            ours.completeExceptionally(e);
+            throw new IllegalStateException("Login of " + username + " failed", e);
+        }
+        return ours.join();
+    }
+
+    private void loadFixtures() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            challengeIds = queryList(connection, "SELECT id FROM challenges ORDER BY random() LIMIT 10000",
+                    rs -> rs.getObject(1, UUID.class));
+            usernames = queryList(connection, "SELECT username FROM users WHERE username LIKE 'user%' ORDER BY random() LIMIT " + userPool,
+                    rs -> rs.getString(1));
+            pendingCompletions.addAll(queryList(connection, """
+                    SELECT p.user_id, p.challenge_id, a.username
+                    FROM user_challenge_connection p
+                    JOIN user_challenge_connection au ON au.challenge_id = p.challenge_id AND au.type = 'author'
+                    JOIN users a ON a.id = au.user_id
+                    WHERE p.type = 'pending_verification'
+                    ORDER BY random()
+                    LIMIT 100000
+                    """, rs -> new PendingCompletion(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getString(3))));
+            // Only users of the login pool, so submitting does not log in new users mid-run
+            pendingSubmissions.addAll(queryList(connection, """
+                    SELECT a.challenge_id, u.username
+                    FROM user_challenge_connection a
+                    JOIN users u ON u.id = a.user_id
+                    WHERE a.type = 'active'
+                      AND u.username = ANY(?)
+                    ORDER BY random()
+                    LIMIT 100000
+                    """, rs -> new PendingSubmission(rs.getObject(1, UUID.class), rs.getString(2)),
+                    connection.createArrayOf("text", usernames.toArray())));
+        }
+        if (challengeIds.isEmpty() || usernames.isEmpty()) {
+            throw new IllegalStateException("No seeded data found, run the seed command first");
+        }
+    }
+
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static <T> List<T> queryList(Connection connection, String sql, RowMapper<T> mapper, Object... params)
+            throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest patch(String path, String token) {
+        return builder(path, token).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, String> body) {
+        try {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body));
+            return builder(path, token).header("Content-Type", "application/json").POST(publisher).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String report(Duration measured) {
+        StringWriter buffer = new StringWriter();
+        PrintWriter w = new PrintWriter(buffer);
+        w.printf("Load test %s against %s at %s%n", runId, baseUrl, Instant.now());
+        w.printf("Measured %s after %s warmup; max in-flight %d; dropped at in-flight cap %d%n%n",
+                measured, warmup, maxObservedInFlight.get(), dropped.sum());
+        w.printf("%-12s %8s %10s %8s %9s %9s %9s %9s  %s%n",
+                "endpoint", "rate", "requests", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "statuses");
+        for (String scenario : rates.keySet()) {
+            EndpointStats s = stats.get(scenario);
+            if (s == null) {
+                w.printf("%-12s %8.1f %10d%n", scenario, 0.0, 0);
+                continue;
+            }
+            Histogram h = s.latencies;
+            w.printf("%-12s %8.1f %10d %8d %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    scenario,
+                    s.requests.sum() / (double) measured.toSeconds(),
+                    s.requests.sum(),
+                    s.errors.sum(),
+                    h.getValueAtPercentile(50) / 1000.0,
+                    h.getValueAtPercentile(95) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0,
+                    h.getMaxValue() / 1000.0,
+                    s.statuses);
+        }
+        w.println();
+        w.println("rate = completed requests per second; status -1 = I/O error or timeout, -2 = nothing left to do");
+        w.flush();
+        return buffer.toString();
+    }
+
+    private static final class EndpointStats {
+        // microseconds, up to one hour, 3 significant digits
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(int status, long latencyNanos) {
+            requests.increment();
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+            statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), TimeUnit.HOURS.toMicros(1)));
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package backend.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bulk synthetic data loaded with COPY into a database migrated by the backend (start it once, or run Flyway).
+ * <p>
+ * Users are {@code user0 .. userN-1} with ids from {@link KeycloakStubServer#userId}, all sharing one password, so
+ * they can log in through the stub. Every challenge has an author; each user additionally gets a mix of saved,
+ * active, complete and pending_verification connections. Submissions (approved for complete, pending for
+ * pending_verification), user_stats and the challenge counters are derived from the connections afterwards.
+ */
+final class Seeder {
+    private static final String[] CATEGORIES = {"educational", "environmental", "sports", "creative", "social", "other"};
+    private static final String[] DIFFICULTIES = {"easy", "medium", "hard"};
+    private static final OffsetDateTime START = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    private static final int COPY_BUFFER = 1 << 16;
+    // Pseudo-words for titles and descriptions: 8000 distinct stems, drawn with Zipf frequencies (exponent 1) like
+    // natural language. The most common words appear in most of the catalog, the rare tail in a handful of rows.
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ru", "te", "zo", "pa", "ni", "vo", "de",
+            "su", "ga", "fi", "ho", "ba", "ne", "ti", "wu", "ma", "ro"};
+    static final int VOCABULARY = SYLLABLES.length * SYLLABLES.length * SYLLABLES.length;
+    private static final double[] ZIPF_CDF = zipfCdf(VOCABULARY);
+
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int users;
+    private final int challenges;
+    private final int connectionsPerUser;
+    private final long seed;
+
+    Seeder(Args args) {
+        this.jdbcUrl = args.get("jdbc-url", "jdbc:postgresql://localhost:5433/app");
+        this.dbUser = args.get("db-user", System.getenv().getOrDefault("POSTGRES_USER", "postgres"));
+        this.dbPassword = args.get("db-password", System.getenv().getOrDefault("POSTGRES_PASSWORD", "postgres"));
+        this.users = args.getInt("users", 10_000);
+        this.challenges = args.getInt("challenges", 50_000);
+        this.connectionsPerUser = args.getInt("connections-per-user", 20);
+        this.seed = args.getInt("seed", 42);
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    static UUID challengeId(int index) {
+        return UUID.nameUUIDFromBytes(("loadtest-challenge:" + index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String word(int index) {
+        int n = SYLLABLES.length;
+        return SYLLABLES[index % n] + SYLLABLES[index / n % n] + SYLLABLES[index / (n * n) % n];
+    }
+
+    // Word index by frequency rank: 0 is the most common word
+    static int zipfWord(RandomGenerator random) {
+        int index = Arrays.binarySearch(ZIPF_CDF, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, VOCABULARY - 1);
+    }
+
+    private static double[] zipfCdf(int size) {
+        double[] cdf = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / (rank + 1);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cdf[rank] /= total;
+        }
+        return cdf;
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(word(zipfWord(random)));
+        }
+        return text.toString();
+    }
+
+    static int authorOf(int challengeIndex, int users) {
+        return challengeIndex % users;
+    }
+
+    void run(boolean reset) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            connection.setAutoCommit(false);
+            if (reset) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("TRUNCATE users, challenges CASCADE");
+                }
+            }
+            PGConnection pg = connection.unwrap(PGConnection.class);
+
+            long startedAt = System.nanoTime();
+            copyUsers(pg);
+            copyChallenges(pg);
+            long connections = copyConnections(pg);
+            // The tables were truncated in this transaction, so the planner still sees them as empty and would
+            // join millions of rows with nested loops; sampling them first gives the derive steps hash joins
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users, challenges, user_challenge_connection");
+            }
+            deriveStats(connection);
+            deriveSubmissionsAndCounters(connection);
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users, user_stats, challenges, user_challenge_connection, submissions");
+            }
+            System.out.printf("Seeded %d users, %d challenges and %d connections in %d ms%n",
+                    users, challenges, connections, (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private void copyUsers(PGConnection pg) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn(
+                "COPY users (id, username, email, first_name, last_name, bio, avatar_url, created_at) FROM STDIN WITH (FORMAT csv)"))) {
+            for (int i = 0; i < users; i++) {
+                String username = username(i);
+                out.row(KeycloakStubServer.userId(username), username, username + "@loadtest.local", "Load", "Test " + i,
+                        "Synthetic user " + i, "https://cdn.loadtest.local/avatars/" + i + ".png",
+                        START.plusSeconds(random.nextLong(30_000_000)));
+            }
+        }
+    }
+
+    private void copyChallenges(PGConnection pg) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        try (CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn(
+                "COPY challenges (id, title, description, image, points, category, difficulty, likes_count, submissions_count, created_at) "
+                        + "FROM STDIN WITH (FORMAT csv)"))) {
+            for (int j = 0; j < challenges; j++) {
+                out.row(challengeId(j), "Challenge " + j + ": " + words(random, 4),
+                        words(random, 8 + random.nextInt(16)),
+                        "https://cdn.loadtest.local/challenges/" + j + ".jpg",
+                        10 * random.nextInt(1, 50),
+                        CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        DIFFICULTIES[random.nextInt(DIFFICULTIES.length)],
+                        random.nextInt(5_000),
+                        0,
+                        START.plusSeconds(random.nextLong(30_000_000)));
+            }
+        }
+    }
+
+    private long copyConnections(PGConnection pg) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 2);
+        long rows = 0;
+        try (CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn(
+                "COPY user_challenge_connection (user_id, challenge_id, type, ts) FROM STDIN WITH (FORMAT csv)"))) {
+            for (int j = 0; j < challenges; j++) {
+                out.row(KeycloakStubServer.userId(username(authorOf(j, users))), challengeId(j), "author", START);
+                rows++;
+            }
+            int perUser = Math.min(connectionsPerUser, Math.max(0, challenges - 1));
+            Set<Integer> picked = new HashSet<>();
+            for (int i = 0; i < users; i++) {
+                UUID userId = KeycloakStubServer.userId(username(i));
+                picked.clear();
+                while (picked.size() < perUser) {
+                    int j = random.nextInt(challenges);
+                    if (authorOf(j, users) == i || !picked.add(j)) continue;
+                    out.row(userId, challengeId(j), connectionType(random), START.plusSeconds(random.nextLong(30_000_000)));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String connectionType(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 40) return "saved";
+        if (roll < 70) return "active";
+        if (roll < 90) return "complete";
+        return "pending_verification";
+    }
+
+    private static void deriveStats(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO user_stats (user_id, points, created_challenges_count, complete_challenges_count,
+                                            active_challenges_count, saved_challenges_count, submissions_count)
+                    SELECT u.id,
+                           COALESCE(SUM(c.points) FILTER (WHERE ucc.type = 'complete'), 0),
+                           COUNT(*) FILTER (WHERE ucc.type = 'author'),
+                           COUNT(*) FILTER (WHERE ucc.type = 'complete'),
+                           COUNT(*) FILTER (WHERE ucc.type = 'active'),
+                           COUNT(*) FILTER (WHERE ucc.type = 'saved'),
+                           COUNT(*) FILTER (WHERE ucc.type = 'pending_verification')
+                    FROM users u
+                    LEFT JOIN user_challenge_connection ucc ON ucc.user_id = u.id
+                    LEFT JOIN challenges c ON c.id = ucc.challenge_id
+                    WHERE NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id)
+                    GROUP BY u.id
+                    """);
+        }
+    }
+
+    private static void deriveSubmissionsAndCounters(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO submissions (proof, user_id, challenge_id, status, created_at, verified_at)
+                    SELECT 'https://cdn.loadtest.local/proofs/' || user_id || '/' || challenge_id, user_id, challenge_id,
+                           CASE WHEN type = 'complete' THEN 'approved' ELSE 'pending' END::submission_status,
+                           ts, CASE WHEN type = 'complete' THEN ts END
+                    FROM user_challenge_connection
+                    WHERE type IN ('complete', 'pending_verification')
+                    """);
+            statement.execute("""
+                    UPDATE challenges c
+                    SET active_count      = t.active,
+                        pending_count     = t.pending,
+                        complete_count    = t.complete,
+                        saved_count       = t.saved,
+                        submissions_count = t.pending + t.complete
+                    FROM (
+                        SELECT challenge_id,
+                               COUNT(*) FILTER (WHERE type = 'active')               AS active,
+                               COUNT(*) FILTER (WHERE type = 'pending_verification') AS pending,
+                               COUNT(*) FILTER (WHERE type = 'complete')             AS complete,
+                               COUNT(*) FILTER (WHERE type = 'saved')                AS saved
+                        FROM user_challenge_connection
+                        GROUP BY challenge_id
+                    ) t
+                    WHERE c.id = t.challenge_id
+                    """);
+        }
+    }
+
+    /**
+     * Buffers CSV rows and hands them to the COPY stream in large chunks.
+     */
+    static final class CopyWriter implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER * 2);
+
+        CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) buffer.append(',');
+                appendCsv(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER) {
+                flush();
+            }
+        }
+
+        private void appendCsv(Object value) {
+            if (value == null) return;
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+                buffer.append(text);
+            } else {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+}
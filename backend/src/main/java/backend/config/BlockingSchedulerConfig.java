@@ -0,0 +1,31 @@
+package backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler for blocking work (JPA, caches) chained onto Keycloak calls. Follows
+ * {@code spring.threads.virtual.enabled}: one virtual thread per task in the virtual-threads profile,
+ * Reactor's bounded elastic pool otherwise.
+ */
+@Configuration
+public class BlockingSchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualThreadBlockingScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual-blocking");
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler boundedElasticBlockingScheduler() {
+        return Schedulers.boundedElastic();
+    }
+}
@@ -0,0 +1,148 @@
+package backend.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keycloak signing keys held in memory, so tokens are verified without a network call.
+ * Keys are seeded from a local JWKS file at startup (letting the app verify tokens while Keycloak is slow or down),
+ * refreshed in the background, and re-fetched on demand when a token carries an unknown key id. Startup only waits
+ * for Keycloak when the file supplied no keys. The on-demand fetch never holds up the request that triggered it:
+ * that token is rejected at once, and tokens signed with the new key verify as soon as the fetch completes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CachedJwkSource implements JWKSource<SecurityContext> {
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+    // Unknown key ids trigger at most one on-demand fetch per interval
+    private static final Duration MIN_ON_DEMAND_INTERVAL = Duration.ofSeconds(30);
+
+    private final WebClient keycloakWebClient;
+    private final KeycloakConfigProperties keycloakProps;
+    private final Scheduler blockingScheduler;
+
+    private final AtomicReference<JWKSet> keys = new AtomicReference<>(new JWKSet());
+    private volatile Instant lastFetchAttempt = Instant.EPOCH;
+    private final AtomicBoolean onDemandFetch = new AtomicBoolean();
+    // A lock rather than synchronized: the fetch blocks on I/O and must not pin a virtual thread's carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @PostConstruct
+    public void load() {
+        Path file = jwksFile();
+        if (file != null && Files.isReadable(file)) {
+            try {
+                keys.set(JWKSet.parse(Files.readString(file, StandardCharsets.UTF_8)));
+                log.info("Loaded {} signing key(s) from {}", keys.get().size(), file);
+            } catch (IOException | ParseException e) {
+                log.warn("Could not read JWKS file {}: {}", file, e.getMessage());
+            }
+        }
+        if (keys.get().isEmpty()) {
+            // Nothing to verify tokens with yet: startup waits for Keycloak, up to the fetch timeout
+            refresh();
+        } else {
+            fetch().subscribe();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${keycloak.jwks-refresh-interval-ms:600000}",
+            initialDelayString = "${keycloak.jwks-refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        List<JWK> matches = selector.select(keys.get());
+        if (matches.isEmpty() && Instant.now().isAfter(lastFetchAttempt.plus(MIN_ON_DEMAND_INTERVAL))
+                && onDemandFetch.compareAndSet(false, true)) {
+            log.info("No cached signing key matches the token, fetching the JWKS from Keycloak in the background");
+            fetch().doFinally(signal -> onDemandFetch.set(false)).subscribe();
+        }
+        return matches;
+    }
+
+    public boolean refresh() {
+        refreshLock.lock();
+        try {
+            return Boolean.TRUE.equals(fetch().block());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Mono<Boolean> fetch() {
+        return Mono.defer(() -> {
+                    lastFetchAttempt = Instant.now();
+                    return keycloakWebClient.get()
+                            .uri(keycloakProps.getJwksEndpoint())
+                            .retrieve()
+                            .bodyToMono(String.class)
+                            .timeout(FETCH_TIMEOUT);
+                })
+                // Parsing and writing the local copy happen off the WebClient's event loop
+                .publishOn(blockingScheduler)
+                .map(body -> {
+                    try {
+                        JWKSet fetched = JWKSet.parse(body);
+                        keys.set(fetched);
+                        persist(fetched);
+                        log.info("Refreshed {} signing key(s) from Keycloak", fetched.size());
+                        return true;
+                    } catch (ParseException e) {
+                        throw new IllegalStateException("Malformed JWKS: " + e.getMessage(), e);
+                    }
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Empty JWKS response from Keycloak, keeping {} cached key(s)", keys.get().size());
+                    return false;
+                }))
+                .onErrorResume(e -> {
+                    log.warn("Could not refresh JWKS from Keycloak, keeping {} cached key(s): {}",
+                            keys.get().size(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    // Keeps the local copy current so the next startup can verify tokens offline
+    private void persist(JWKSet fetched) {
+        Path file = jwksFile();
+        if (file == null) return;
+        try {
+            Files.writeString(file, fetched.toString(true), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not write JWKS file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path jwksFile() {
+        String file = keycloakProps.getJwksFile();
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+}
@@ -0,0 +1,14 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "challenge-autocomplete")
+public class ChallengeAutocompleteProperties {
+    private int defaultLimit = 10;
+    // Full rebuilds pick up popularity changes and deleted challenges
+    private long rebuildIntervalMs = 3_600_000;
+}
@@ -0,0 +1,18 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "challenge-cache")
+public class ChallengeCacheProperties {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+    // Serialized pages of the global listing; changes other than new challenges show up after at most this long
+    private long listMaxSize = 1_000;
+    private Duration listTtl = Duration.ofSeconds(2);
+}
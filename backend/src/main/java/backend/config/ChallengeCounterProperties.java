@@ -0,0 +1,17 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "challenge-counters")
+public class ChallengeCounterProperties {
+    private int shards = 16;
+    private long foldIntervalMs = 1_000;
+    private int foldBatchSize = 5_000;
+    // Drift repair; counters are exact between runs unless a write path bypasses ChallengeCounterService
+    private long rebuildIntervalMs = 21_600_000;
+    private int rebuildBatchSize = 1_000;
+}
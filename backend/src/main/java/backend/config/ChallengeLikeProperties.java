@@ -0,0 +1,14 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "challenge-likes")
+public class ChallengeLikeProperties {
+    private int shards = 16;
+    private long foldIntervalMs = 1_000;
+    private int foldBatchSize = 5_000;
+}
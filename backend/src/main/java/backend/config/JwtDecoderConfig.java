@@ -0,0 +1,39 @@
+package backend.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Verifies bearer tokens locally against {@link CachedJwkSource} instead of going through
+ * issuer discovery, so request authentication never waits on Keycloak.
+ */
+@Configuration
+public class JwtDecoderConfig {
+
+    @Bean
+    public JwtDecoder jwtDecoder(CachedJwkSource jwkSource,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer) {
+        return localJwtDecoder(jwkSource, issuer);
+    }
+
+    public static NimbusJwtDecoder localJwtDecoder(JWKSource<SecurityContext> jwkSource, String issuer) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by Spring's validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "keycloak")
@@ -11,9 +13,46 @@ public class KeycloakConfigProperties {
     private String baseUrl;
     private String tokenEndpoint;
     private String userEndpoint;
+    private String jwksEndpoint;
+    // Local copy of the realm's public keys, read at startup and rewritten after each refresh
+    private String jwksFile;
     private String realm;
     private String clientId;
     private String clientSecret;
     private String adminUsername;
     private String adminPassword;
+    // Share of the admin token lifetime after which it is refreshed in the background
+    private double adminTokenRefreshFraction = 0.75;
+    private Http http = new Http();
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Data
+    public static class Http {
+        private int maxConnections = 100;
+        // Callers queued for a pooled connection before new calls are rejected
+        private int pendingAcquireMaxCount = 200;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        // Max silence between bytes of a response
+        private Duration readTimeout = Duration.ofSeconds(5);
+        // Time until the response headers arrive
+        private Duration responseTimeout = Duration.ofSeconds(5);
+        // Overall deadline of one Keycloak call, including connection acquisition
+        private Duration requestTimeout = Duration.ofSeconds(8);
+    }
+
+    /**
+     * Max concurrent in-flight calls per operation type; calls beyond the limit fail fast with 503
+     * so a slow Keycloak cannot absorb every connection (and caller) in the pool.
+     */
+    @Data
+    public static class Bulkhead {
+        private int userToken = 64;
+        private int refreshToken = 32;
+        private int clientToken = 4;
+        private int createUser = 16;
+        private int deleteUser = 16;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package backend.config;
+
+import backend.service.ChallengeDetailsCache;
+import backend.service.ChallengeResponseCache;
+import backend.service.PrincipalCache;
+import backend.service.UserFeedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestJpaStatisticsCustomizer() {
+        RequestJpaStatistics statistics = new RequestJpaStatistics();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, statistics);
+            properties.put(AvailableSettings.INTERCEPTOR, statistics);
+        };
+    }
+
+    // Ahead of the security chain, so statements of the principal lookup during authentication are counted too
+    @Bean
+    public FilterRegistrationBean<RequestJpaMetricsFilter> requestJpaMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestJpaMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestJpaMetricsFilter(meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(ChallengeDetailsCache detailsCache, PrincipalCache principalCache,
+                                    UserFeedCache feedCache, ChallengeResponseCache responseCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, detailsCache.nativeCache(), "challengeDetails");
+            CaffeineCacheMetrics.monitor(registry, principalCache.nativeCache(), "principals");
+            CaffeineCacheMetrics.monitor(registry, feedCache.nativeCache(), "userFeeds");
+            CaffeineCacheMetrics.monitor(registry, responseCache.nativeListCache(), "challengeListResponses");
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+    private long pollIntervalMs = 200;
+    // Events per handler transaction
+    private int batchSize = 1_000;
+    private long cleanupIntervalMs = 60_000;
+    private int cleanupBatchSize = 10_000;
+}
@@ -0,0 +1,15 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "principal-cache")
+public class PrincipalCacheProperties {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,50 @@
+package backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publishes the statements and entity loads of each request as {@code jpa.request.statements} and
+ * {@code jpa.request.entity.loads}, tagged like {@code http.server.requests}. Requests that go async
+ * (endpoints returning Mono) continue on other threads and are not counted.
+ */
+@RequiredArgsConstructor
+public class RequestJpaMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestJpaStatistics.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+                record("jpa.request.statements", "SQL statements per request", request, uri,
+                        RequestJpaStatistics.statements());
+                record("jpa.request.entity.loads", "Entities loaded per request", request, uri,
+                        RequestJpaStatistics.entityLoads());
+            }
+        }
+    }
+
+    private void record(String name, String description, HttpServletRequest request, String uri, long value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,39 @@
+package backend.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the SQL statements and entity loads Hibernate performs on the current thread, so they can be reported
+ * per HTTP request by {@link RequestJpaMetricsFilter}.
+ */
+public class RequestJpaStatistics implements StatementInspector, Interceptor {
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get()[0]++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTS.get()[1]++;
+        return false;
+    }
+
+    static void reset() {
+        long[] counts = COUNTS.get();
+        counts[0] = 0;
+        counts[1] = 0;
+    }
+
+    static long statements() {
+        return COUNTS.get()[0];
+    }
+
+    static long entityLoads() {
+        return COUNTS.get()[1];
+    }
+}
@@ -0,0 +1,16 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "submission-review")
+public class SubmissionReviewProperties {
+    // How long claimed submissions stay hidden from other moderators
+    private Duration claimTtl = Duration.ofMinutes(15);
+    private int maxClaim = 50;
+}
@@ -0,0 +1,16 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-feed-cache")
+public class UserFeedCacheProperties {
+    private long maxSize = 10_000;
+    // Bounds staleness of challenge fields (likes, submissions); connection changes evict immediately
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,18 @@
+package backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-stats.write-behind")
+public class UserStatsWriteBehindProperties {
+    // Off: connection counters are written in the outbox dispatch transaction
+    private boolean enabled = false;
+    private long flushIntervalMs = 200;
+    // Buffered deltas that trigger a flush before the interval is up
+    private int maxPendingDeltas = 1_000;
+    // Users per multi-row UPDATE
+    private int batchSize = 500;
+}
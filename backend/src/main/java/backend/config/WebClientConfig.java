@@ -1,18 +1,43 @@
 package backend.config;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
     @Bean
     public WebClient keycloakWebClient(KeycloakConfigProperties keycloakProps) {
+        KeycloakConfigProperties.Http http = keycloakProps.getHttp();
+
+        ConnectionProvider pool = ConnectionProvider.builder("keycloak")
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getMaxIdleTime())
+                .build();
+
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .responseTimeout(http.getResponseTimeout())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+
         return WebClient.builder()
                 .baseUrl(keycloakProps.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
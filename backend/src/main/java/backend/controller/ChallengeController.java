@@ -1,19 +1,31 @@
 package backend.controller;
 
 import backend.dto.ChallengeQueryDTO;
+import backend.dto.ChallengeSearchQueryDTO;
+import backend.dto.CommentDTO;
 import backend.dto.request.CreateChallengeRequestDTO;
+import backend.dto.request.InviteUsersRequestDTO;
+import backend.dto.request.SubmissionRequestDTO;
+import backend.dto.response.BulkInviteResponseDTO;
 import backend.dto.response.ChallengeDetailsDTO;
+import backend.dto.response.ChallengeSuggestionDTO;
 import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
 import backend.mapper.ChallengeMapper;
 import backend.model.ChallengeEntity;
+import backend.service.ChallengeAutocompleteService;
 import backend.service.ChallengeServiceImpl;
+import backend.service.ChallengeResponseCache;
+import backend.service.CommentService;
 import backend.service.UserService;
 import jakarta.validation.Valid;
 import jakarta.websocket.server.PathParam;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.UUID;
 import java.util.List;
@@ -24,30 +36,80 @@ import java.util.List;
 public class ChallengeController {
 
     private final ChallengeServiceImpl challengeService;
+    private final ChallengeAutocompleteService autocompleteService;
+    private final CommentService commentService;
+    private final ChallengeResponseCache responseCache;
 
     @PostMapping
     public ChallengeDetailsDTO createChallenge(@RequestBody @Valid CreateChallengeRequestDTO req,
                                                @AuthenticationPrincipal Jwt jwt) {
         UUID authorId = UUID.fromString(jwt.getSubject());
-        return challengeService.createChallenge(req, authorId);
+        ChallengeDetailsDTO created = challengeService.createChallenge(req, authorId);
+        responseCache.invalidateLists();
+        return created;
     }
 
+    // A poll with a current ETag is answered with 304 from memory, without a query or serialization
     @GetMapping("/{challengeId}")
-    public ChallengeDetailsDTO viewChallenge(@PathVariable UUID challengeId) {
-        return challengeService.viewChallenge(challengeId);
+    public ResponseEntity<byte[]> viewChallenge(@PathVariable UUID challengeId, ServletWebRequest request) {
+        return ConditionalResponses.of(
+                responseCache.details(challengeId, () -> challengeService.viewChallenge(challengeId)), request);
+    }
+
+    @GetMapping("/{challengeId}/comments")
+    public PageResponseDTO<CommentDTO> getComments(@PathVariable UUID challengeId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        return commentService.getThreads(challengeId, cursor, limit);
     }
 
     @GetMapping
-    public List<ChallengeSummaryDTO> listChallenges(
+    public ResponseEntity<byte[]> listChallenges(
             @RequestParam(required = false) String userConnectionType,
             @RequestParam(required = false) String difficulty,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String sortType,
-            @AuthenticationPrincipal Jwt jwt) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal Jwt jwt,
+            ServletWebRequest request) {
 
-        ChallengeQueryDTO queryDTO = ChallengeQueryDTO.fromStrings(userConnectionType, difficulty, category, sortType);
+        ChallengeQueryDTO queryDTO = ChallengeQueryDTO.fromStrings(userConnectionType, difficulty, category, sortType, cursor, limit);
         UUID userId = UUID.fromString(jwt.getSubject());
-        return challengeService.listChallenges(queryDTO, userId);
+        return ConditionalResponses.of(
+                responseCache.list(queryDTO, () -> challengeService.listChallenges(queryDTO, userId)), request);
+    }
+
+    @GetMapping("/search")
+    public PageResponseDTO<ChallengeSummaryDTO> searchChallenges(
+            @RequestParam("q") String text,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        return challengeService.searchChallenges(
+                ChallengeSearchQueryDTO.fromStrings(text, difficulty, category, cursor, limit));
+    }
+
+    @GetMapping("/autocomplete")
+    public List<ChallengeSuggestionDTO> autocomplete(@RequestParam("q") String prefix,
+                                                     @RequestParam(required = false) Integer limit) {
+        return autocompleteService.suggest(prefix, limit);
+    }
+
+    @PostMapping("/{challengeId}/like")
+    public void likeChallenge(@PathVariable UUID challengeId, @AuthenticationPrincipal Jwt jwt) {
+
+        UUID userId = UUID.fromString(jwt.getSubject());
+        challengeService.likeChallenge(challengeId, userId);
+    }
+
+    @DeleteMapping("/{challengeId}/like")
+    public void unlikeChallenge(@PathVariable UUID challengeId, @AuthenticationPrincipal Jwt jwt) {
+
+        UUID userId = UUID.fromString(jwt.getSubject());
+        challengeService.unlikeChallenge(challengeId, userId);
     }
 
     @PatchMapping("/{challengeId}/save")
@@ -71,12 +133,27 @@ public class ChallengeController {
         challengeService.acceptChallenge(challengeId, userId);
     }
 
+    @PostMapping("/{challengeId}/submissions")
+    public void submitCompletion(@PathVariable UUID challengeId,
+                                 @RequestBody @Valid SubmissionRequestDTO req,
+                                 @AuthenticationPrincipal Jwt jwt) {
+
+        UUID userId = UUID.fromString(jwt.getSubject());
+        challengeService.submitCompletion(userId, challengeId, req);
+    }
+
     @PatchMapping("/{challengeId}/invite/{userId}")
     public void challengeUser(@PathVariable UUID challengeId, @PathVariable UUID userId) {
 
         challengeService.challengeUser(challengeId, userId);
     }
 
+    @PostMapping("/{challengeId}/invite")
+    public BulkInviteResponseDTO inviteUsers(@PathVariable UUID challengeId,
+                                             @RequestBody @Valid InviteUsersRequestDTO req) {
+        return challengeService.inviteUsers(challengeId, req);
+    }
+
 
     @PatchMapping("/{challengeId}/accept/{userId}")
     public void acceptUserCompletion(@PathVariable UUID challengeId, @PathVariable UUID userId, @AuthenticationPrincipal Jwt jwt) {
@@ -0,0 +1,51 @@
+package backend.controller;
+
+import backend.util.SerializedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Writes a {@link SerializedResponse}: 304 when the client's validators still match, otherwise the precomputed
+ * bytes, gzip-encoded when the client accepts it.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    // Returns null once checkNotModified has written the 304 and its validators
+    static ResponseEntity<byte[]> of(SerializedResponse response, ServletWebRequest request) {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // The representation depends on Accept-Encoding, the 304 included
+        request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String etag = gzip ? response.gzipEtag() : response.etag();
+        boolean notModified = response.lastModified() == null
+                ? request.checkNotModified(etag)
+                : request.checkNotModified(etag, response.lastModified().toInstant().toEpochMilli());
+        if (notModified) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ok.body(gzip ? response.gzip() : response.json());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package backend.controller;
+
+import backend.dto.LeaderboardWindow;
+import backend.dto.response.LeaderboardEntryDTO;
+import backend.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    public List<LeaderboardEntryDTO> top(@RequestParam(required = false) String window,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        return leaderboardService.top(LeaderboardWindow.fromString(window), limit);
+    }
+
+    @GetMapping("/users/{userId}")
+    public LeaderboardEntryDTO rankOf(@PathVariable UUID userId,
+                                      @RequestParam(required = false) String window) {
+        return leaderboardService.rankOf(LeaderboardWindow.fromString(window), userId);
+    }
+
+    @GetMapping("/users/{userId}/around")
+    public List<LeaderboardEntryDTO> around(@PathVariable UUID userId,
+                                            @RequestParam(required = false) String window,
+                                            @RequestParam(defaultValue = "5") int radius) {
+        return leaderboardService.around(LeaderboardWindow.fromString(window), userId, radius);
+    }
+}
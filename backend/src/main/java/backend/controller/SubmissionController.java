@@ -0,0 +1,48 @@
+package backend.controller;
+
+import backend.dto.request.ReviewSubmissionsRequestDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.dto.response.ReviewSubmissionsResponseDTO;
+import backend.dto.response.SubmissionSummaryDTO;
+import backend.service.SubmissionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/challenges/{challengeId}/submissions")
+@RequiredArgsConstructor
+public class SubmissionController {
+
+    private final SubmissionService submissionService;
+
+    @GetMapping("/pending")
+    public PageResponseDTO<SubmissionSummaryDTO> pending(@PathVariable UUID challengeId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @AuthenticationPrincipal Jwt jwt) {
+        UUID moderatorId = UUID.fromString(jwt.getSubject());
+        return submissionService.getPending(challengeId, moderatorId, cursor, limit);
+    }
+
+    @PostMapping("/claim")
+    public List<SubmissionSummaryDTO> claim(@PathVariable UUID challengeId,
+                                            @RequestParam(defaultValue = "10") int count,
+                                            @AuthenticationPrincipal Jwt jwt) {
+        UUID moderatorId = UUID.fromString(jwt.getSubject());
+        return submissionService.claimNext(challengeId, moderatorId, count);
+    }
+
+    @PostMapping("/review")
+    public ReviewSubmissionsResponseDTO review(@PathVariable UUID challengeId,
+                                              @RequestBody @Valid ReviewSubmissionsRequestDTO req,
+                                              @AuthenticationPrincipal Jwt jwt) {
+        UUID moderatorId = UUID.fromString(jwt.getSubject());
+        return submissionService.review(challengeId, moderatorId, req);
+    }
+}
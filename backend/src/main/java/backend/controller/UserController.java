@@ -1,14 +1,22 @@
 package backend.controller;
 
+import backend.dto.response.PageResponseDTO;
 import backend.dto.response.UserResponseDTO;
 import backend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +25,7 @@ import java.util.UUID;
 @Slf4j
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
 //    @PostMapping
 //    public ResponseEntity<UserResponseDTO> createUser(@Valid @RequestBody UserRequestDTO user) {
@@ -25,8 +34,34 @@ public class UserController {
 //    }
 
     @GetMapping
-    public List<UserResponseDTO> listUsers() {
-        return userService.listUsers();
+    public PageResponseDTO<UserResponseDTO> listUsers(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
+        return userService.listUsers(cursor, limit);
+    }
+
+    // The whole listing as one JSON document per line, written while the rows are still being fetched. Written on
+    // the request thread rather than as an async body, so the async request timeout does not cut off a long export.
+    // Admin only, see SecurityConfig.
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDTO.class);
+        OutputStream out = response.getOutputStream();
+        try {
+            userService.forEachUser(user -> {
+                try {
+                    out.write(writer.writeValueAsBytes(user));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the transaction has already been rolled back and the cursor closed
+            throw e.getCause();
+        }
+        out.flush();
     }
 
     @DeleteMapping("/{userId}")
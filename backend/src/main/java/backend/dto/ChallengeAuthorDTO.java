@@ -0,0 +1,11 @@
+package backend.dto;
+
+import java.util.UUID;
+
+public record ChallengeAuthorDTO(
+        UUID challengeId,
+        UUID authorId,
+        String authorUsername,
+        String authorAvatarUrl
+) {
+}
@@ -0,0 +1,50 @@
+package backend.dto;
+
+import backend.util.CursorCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Keyset position inside a challenge listing: the sort key of the last row returned plus its id as tie-breaker.
+ * Listings without a {@link SortType} are ordered by creation time.
+ */
+public record ChallengeCursor(
+        SortType sortType,
+        String sortKey,
+        UUID lastId
+) {
+    private static final String CREATED_AT = "createdAt";
+
+    public static ChallengeCursor decode(String cursor, SortType expectedSortType) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        String[] parts = CursorCodec.decode(cursor, 3);
+        String expected = expectedSortType == null ? CREATED_AT : expectedSortType.name();
+        if (!expected.equals(parts[0])) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match sort type " + expected);
+        }
+        try {
+            ChallengeCursor decoded = new ChallengeCursor(expectedSortType, parts[1], UUID.fromString(parts[2]));
+            decoded.sortValue();
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return CursorCodec.encode(sortType == null ? CREATED_AT : sortType.name(), sortKey, lastId.toString());
+    }
+
+    public String attribute() {
+        return sortType == null ? CREATED_AT : sortType.attribute();
+    }
+
+    public Comparable<?> sortValue() {
+        return sortType == null ? OffsetDateTime.parse(sortKey) : Integer.valueOf(sortKey);
+    }
+}
@@ -10,23 +10,46 @@ public record ChallengeQueryDTO(
    ConnectionType connectionType,
    ChallengeDifficulty difficulty,
    ChallengeCategory category,
-   SortType sortType
+   SortType sortType,
+   ChallengeCursor cursor,
+   int limit
 ) {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     public static ChallengeQueryDTO fromStrings(
             String connectionType,
             String difficulty,
             String category,
-            String sortType
+            String sortType,
+            String cursor,
+            Integer limit
     ) {
+        ConnectionType parsedConnectionType = parseEnum(ConnectionType.class, connectionType);
+        SortType parsedSortType = parseEnum(SortType.class, sortType);
+        // Challenges of a connection type are ordered by connection time only; the client sends its sort regardless
+        if (parsedConnectionType != null) {
+            parsedSortType = null;
+        }
         return new ChallengeQueryDTO(
-                parseEnum(ConnectionType.class, connectionType),
+                parsedConnectionType,
                 parseEnum(ChallengeDifficulty.class, difficulty),
                 parseEnum(ChallengeCategory.class, category),
-                parseEnum(SortType.class, sortType)
+                parsedSortType,
+                ChallengeCursor.decode(cursor, parsedSortType),
+                pageSize(limit)
         );
     }
 
-    private static <T extends Enum<T>> T parseEnum(Class<T> enumClass, String value) {
+    public static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for limit: " + limit);
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    static <T extends Enum<T>> T parseEnum(Class<T> enumClass, String value) {
         if (value == null || value.isBlank()) return null;
         try {
             return Enum.valueOf(enumClass, value.toLowerCase());
@@ -37,4 +60,3 @@ public record ChallengeQueryDTO(
         }
     }
 }
-
@@ -0,0 +1,38 @@
+package backend.dto;
+
+import backend.model.enums.ChallengeCategory;
+import backend.model.enums.ChallengeDifficulty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public record ChallengeSearchQueryDTO(
+        String text,
+        ChallengeDifficulty difficulty,
+        ChallengeCategory category,
+        SearchCursor cursor,
+        int limit
+) {
+    public static final int MAX_TEXT_LENGTH = 200;
+
+    public static ChallengeSearchQueryDTO fromStrings(
+            String text,
+            String difficulty,
+            String category,
+            String cursor,
+            Integer limit
+    ) {
+        if (text == null || text.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search text must not be blank");
+        }
+        if (text.length() > MAX_TEXT_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search text is longer than " + MAX_TEXT_LENGTH);
+        }
+        return new ChallengeSearchQueryDTO(
+                text.strip(),
+                ChallengeQueryDTO.parseEnum(ChallengeDifficulty.class, difficulty),
+                ChallengeQueryDTO.parseEnum(ChallengeCategory.class, category),
+                SearchCursor.decode(cursor),
+                ChallengeQueryDTO.pageSize(limit)
+        );
+    }
+}
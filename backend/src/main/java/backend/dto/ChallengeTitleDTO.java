@@ -0,0 +1,15 @@
+package backend.dto;
+
+import java.util.UUID;
+
+public record ChallengeTitleDTO(
+        UUID id,
+        String title,
+        int likesCount,
+        int submissionsCount
+) {
+    // Popularity signal the autocomplete ranks by
+    public int popularity() {
+        return likesCount + submissionsCount;
+    }
+}
@@ -0,0 +1,37 @@
+package backend.dto;
+
+import backend.util.CursorCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Keyset position among a challenge's top-level comments: creation time of the last one returned plus its id.
+ */
+public record CommentCursor(
+        OffsetDateTime createdAt,
+        UUID lastId
+) {
+    private static final String KIND = "comments";
+
+    public static CommentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        String[] parts = CursorCodec.decode(cursor, 3);
+        if (!KIND.equals(parts[0])) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not belong to a comment thread");
+        }
+        try {
+            return new CommentCursor(OffsetDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return CursorCodec.encode(KIND, createdAt.toString(), lastId.toString());
+    }
+}
@@ -1,6 +1,7 @@
 package backend.dto;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public record CommentDTO(
@@ -9,6 +10,7 @@ public record CommentDTO(
         String authorUsername,
         String authorAvatarUrl,
         OffsetDateTime createdAt,
-        UUID parentCommentId
+        UUID parentCommentId,
+        List<CommentDTO> replies
 ) {
 }
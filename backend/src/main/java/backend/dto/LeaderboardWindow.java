@@ -0,0 +1,35 @@
+package backend.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum LeaderboardWindow {
+    all_time,
+    weekly,
+    monthly;
+
+    public static LeaderboardWindow fromString(String value) {
+        if (value == null || value.isBlank()) return all_time;
+        try {
+            return LeaderboardWindow.valueOf(value.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid value for LeaderboardWindow: " + value);
+        }
+    }
+
+    // Start of the period containing {@code now} (UTC, weeks start on Monday); null for all_time
+    public OffsetDateTime periodStart(OffsetDateTime now) {
+        OffsetDateTime day = now.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case all_time -> null;
+            case weekly -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case monthly -> day.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package backend.dto;
+
+import backend.util.CursorCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * Keyset position inside ranked search results: the rank of the last row returned plus its id as tie-breaker.
+ * A cursor is only meaningful for the query text it was issued for.
+ */
+public record SearchCursor(
+        float rank,
+        UUID lastId
+) {
+    private static final String KIND = "search";
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        String[] parts = CursorCodec.decode(cursor, 3);
+        if (!KIND.equals(parts[0])) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not belong to a search");
+        }
+        try {
+            return new SearchCursor(Float.parseFloat(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return CursorCodec.encode(KIND, Float.toString(rank), lastId.toString());
+    }
+}
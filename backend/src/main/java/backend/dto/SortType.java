@@ -1,7 +1,18 @@
 package backend.dto;
 
 public enum SortType {
-    submissions,
-    likes,
-    points
+    submissions("submissionsCount"),
+    likes("likesCount"),
+    points("points");
+
+    private final String attribute;
+
+    SortType(String attribute) {
+        this.attribute = attribute;
+    }
+
+    // Name of the ChallengeEntity attribute the listing is ordered by
+    public String attribute() {
+        return attribute;
+    }
 }
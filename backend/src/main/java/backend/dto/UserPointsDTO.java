@@ -0,0 +1,9 @@
+package backend.dto;
+
+import java.util.UUID;
+
+public record UserPointsDTO(
+        UUID userId,
+        Long points
+) {
+}
@@ -0,0 +1,10 @@
+package backend.dto;
+
+import java.util.UUID;
+
+public record UserSummaryDTO(
+        UUID id,
+        String username,
+        String avatarUrl
+) {
+}
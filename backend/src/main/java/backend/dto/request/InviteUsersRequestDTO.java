@@ -0,0 +1,28 @@
+package backend.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+// Invitees may be given by id, by username or both; together they are capped per request
+public record InviteUsersRequestDTO(
+        List<@NotNull UUID> userIds,
+        List<@NotNull String> usernames
+) {
+    public static final int MAX_INVITEES = 5000;
+
+    @AssertTrue(message = "At most " + MAX_INVITEES + " user ids and usernames in total")
+    public boolean isWithinInviteeLimit() {
+        return userIdsOrEmpty().size() + usernamesOrEmpty().size() <= MAX_INVITEES;
+    }
+
+    public List<UUID> userIdsOrEmpty() {
+        return userIds == null ? List.of() : userIds;
+    }
+
+    public List<String> usernamesOrEmpty() {
+        return usernames == null ? List.of() : usernames;
+    }
+}
@@ -0,0 +1,15 @@
+package backend.dto.request;
+
+import backend.model.enums.SubmissionStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+// One decision, approved or rejected, applied to every listed submission
+public record ReviewSubmissionsRequestDTO(
+        @NotEmpty @Size(max = 500) List<@NotNull UUID> submissionIds,
+        @NotNull SubmissionStatus decision
+) {}
@@ -1,4 +1,10 @@
 package backend.dto.request;
 
-public record SubmissionRequestDTO() {
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record SubmissionRequestDTO(
+        @NotBlank @Size(max = 2000) String proof,
+        @Size(max = 5000) String description
+) {
 }
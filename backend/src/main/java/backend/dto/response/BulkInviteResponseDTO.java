@@ -0,0 +1,24 @@
+package backend.dto.response;
+
+import java.util.List;
+
+public record BulkInviteResponseDTO(
+        int invited,
+        int alreadyInvited,
+        int notFound,
+        List<InviteResultDTO> results
+) {
+    public static BulkInviteResponseDTO of(List<InviteResultDTO> results) {
+        int invited = 0;
+        int alreadyInvited = 0;
+        int notFound = 0;
+        for (InviteResultDTO result : results) {
+            switch (result.status()) {
+                case invited -> invited++;
+                case already_invited -> alreadyInvited++;
+                case not_found -> notFound++;
+            }
+        }
+        return new BulkInviteResponseDTO(invited, alreadyInvited, notFound, results);
+    }
+}
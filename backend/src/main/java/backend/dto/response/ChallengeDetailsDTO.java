@@ -21,7 +21,13 @@ public record ChallengeDetailsDTO(
         String authorAvatarUrl,
         int likesCount,
         int submissionsCount,
+        int activeCount,
+        int pendingCount,
+        int completeCount,
+        int savedCount,
         OffsetDateTime createdAt,
+        long version,
+        OffsetDateTime updatedAt,
         List<SubmissionSummaryDTO> submissions,
         List<CommentDTO> comments
 ) {}
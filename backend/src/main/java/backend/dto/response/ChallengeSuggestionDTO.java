@@ -0,0 +1,9 @@
+package backend.dto.response;
+
+import java.util.UUID;
+
+public record ChallengeSuggestionDTO(
+        UUID id,
+        String title
+) {
+}
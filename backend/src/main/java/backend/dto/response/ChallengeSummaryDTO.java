@@ -18,5 +18,9 @@ public record ChallengeSummaryDTO(
         String authorAvatarUrl,
         int likesCount,
         int submissionsCount,
+        int activeCount,
+        int pendingCount,
+        int completeCount,
+        int savedCount,
         OffsetDateTime createdAt
 ) {}
@@ -0,0 +1,19 @@
+package backend.dto.response;
+
+import java.util.UUID;
+
+/**
+ * Outcome for one invitee, echoing the id or username exactly as it was sent.
+ * {@code userId} is null when the invitee could not be resolved.
+ */
+public record InviteResultDTO(
+        String invitee,
+        UUID userId,
+        Status status
+) {
+    public enum Status {
+        invited,
+        already_invited,
+        not_found
+    }
+}
@@ -0,0 +1,12 @@
+package backend.dto.response;
+
+import java.util.UUID;
+
+public record LeaderboardEntryDTO(
+        int rank,
+        UUID userId,
+        String username,
+        String avatarUrl,
+        long points
+) {
+}
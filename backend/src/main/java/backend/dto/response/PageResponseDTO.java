@@ -0,0 +1,12 @@
+package backend.dto.response;
+
+import java.util.List;
+
+public record PageResponseDTO<T>(
+        List<T> items,
+        String nextCursor
+) {
+    public static <T> PageResponseDTO<T> of(List<T> items, String nextCursor) {
+        return new PageResponseDTO<>(items, nextCursor);
+    }
+}
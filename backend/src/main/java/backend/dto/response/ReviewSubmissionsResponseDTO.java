@@ -0,0 +1,16 @@
+package backend.dto.response;
+
+import backend.model.enums.SubmissionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@code skipped} lists the requested submissions that were left untouched: already decided, not part of the
+ * challenge or currently claimed by another moderator.
+ */
+public record ReviewSubmissionsResponseDTO(
+        SubmissionStatus decision,
+        List<UUID> decided,
+        List<UUID> skipped
+) {}
@@ -14,4 +14,14 @@ public record UserResponseDTO (
        String            avatarUrl,
        OffsetDateTime    createdAt,
        UserStatsDTO      stats
-) {}
+) {
+    // Flat form for JPQL constructor expressions, which cannot build the nested stats record themselves
+    public UserResponseDTO(UUID id, String username, String email, String firstName, String lastName, String bio,
+                           String avatarUrl, OffsetDateTime createdAt, int points, int createdChallengesCount,
+                           int completeChallengesCount, int activeChallengesCount, int savedChallengesCount,
+                           int submissionsCount) {
+        this(id, username, email, firstName, lastName, bio, avatarUrl, createdAt,
+                new UserStatsDTO(points, createdChallengesCount, completeChallengesCount, activeChallengesCount,
+                        savedChallengesCount, submissionsCount));
+    }
+}
@@ -1,9 +1,11 @@
 package backend.mapper;
 
+import backend.dto.CommentDTO;
 import backend.dto.request.CreateChallengeRequestDTO;
 import backend.dto.response.ChallengeDetailsDTO;
 import backend.dto.response.ChallengeSummaryDTO;
 import backend.model.ChallengeEntity;
+import backend.model.CommentEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,13 +15,23 @@ import java.util.UUID;
 public interface ChallengeMapper {
     @Mapping(target = "likesCount",     constant = "0")
     @Mapping(target = "submissionsCount", constant = "0")
+    @Mapping(target = "activeCount",   constant = "0")
+    @Mapping(target = "pendingCount",  constant = "0")
+    @Mapping(target = "completeCount", constant = "0")
+    @Mapping(target = "savedCount",    constant = "0")
     @Mapping(target = "id",            ignore   = true)
     @Mapping(target = "createdAt",     ignore   = true)
+    @Mapping(target = "version",       ignore   = true)
+    @Mapping(target = "updatedAt",     ignore   = true)
     @Mapping(target = "submissions",   ignore   = true)
     @Mapping(target = "comments",      ignore   = true)
     ChallengeEntity toEntity(CreateChallengeRequestDTO request);
 
     ChallengeDetailsDTO toDetailsDTO(ChallengeEntity entity, UUID authorId, String authorUsername, String authorAvatarUrl);
 
+    // The details list is already flat, replies included; threads come from CommentService
+    @Mapping(target = "replies", ignore = true)
+    CommentDTO toCommentDTO(CommentEntity entity);
+
     ChallengeSummaryDTO toSummaryDTO(ChallengeEntity entity, String authorUsername, String authorAvatarUrl);
 }
@@ -50,9 +50,22 @@ public class ChallengeEntity {
     private int likesCount;
     private int submissionsCount;
 
+    // Participants per connection state, maintained by ChallengeCounterService
+    private int activeCount;
+    private int pendingCount;
+    private int completeCount;
+    private int savedCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
+    // Bumped by every write, including the native folds; drives the details response's Last-Modified
+    @Version
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
     @OneToMany(mappedBy = "challenge", fetch = FetchType.LAZY)
     private List<SubmissionEntity> submissions = new ArrayList<>();
 
@@ -62,5 +75,11 @@ public class ChallengeEntity {
     @PrePersist
     private void prePersist() {
         if (createdAt == null) createdAt = OffsetDateTime.now();
+        if (updatedAt == null) updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    private void preUpdate() {
+        updatedAt = OffsetDateTime.now();
     }
 }
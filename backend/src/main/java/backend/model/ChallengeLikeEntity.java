@@ -0,0 +1,46 @@
+package backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "challenge_likes")
+@IdClass(ChallengeLikeEntity.Pk.class)
+public class ChallengeLikeEntity {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "challenge_id")
+    private UUID challengeId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pk implements Serializable {
+        private UUID userId;
+        private UUID challengeId;
+    }
+
+    @PrePersist
+    private void prePersist() {
+        if (createdAt == null) createdAt = OffsetDateTime.now();
+    }
+}
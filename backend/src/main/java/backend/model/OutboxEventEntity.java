@@ -0,0 +1,57 @@
+package backend.model;
+
+import backend.model.enums.ConnectionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    // Set by the database to the writing transaction's id
+    @Column(insertable = false, updatable = false)
+    private Long txid;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "challenge_id", nullable = false)
+    private UUID challengeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "connection_type")
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    private ConnectionType source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "connection_type")
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    private ConnectionType target;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    private void prePersist() {
+        if (createdAt == null) createdAt = OffsetDateTime.now();
+    }
+}
@@ -3,6 +3,8 @@ package backend.model;
 import backend.model.enums.SubmissionStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -29,6 +31,8 @@ public class SubmissionEntity {
     private String description;
 
     @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "submission_status")
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
     @Builder.Default
     private SubmissionStatus status = SubmissionStatus.pending;
 
@@ -37,6 +41,13 @@ public class SubmissionEntity {
 
     private OffsetDateTime verifiedAt;
 
+    // Moderator currently reviewing this submission; the claim lapses at claimedUntil
+    @Column(name = "claimed_by")
+    private UUID claimedBy;
+
+    @Column(name = "claimed_until")
+    private OffsetDateTime claimedUntil;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
@@ -0,0 +1,40 @@
+package backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "user_points_events")
+public class UserPointsEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    private int points;
+
+    // Outbox event the points were awarded for; unique, so redelivering the event awards nothing
+    @Column(name = "source_event_id", updatable = false)
+    private Long sourceEventId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    private void prePersist() {
+        if (createdAt == null) createdAt = OffsetDateTime.now();
+    }
+}
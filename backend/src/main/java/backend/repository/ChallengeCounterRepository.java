@@ -0,0 +1,179 @@
+package backend.repository;
+
+import backend.model.ChallengeEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+// Participation counters of challenges: sharded deltas, their fold into the challenges row and the set-wise rebuild
+public interface ChallengeCounterRepository extends Repository<ChallengeEntity, UUID> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO challenge_counter_shards
+                (challenge_id, shard, active_delta, pending_delta, complete_delta, saved_delta, submissions_delta)
+            VALUES (:challengeId, :shard, :active, :pending, :complete, :saved, :submissions)
+            ON CONFLICT (challenge_id, shard) DO UPDATE SET
+                active_delta      = challenge_counter_shards.active_delta      + EXCLUDED.active_delta,
+                pending_delta     = challenge_counter_shards.pending_delta     + EXCLUDED.pending_delta,
+                complete_delta    = challenge_counter_shards.complete_delta    + EXCLUDED.complete_delta,
+                saved_delta       = challenge_counter_shards.saved_delta       + EXCLUDED.saved_delta,
+                submissions_delta = challenge_counter_shards.submissions_delta + EXCLUDED.submissions_delta
+            """, nativeQuery = true)
+    int addToShard(@Param("challengeId") UUID challengeId,
+                   @Param("shard") int shard,
+                   @Param("active") int active,
+                   @Param("pending") int pending,
+                   @Param("complete") int complete,
+                   @Param("saved") int saved,
+                   @Param("submissions") int submissions);
+
+    // Several challenges' deltas on one shard in one statement; arrays are positional and challenge ids unique
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO challenge_counter_shards
+                (challenge_id, shard, active_delta, pending_delta, complete_delta, saved_delta, submissions_delta)
+            SELECT d.challenge_id, :shard, d.active, d.pending, d.complete, d.saved, d.submissions
+            FROM unnest(CAST(:challengeIds AS uuid[]), CAST(:active AS int[]), CAST(:pending AS int[]),
+                        CAST(:complete AS int[]), CAST(:saved AS int[]), CAST(:submissions AS int[]))
+                 AS d(challenge_id, active, pending, complete, saved, submissions)
+            JOIN challenges c ON c.id = d.challenge_id
+            ON CONFLICT (challenge_id, shard) DO UPDATE SET
+                active_delta      = challenge_counter_shards.active_delta      + EXCLUDED.active_delta,
+                pending_delta     = challenge_counter_shards.pending_delta     + EXCLUDED.pending_delta,
+                complete_delta    = challenge_counter_shards.complete_delta    + EXCLUDED.complete_delta,
+                saved_delta       = challenge_counter_shards.saved_delta       + EXCLUDED.saved_delta,
+                submissions_delta = challenge_counter_shards.submissions_delta + EXCLUDED.submissions_delta
+            """, nativeQuery = true)
+    int addToShards(@Param("challengeIds") UUID[] challengeIds,
+                    @Param("shard") int shard,
+                    @Param("active") Integer[] active,
+                    @Param("pending") Integer[] pending,
+                    @Param("complete") Integer[] complete,
+                    @Param("saved") Integer[] saved,
+                    @Param("submissions") Integer[] submissions);
+
+    // Drains up to :batchSize shard rows (skipping ones a writer holds right now) into the counters in one statement.
+    // It returns rows, so it runs as a query: @Modifying would only allow an int or void result.
+    @Query(value = """
+            WITH drained AS (
+                DELETE FROM challenge_counter_shards s
+                WHERE (s.challenge_id, s.shard) IN (
+                    SELECT challenge_id, shard FROM challenge_counter_shards
+                    LIMIT :batchSize
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING s.*
+            ), totals AS (
+                SELECT challenge_id,
+                       SUM(active_delta) AS active, SUM(pending_delta) AS pending, SUM(complete_delta) AS complete,
+                       SUM(saved_delta) AS saved, SUM(submissions_delta) AS submissions, count(*) AS shards
+                FROM drained
+                GROUP BY challenge_id
+            )
+            UPDATE challenges c
+            SET active_count      = c.active_count + t.active,
+                pending_count     = c.pending_count + t.pending,
+                complete_count    = c.complete_count + t.complete,
+                saved_count       = c.saved_count + t.saved,
+                submissions_count = c.submissions_count + t.submissions,
+                version           = c.version + 1,
+                updated_at        = CURRENT_TIMESTAMP
+            FROM totals t
+            WHERE c.id = t.challenge_id
+            RETURNING c.id AS challengeId, t.shards AS shards
+            """, nativeQuery = true)
+    List<FoldedShards> foldShards(@Param("batchSize") int batchSize);
+
+    // Transaction-scoped advisory lock shared by fold and rebuild, which must not interleave
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    int lock(@Param("key") long key);
+
+    @Query(value = """
+            SELECT id FROM challenges
+            WHERE CAST(:afterId AS text) IS NULL OR id > CAST(CAST(:afterId AS text) AS uuid)
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findIdsAfter(@Param("afterId") String afterId, @Param("limit") int limit);
+
+    // Recomputes the counters of the given challenges from connections and submissions. Deltas still waiting in
+    // shards, and connection changes the outbox has not yet delivered to :handler, are subtracted, since the next
+    // dispatch and fold add them; all of it is read from the same snapshot.
+    // Returns the challenges whose stored counters had drifted.
+    @Query(value = """
+            WITH batch AS (
+                SELECT unnest(CAST(:ids AS uuid[])) AS id
+            ), connections AS (
+                SELECT u.challenge_id,
+                       count(*) FILTER (WHERE u.type = 'active')               AS active,
+                       count(*) FILTER (WHERE u.type = 'pending_verification') AS pending,
+                       count(*) FILTER (WHERE u.type = 'complete')             AS complete,
+                       count(*) FILTER (WHERE u.type = 'saved')                AS saved
+                FROM user_challenge_connection u
+                JOIN batch b ON b.id = u.challenge_id
+                GROUP BY u.challenge_id
+            ), submitted AS (
+                SELECT s.challenge_id, count(*) AS submissions
+                FROM submissions s
+                JOIN batch b ON b.id = s.challenge_id
+                GROUP BY s.challenge_id
+            ), unfolded AS (
+                SELECT sh.challenge_id,
+                       SUM(sh.active_delta) AS active, SUM(sh.pending_delta) AS pending,
+                       SUM(sh.complete_delta) AS complete, SUM(sh.saved_delta) AS saved,
+                       SUM(sh.submissions_delta) AS submissions
+                FROM challenge_counter_shards sh
+                JOIN batch b ON b.id = sh.challenge_id
+                GROUP BY sh.challenge_id
+            ), undelivered AS (
+                SELECT e.challenge_id,
+                       count(*) FILTER (WHERE e.target = 'active')
+                           - count(*) FILTER (WHERE e.source = 'active')               AS active,
+                       count(*) FILTER (WHERE e.target = 'pending_verification')
+                           - count(*) FILTER (WHERE e.source = 'pending_verification') AS pending,
+                       count(*) FILTER (WHERE e.target = 'complete')
+                           - count(*) FILTER (WHERE e.source = 'complete')             AS complete,
+                       count(*) FILTER (WHERE e.target = 'saved')
+                           - count(*) FILTER (WHERE e.source = 'saved')                AS saved
+                FROM outbox_events e
+                JOIN batch b ON b.id = e.challenge_id
+                JOIN outbox_offsets o ON o.handler = :handler
+                WHERE e.event_type = 'connection_changed'
+                  AND (e.txid, e.id) > (o.last_txid, o.last_id)
+                GROUP BY e.challenge_id
+            ), truth AS (
+                SELECT b.id,
+                       COALESCE(cn.active, 0) - COALESCE(uf.active, 0) - COALESCE(ud.active, 0)       AS active,
+                       COALESCE(cn.pending, 0) - COALESCE(uf.pending, 0) - COALESCE(ud.pending, 0)    AS pending,
+                       COALESCE(cn.complete, 0) - COALESCE(uf.complete, 0) - COALESCE(ud.complete, 0) AS complete,
+                       COALESCE(cn.saved, 0) - COALESCE(uf.saved, 0) - COALESCE(ud.saved, 0)          AS saved,
+                       COALESCE(sb.submissions, 0) - COALESCE(uf.submissions, 0)                      AS submissions
+                FROM batch b
+                LEFT JOIN connections cn ON cn.challenge_id = b.id
+                LEFT JOIN submitted sb ON sb.challenge_id = b.id
+                LEFT JOIN unfolded uf ON uf.challenge_id = b.id
+                LEFT JOIN undelivered ud ON ud.challenge_id = b.id
+            )
+            UPDATE challenges c
+            SET active_count      = t.active,
+                pending_count     = t.pending,
+                complete_count    = t.complete,
+                saved_count       = t.saved,
+                submissions_count = t.submissions,
+                version           = c.version + 1,
+                updated_at        = CURRENT_TIMESTAMP
+            FROM truth t
+            WHERE c.id = t.id
+              AND (c.active_count, c.pending_count, c.complete_count, c.saved_count, c.submissions_count)
+                  IS DISTINCT FROM (t.active, t.pending, t.complete, t.saved, t.submissions)
+            RETURNING c.id
+            """, nativeQuery = true)
+    List<UUID> rebuild(@Param("ids") UUID[] ids, @Param("handler") String handler);
+}
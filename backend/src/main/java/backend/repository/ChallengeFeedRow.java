@@ -0,0 +1,25 @@
+package backend.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One challenge of a user's feed with its author, plus when the user got connected to it
+public interface ChallengeFeedRow {
+    UUID getId();
+    String getTitle();
+    String getDescription();
+    String getCoverImageUrl();
+    int getPoints();
+    String getCategory();
+    String getDifficulty();
+    String getAuthorUsername();
+    String getAuthorAvatarUrl();
+    int getLikesCount();
+    int getSubmissionsCount();
+    int getActiveCount();
+    int getPendingCount();
+    int getCompleteCount();
+    int getSavedCount();
+    Instant getCreatedAt();
+    Instant getConnectedAt();
+}
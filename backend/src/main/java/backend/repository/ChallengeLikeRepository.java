@@ -0,0 +1,61 @@
+package backend.repository;
+
+import backend.model.ChallengeLikeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ChallengeLikeRepository extends JpaRepository<ChallengeLikeEntity, ChallengeLikeEntity.Pk> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO challenge_likes (user_id, challenge_id)
+            VALUES (:userId, :challengeId)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("challengeId") UUID challengeId);
+
+    @Modifying
+    @Query(value = "DELETE FROM challenge_likes WHERE user_id = :userId AND challenge_id = :challengeId",
+            nativeQuery = true)
+    int deleteLike(@Param("userId") UUID userId, @Param("challengeId") UUID challengeId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO challenge_like_shards (challenge_id, shard, delta)
+            VALUES (:challengeId, :shard, :delta)
+            ON CONFLICT (challenge_id, shard) DO UPDATE SET delta = challenge_like_shards.delta + EXCLUDED.delta
+            """, nativeQuery = true)
+    int addToShard(@Param("challengeId") UUID challengeId, @Param("shard") int shard, @Param("delta") int delta);
+
+    // Drains up to :batchSize shard rows (skipping ones a liker holds right now) into likes_count in one statement.
+    // It returns rows, so it runs as a query: @Modifying would only allow an int or void result.
+    @Query(value = """
+            WITH drained AS (
+                DELETE FROM challenge_like_shards s
+                WHERE (s.challenge_id, s.shard) IN (
+                    SELECT challenge_id, shard FROM challenge_like_shards
+                    LIMIT :batchSize
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING s.challenge_id, s.delta
+            ), totals AS (
+                SELECT challenge_id, SUM(delta) AS delta, count(*) AS shards FROM drained GROUP BY challenge_id
+            )
+            UPDATE challenges c
+            SET likes_count = c.likes_count + t.delta,
+                version     = c.version + 1,
+                updated_at  = CURRENT_TIMESTAMP
+            FROM totals t
+            WHERE c.id = t.challenge_id
+            RETURNING c.id AS challengeId, t.shards AS shards
+            """, nativeQuery = true)
+    List<FoldedShards> foldShards(@Param("batchSize") int batchSize);
+
+    @Query(value = "SELECT COALESCE(SUM(delta), 0) FROM challenge_like_shards WHERE challenge_id = :challengeId",
+            nativeQuery = true)
+    long pendingDelta(@Param("challengeId") UUID challengeId);
+}
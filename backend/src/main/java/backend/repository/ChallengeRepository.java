@@ -1,15 +1,19 @@
 package backend.repository;
 
+import backend.dto.ChallengeTitleDTO;
 import backend.model.ChallengeEntity;
 import backend.model.enums.ChallengeCategory;
 import backend.model.enums.ChallengeDifficulty;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ChallengeRepository extends JpaRepository<ChallengeEntity, UUID>, JpaSpecificationExecutor<ChallengeEntity> {
     List<ChallengeEntity> findByCategoryAndDifficultyOrderByLikesCountDesc(
@@ -23,4 +27,29 @@ public interface ChallengeRepository extends JpaRepository<ChallengeEntity, UUID
     List<ChallengeEntity> findByCategoryAndDifficultyOrderByPointsDesc(
             ChallengeCategory category,
             ChallengeDifficulty difficulty);
+
+    // Streamed with a server-side cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select new backend.dto.ChallengeTitleDTO(c.id, c.title, c.likesCount, c.submissionsCount) from ChallengeEntity c")
+    Stream<ChallengeTitleDTO> streamAllTitles();
+
+    // Ranked full-text page over the GIN-indexed search_vector; filters are optional and the keyset bound is
+    // skipped on the first page (afterRank null). Ties on rank are broken by id, like the other listings.
+    @Query(value = """
+            SELECT c.id AS id, ts_rank(c.search_vector, q.query) AS rank
+            FROM challenges c, websearch_to_tsquery('english', :text) AS q(query)
+            WHERE c.search_vector @@ q.query
+              AND (CAST(:category AS text) IS NULL OR c.category = CAST(CAST(:category AS text) AS challenge_category))
+              AND (CAST(:difficulty AS text) IS NULL OR c.difficulty = CAST(CAST(:difficulty AS text) AS challenge_difficulty))
+              AND (CAST(:afterRank AS real) IS NULL
+                   OR (ts_rank(c.search_vector, q.query), c.id) < (CAST(:afterRank AS real), CAST(CAST(:afterId AS text) AS uuid)))
+            ORDER BY rank DESC, c.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChallengeSearchHit> search(@Param("text") String text,
+                                    @Param("category") String category,
+                                    @Param("difficulty") String difficulty,
+                                    @Param("afterRank") Float afterRank,
+                                    @Param("afterId") String afterId,
+                                    @Param("limit") int limit);
 }
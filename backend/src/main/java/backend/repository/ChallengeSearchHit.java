@@ -0,0 +1,9 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// One full-text match: the challenge and its relevance, which is also the keyset sort key
+public interface ChallengeSearchHit {
+    UUID getId();
+    float getRank();
+}
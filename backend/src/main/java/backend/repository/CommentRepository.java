@@ -2,11 +2,48 @@ package backend.repository;
 
 import backend.model.CommentEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<CommentEntity, UUID> {
     List<CommentEntity> findByChallengeIdOrderByCreatedAtAsc(UUID challengeId);
     List<CommentEntity> findByParentIdOrderByCreatedAtAsc(UUID parentCommentId);
+
+    // A page of top-level comments (keyset on created_at, id) with their whole reply subtrees and authors, in one
+    // round trip. One extra top-level comment is returned without replies so the caller knows another page exists.
+    @Query(value = """
+            WITH RECURSIVE roots AS (
+                SELECT c.id, row_number() OVER (ORDER BY c.created_at, c.id) AS root_rank
+                FROM comments c
+                WHERE c.challenge_id = :challengeId
+                  AND c.parent_comment_id IS NULL
+                  AND (CAST(:afterCreatedAt AS timestamptz) IS NULL
+                       OR (c.created_at, c.id) > (CAST(:afterCreatedAt AS timestamptz), CAST(CAST(:afterId AS text) AS uuid)))
+                ORDER BY c.created_at, c.id
+                LIMIT :limit + 1
+            ), thread AS (
+                SELECT c.id, c.text, c.created_at, c.parent_comment_id, c.user_id, r.root_rank
+                FROM comments c
+                JOIN roots r ON r.id = c.id
+                UNION ALL
+                SELECT c.id, c.text, c.created_at, c.parent_comment_id, c.user_id, t.root_rank
+                FROM comments c
+                JOIN thread t ON c.parent_comment_id = t.id
+                WHERE c.challenge_id = :challengeId
+                  AND t.root_rank <= :limit
+            )
+            SELECT t.id AS id, t.text AS text, t.created_at AS createdAt, t.parent_comment_id AS parentCommentId,
+                   u.username AS authorUsername, u.avatar_url AS authorAvatarUrl
+            FROM thread t
+            JOIN users u ON u.id = t.user_id
+            ORDER BY t.created_at, t.id
+            """, nativeQuery = true)
+    List<CommentThreadRow> findThreadPage(@Param("challengeId") UUID challengeId,
+                                          @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+                                          @Param("afterId") String afterId,
+                                          @Param("limit") int limit);
 }
@@ -0,0 +1,14 @@
+package backend.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One comment of a thread page, already joined with its author
+public interface CommentThreadRow {
+    UUID getId();
+    String getText();
+    Instant getCreatedAt();
+    UUID getParentCommentId();
+    String getAuthorUsername();
+    String getAuthorAvatarUrl();
+}
@@ -0,0 +1,9 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// One user moved between states; inserted is false when the user already had a row in the target state
+public interface ConnectionMove {
+    UUID getUserId();
+    boolean getInserted();
+}
@@ -0,0 +1,7 @@
+package backend.repository;
+
+// Row counts of one state move: how many source rows were removed and how many target rows were created
+public interface ConnectionTransitionResult {
+    long getMoved();
+    long getInserted();
+}
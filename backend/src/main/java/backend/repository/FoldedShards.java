@@ -0,0 +1,9 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// One challenge updated by a shard fold and how many of its shard rows were drained into it
+public interface FoldedShards {
+    UUID getChallengeId();
+    long getShards();
+}
@@ -0,0 +1,109 @@
+package backend.repository;
+
+import backend.model.OutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    // One event per user in a single statement; only valid inside the transaction making the change it records
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = """
+            INSERT INTO outbox_events (event_type, user_id, challenge_id, source, target)
+            SELECT :eventType, u.id, :challengeId,
+                   CAST(CAST(:source AS text) AS connection_type), CAST(CAST(:target AS text) AS connection_type)
+            FROM unnest(CAST(:userIds AS uuid[])) AS u(id)
+            """, nativeQuery = true)
+    int append(@Param("eventType") String eventType,
+               @Param("challengeId") UUID challengeId,
+               @Param("userIds") UUID[] userIds,
+               @Param("source") String source,
+               @Param("target") String target);
+
+    // A new handler starts at the current horizon rather than replaying history
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO outbox_offsets (handler, last_txid, last_id)
+            VALUES (:handler, CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint) - 1,
+                    9223372036854775807)
+            ON CONFLICT (handler) DO NOTHING
+            """, nativeQuery = true)
+    int registerHandler(@Param("handler") String handler);
+
+    // Skips an offset another instance is dispatching right now
+    @Query(value = """
+            SELECT last_txid AS lastTxid, last_id AS lastId FROM outbox_offsets
+            WHERE handler = :handler
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxOffset> tryLockOffset(@Param("handler") String handler);
+
+    @Query(value = """
+            SELECT last_txid AS lastTxid, last_id AS lastId FROM outbox_offsets
+            WHERE handler = :handler
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<OutboxOffset> lockOffset(@Param("handler") String handler);
+
+    // Events after the offset, stopping below the oldest transaction still in flight: anything that could still
+    // commit has a txid at or above that horizon, so the offset never skips an event
+    @Query(value = """
+            SELECT id, txid, event_type AS eventType, user_id AS userId, challenge_id AS challengeId,
+                   CAST(source AS text) AS source, CAST(target AS text) AS target
+            FROM outbox_events
+            WHERE (txid, id) > (:lastTxid, :lastId)
+              AND txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)
+            ORDER BY txid, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OutboxEventRow> findBatch(@Param("lastTxid") long lastTxid,
+                                   @Param("lastId") long lastId,
+                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_offsets
+            SET last_txid = :lastTxid, last_id = :lastId, updated_at = CURRENT_TIMESTAMP
+            WHERE handler = :handler
+            """, nativeQuery = true)
+    int advanceOffset(@Param("handler") String handler,
+                      @Param("lastTxid") long lastTxid,
+                      @Param("lastId") long lastId);
+
+    @Query(value = "SELECT COALESCE(max(id), 0) FROM outbox_events", nativeQuery = true)
+    long findMaxId();
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM outbox_events e
+                JOIN outbox_offsets o ON o.handler = :handler
+                WHERE (e.txid, e.id) > (o.last_txid, o.last_id)
+                  AND e.id <= :maxId)
+            """, nativeQuery = true)
+    boolean hasPendingUpTo(@Param("handler") String handler, @Param("maxId") long maxId);
+
+    // Deletes, oldest first, up to :batchSize events that every given handler has applied
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM outbox_events
+            WHERE id IN (
+                SELECT e.id FROM outbox_events e
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM outbox_offsets o
+                    WHERE o.handler = ANY(CAST(:handlers AS text[]))
+                      AND (o.last_txid, o.last_id) < (e.txid, e.id))
+                ORDER BY e.txid, e.id
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteApplied(@Param("handlers") String[] handlers, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,14 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// An outbox event as handed to the dispatcher; source and target are connection type names or null
+public interface OutboxEventRow {
+    Long getId();
+    Long getTxid();
+    String getEventType();
+    UUID getUserId();
+    UUID getChallengeId();
+    String getSource();
+    String getTarget();
+}
@@ -0,0 +1,7 @@
+package backend.repository;
+
+// Position of the last event a handler has applied, in (txid, id) order
+public interface OutboxOffset {
+    Long getLastTxid();
+    Long getLastId();
+}
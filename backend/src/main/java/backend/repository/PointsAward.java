@@ -0,0 +1,9 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// Points newly logged for one user by a batch of outbox events
+public interface PointsAward {
+    UUID getUserId();
+    Long getPoints();
+}
@@ -0,0 +1,9 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// A submission whose status was just decided, with the user who submitted it
+public interface SubmissionDecision {
+    UUID getId();
+    UUID getUserId();
+}
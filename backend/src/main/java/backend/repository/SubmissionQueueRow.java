@@ -0,0 +1,15 @@
+package backend.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One pending submission of the review queue, already joined with its author
+public interface SubmissionQueueRow {
+    UUID getId();
+    String getProof();
+    String getDescription();
+    String getStatus();
+    String getAuthorUsername();
+    String getAuthorAvatarUrl();
+    Instant getCreatedAt();
+}
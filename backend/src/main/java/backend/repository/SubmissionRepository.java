@@ -5,7 +5,10 @@ import backend.model.enums.SubmissionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +21,74 @@ public interface SubmissionRepository extends JpaRepository<SubmissionEntity, UU
     List<SubmissionEntity> findByChallengeIdAndStatus(
             UUID challengeId,
             SubmissionStatus status);
+
+    // Pending submissions of a challenge, oldest first, keyset on (created_at, id) over idx_submissions_pending
+    @Query(value = """
+            SELECT s.id AS id, s.proof AS proof, s.description AS description, CAST(s.status AS text) AS status,
+                   u.username AS authorUsername, u.avatar_url AS authorAvatarUrl, s.created_at AS createdAt
+            FROM submissions s
+            JOIN users u ON u.id = s.user_id
+            WHERE s.challenge_id = :challengeId
+              AND s.status = 'pending'
+              AND (CAST(:afterCreatedAt AS timestamptz) IS NULL
+                   OR (s.created_at, s.id) > (CAST(:afterCreatedAt AS timestamptz), CAST(CAST(:afterId AS text) AS uuid)))
+            ORDER BY s.created_at, s.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SubmissionQueueRow> findPendingPage(@Param("challengeId") UUID challengeId,
+                                             @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+                                             @Param("afterId") String afterId,
+                                             @Param("limit") int limit);
+
+    // Claims the oldest unclaimed (or lapsed) pending submissions for one moderator. Rows another moderator is
+    // claiming at the same moment are skipped rather than waited on, so concurrent claims never overlap.
+    @Query(value = """
+            WITH claimed AS (
+                UPDATE submissions s
+                SET claimed_by = :moderatorId,
+                    claimed_until = CURRENT_TIMESTAMP + make_interval(secs => :ttlSeconds)
+                WHERE s.id IN (
+                    SELECT p.id
+                    FROM submissions p
+                    WHERE p.challenge_id = :challengeId
+                      AND p.status = 'pending'
+                      AND (p.claimed_until IS NULL OR p.claimed_until < CURRENT_TIMESTAMP)
+                    ORDER BY p.created_at, p.id
+                    LIMIT :count
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING s.id, s.proof, s.description, s.status, s.created_at, s.user_id
+            )
+            SELECT c.id AS id, c.proof AS proof, c.description AS description, CAST(c.status AS text) AS status,
+                   u.username AS authorUsername, u.avatar_url AS authorAvatarUrl, c.created_at AS createdAt
+            FROM claimed c
+            JOIN users u ON u.id = c.user_id
+            ORDER BY c.created_at, c.id
+            """, nativeQuery = true)
+    List<SubmissionQueueRow> claimPending(@Param("challengeId") UUID challengeId,
+                                          @Param("moderatorId") UUID moderatorId,
+                                          @Param("count") int count,
+                                          @Param("ttlSeconds") long ttlSeconds);
+
+    // Decides the given pending submissions of a challenge in one UPDATE. Submissions that are already decided,
+    // belong to another challenge or are claimed by a different moderator are left alone and not returned.
+    @Query(value = """
+            WITH decided AS (
+                UPDATE submissions s
+                SET status = CAST(:status AS submission_status),
+                    verified_at = CURRENT_TIMESTAMP,
+                    claimed_by = NULL,
+                    claimed_until = NULL
+                WHERE s.id = ANY(CAST(:ids AS uuid[]))
+                  AND s.challenge_id = :challengeId
+                  AND s.status = 'pending'
+                  AND (s.claimed_by IS NULL OR s.claimed_by = :moderatorId OR s.claimed_until < CURRENT_TIMESTAMP)
+                RETURNING s.id, s.user_id
+            )
+            SELECT d.id AS id, d.user_id AS userId FROM decided d
+            """, nativeQuery = true)
+    List<SubmissionDecision> decidePending(@Param("challengeId") UUID challengeId,
+                                           @Param("ids") UUID[] ids,
+                                           @Param("moderatorId") UUID moderatorId,
+                                           @Param("status") String status);
 }
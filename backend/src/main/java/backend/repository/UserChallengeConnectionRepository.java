@@ -1,11 +1,16 @@
 package backend.repository;
 
+import backend.dto.ChallengeAuthorDTO;
 import backend.model.UserChallengeConnectionEntity;
 import backend.model.enums.ConnectionType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,4 +28,124 @@ public interface UserChallengeConnectionRepository
     List<UserChallengeConnectionEntity> findByChallengeIdAndConnectionType(UUID challengeId, ConnectionType connectionType);
 
     boolean existsByUserIdAndChallengeIdAndConnectionType(UUID userId, UUID challengeId, ConnectionType connectionType);
+
+    // Resolves the authors of a whole result set in one round trip, reading only the columns the summaries need.
+    // The type is bound: Hibernate casts an enum literal to a Postgres type named after the Java enum, which does not exist
+    @Query("""
+            select new backend.dto.ChallengeAuthorDTO(c.challengeId, u.id, u.username, u.avatarUrl)
+            from UserChallengeConnectionEntity c
+            join c.user u
+            where c.challengeId in :challengeIds
+              and c.connectionType = :type
+            """)
+    List<ChallengeAuthorDTO> findConnectedUsersByChallengeIds(@Param("challengeIds") Collection<UUID> challengeIds,
+                                                             @Param("type") ConnectionType type);
+
+    // A page of one user's challenges of one connection type, newest connection first, keyset on (ts, challenge_id);
+    // challenge and author columns come from the same statement
+    @Query(value = """
+            SELECT c.id AS id, c.title AS title, c.description AS description, c.image AS coverImageUrl,
+                   c.points AS points, CAST(c.category AS text) AS category, CAST(c.difficulty AS text) AS difficulty,
+                   a.username AS authorUsername, a.avatar_url AS authorAvatarUrl,
+                   c.likes_count AS likesCount, c.submissions_count AS submissionsCount,
+                   c.active_count AS activeCount, c.pending_count AS pendingCount,
+                   c.complete_count AS completeCount, c.saved_count AS savedCount, c.created_at AS createdAt,
+                   f.ts AS connectedAt
+            FROM user_challenge_connection f
+            JOIN challenges c ON c.id = f.challenge_id
+            LEFT JOIN LATERAL (
+                SELECT u.username, u.avatar_url
+                FROM user_challenge_connection ac
+                JOIN users u ON u.id = ac.user_id
+                WHERE ac.challenge_id = c.id
+                  AND ac.type = 'author'
+                LIMIT 1
+            ) a ON true
+            WHERE f.user_id = :userId
+              AND f.type = CAST(:type AS connection_type)
+              AND (CAST(:afterTs AS timestamptz) IS NULL
+                   OR (f.ts, f.challenge_id) < (CAST(:afterTs AS timestamptz), CAST(CAST(:afterId AS text) AS uuid)))
+              AND (CAST(:category AS text) IS NULL OR c.category = CAST(CAST(:category AS text) AS challenge_category))
+              AND (CAST(:difficulty AS text) IS NULL OR c.difficulty = CAST(CAST(:difficulty AS text) AS challenge_difficulty))
+            ORDER BY f.ts DESC, f.challenge_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChallengeFeedRow> findFeedPage(@Param("userId") UUID userId,
+                                        @Param("type") String type,
+                                        @Param("category") String category,
+                                        @Param("difficulty") String difficulty,
+                                        @Param("afterTs") OffsetDateTime afterTs,
+                                        @Param("afterId") String afterId,
+                                        @Param("limit") int limit);
+
+    // Moves a user from one state to another in a single round trip; the row lock taken by the DELETE
+    // makes a concurrent duplicate of the same move find nothing to delete
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM user_challenge_connection
+                WHERE user_id = :userId
+                  AND challenge_id = :challengeId
+                  AND type = CAST(:source AS connection_type)
+                RETURNING user_id, challenge_id
+            ), inserted AS (
+                INSERT INTO user_challenge_connection (user_id, challenge_id, type, ts)
+                SELECT user_id, challenge_id, CAST(:target AS connection_type), CURRENT_TIMESTAMP FROM moved
+                ON CONFLICT DO NOTHING
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM moved) AS moved, (SELECT count(*) FROM inserted) AS inserted
+            """, nativeQuery = true)
+    ConnectionTransitionResult moveConnection(@Param("userId") UUID userId,
+                                              @Param("challengeId") UUID challengeId,
+                                              @Param("source") String source,
+                                              @Param("target") String target);
+
+    // Set-wise moveConnection for many users of one challenge; returns a row per user that was in the source state
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM user_challenge_connection
+                WHERE challenge_id = :challengeId
+                  AND user_id = ANY(CAST(:userIds AS uuid[]))
+                  AND type = CAST(:source AS connection_type)
+                RETURNING user_id, challenge_id
+            ), inserted AS (
+                INSERT INTO user_challenge_connection (user_id, challenge_id, type, ts)
+                SELECT user_id, challenge_id, CAST(:target AS connection_type), CURRENT_TIMESTAMP FROM moved
+                ON CONFLICT DO NOTHING
+                RETURNING user_id
+            )
+            SELECT m.user_id AS userId, (i.user_id IS NOT NULL) AS inserted
+            FROM moved m
+            LEFT JOIN inserted i ON i.user_id = m.user_id
+            """, nativeQuery = true)
+    List<ConnectionMove> moveConnections(@Param("challengeId") UUID challengeId,
+                                         @Param("userIds") UUID[] userIds,
+                                         @Param("source") String source,
+                                         @Param("target") String target);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_challenge_connection (user_id, challenge_id, type, ts)
+            VALUES (:userId, :challengeId, CAST(:type AS connection_type), CURRENT_TIMESTAMP)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("challengeId") UUID challengeId,
+                       @Param("type") String type);
+
+    // Connects many users to one challenge in a single multi-row INSERT; returns only the users whose row was
+    // actually created, existing connections of the same type are left untouched
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO user_challenge_connection (user_id, challenge_id, type, ts)
+                SELECT u.user_id, :challengeId, CAST(:type AS connection_type), CURRENT_TIMESTAMP
+                FROM unnest(CAST(:userIds AS uuid[])) AS u(user_id)
+                ON CONFLICT DO NOTHING
+                RETURNING user_id
+            )
+            SELECT user_id FROM inserted
+            """, nativeQuery = true)
+    List<UUID> insertAllIfAbsent(@Param("challengeId") UUID challengeId,
+                                 @Param("userIds") UUID[] userIds,
+                                 @Param("type") String type);
 }
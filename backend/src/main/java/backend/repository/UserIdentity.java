@@ -0,0 +1,9 @@
+package backend.repository;
+
+import java.util.UUID;
+
+// Id and username of a user, enough to match invitees against what the client sent
+public interface UserIdentity {
+    UUID getId();
+    String getUsername();
+}
@@ -0,0 +1,44 @@
+package backend.repository;
+
+import backend.dto.UserPointsDTO;
+import backend.model.UserPointsEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserPointsEventRepository extends JpaRepository<UserPointsEventEntity, Long> {
+
+    @Query("""
+            select new backend.dto.UserPointsDTO(e.userId, sum(e.points))
+            from UserPointsEventEntity e
+            where e.createdAt >= :since
+            group by e.userId
+            """)
+    List<UserPointsDTO> sumPointsSince(@Param("since") OffsetDateTime since);
+
+    // Logs each completion's challenge points once per event, skipping users or challenges deleted since;
+    // arrays are positional, one element per event. Returns the points newly logged per user.
+    @Query(value = """
+            WITH awarded AS (
+                INSERT INTO user_points_events (user_id, points, source_event_id)
+                SELECT e.user_id, c.points, e.event_id
+                FROM unnest(CAST(:eventIds AS bigint[]), CAST(:userIds AS uuid[]), CAST(:challengeIds AS uuid[]))
+                     AS e(event_id, user_id, challenge_id)
+                JOIN challenges c ON c.id = e.challenge_id
+                JOIN users u ON u.id = e.user_id
+                WHERE c.points > 0
+                ON CONFLICT (source_event_id) DO NOTHING
+                RETURNING user_id, points
+            )
+            SELECT user_id AS userId, SUM(points) AS points
+            FROM awarded
+            GROUP BY user_id
+            """, nativeQuery = true)
+    List<PointsAward> insertForEvents(@Param("eventIds") Long[] eventIds,
+                                      @Param("userIds") UUID[] userIds,
+                                      @Param("challengeIds") UUID[] challengeIds);
+}
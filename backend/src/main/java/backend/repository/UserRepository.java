@@ -1,11 +1,22 @@
 package backend.repository;
 
+import backend.dto.UserSummaryDTO;
+import backend.dto.response.UserResponseDTO;
 import backend.model.UserEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
@@ -15,4 +26,40 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     boolean existsByEmail(String email);
     Optional<UserEntity> findByEmail(String email);
     Optional<UserEntity> findByUsernameIgnoreCase(String username);
+
+    @Query("select new backend.dto.UserSummaryDTO(u.id, u.username, u.avatarUrl) from UserEntity u where u.id in :ids")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    String USER_RESPONSE = """
+            select new backend.dto.response.UserResponseDTO(u.id, u.username, u.email, u.firstName, u.lastName,
+                u.bio, u.avatarUrl, u.createdAt, coalesce(s.points, 0), coalesce(s.createdChallengesCount, 0),
+                coalesce(s.completeChallengesCount, 0), coalesce(s.activeChallengesCount, 0),
+                coalesce(s.savedChallengesCount, 0), coalesce(s.submissionsCount, 0))
+            from UserEntity u left join u.stats s
+            """;
+
+    // Users with their stats as DTOs, oldest first, in (created_at, id) order over idx_users_created_id
+    @Query(USER_RESPONSE + "order by u.createdAt, u.id")
+    List<UserResponseDTO> findFirstResponsePage(Limit limit);
+
+    // The page after a keyset position; the row-value comparison lets Postgres start the index scan at the cursor
+    @Query(USER_RESPONSE + """
+            where (u.createdAt, u.id) > (:afterCreatedAt, :afterId)
+            order by u.createdAt, u.id
+            """)
+    List<UserResponseDTO> findResponsePageAfter(@Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+                                                @Param("afterId") UUID afterId,
+                                                Limit limit);
+
+    // Same rows as the pages, streamed with a server-side cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(USER_RESPONSE + "order by u.createdAt, u.id")
+    Stream<UserResponseDTO> streamAllResponses();
+
+    // Resolves a mixed list of ids and usernames in one round trip; both arrays may be empty
+    @Query(value = """
+            SELECT id, username FROM users
+            WHERE id = ANY(CAST(:ids AS uuid[])) OR username = ANY(CAST(:usernames AS text[]))
+            """, nativeQuery = true)
+    List<UserIdentity> findIdentities(@Param("ids") UUID[] ids, @Param("usernames") String[] usernames);
 }
@@ -1,10 +1,69 @@
 package backend.repository;
 
+import backend.dto.UserPointsDTO;
 import backend.model.UserStatsEntity;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserStatsRepository extends JpaRepository<UserStatsEntity, UUID> {
 
+    // Streamed with a server-side cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new backend.dto.UserPointsDTO(s.userId, cast(s.points as Long)) from UserStatsEntity s")
+    Stream<UserPointsDTO> streamAllPoints();
+
+    // Single-statement increment: the row lock serialises concurrent writers, so no update is lost
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE user_stats
+            SET points                    = points + :points,
+                created_challenges_count  = created_challenges_count + :created,
+                complete_challenges_count = complete_challenges_count + :complete,
+                active_challenges_count   = active_challenges_count + :active,
+                saved_challenges_count    = saved_challenges_count + :saved,
+                submissions_count         = submissions_count + :submissions
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int applyDelta(@Param("userId") UUID userId,
+                   @Param("points") int points,
+                   @Param("created") int created,
+                   @Param("complete") int complete,
+                   @Param("active") int active,
+                   @Param("saved") int saved,
+                   @Param("submissions") int submissions);
+
+    // Applies many users' deltas in one statement; arrays are positional, one element per user, in
+    // UserStatsService.LOCK_ORDER so concurrent batches lock shared rows in the same order
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE user_stats s
+            SET points                    = s.points + d.points,
+                created_challenges_count  = s.created_challenges_count + d.created,
+                complete_challenges_count = s.complete_challenges_count + d.complete,
+                active_challenges_count   = s.active_challenges_count + d.active,
+                saved_challenges_count    = s.saved_challenges_count + d.saved,
+                submissions_count         = s.submissions_count + d.submissions
+            FROM unnest(CAST(:userIds AS uuid[]), CAST(:points AS int[]), CAST(:created AS int[]),
+                        CAST(:complete AS int[]), CAST(:active AS int[]), CAST(:saved AS int[]),
+                        CAST(:submissions AS int[]))
+                 AS d(user_id, points, created, complete, active, saved, submissions)
+            WHERE s.user_id = d.user_id
+            """, nativeQuery = true)
+    int applyDeltas(@Param("userIds") UUID[] userIds,
+                    @Param("points") Integer[] points,
+                    @Param("created") Integer[] created,
+                    @Param("complete") Integer[] complete,
+                    @Param("active") Integer[] active,
+                    @Param("saved") Integer[] saved,
+                    @Param("submissions") Integer[] submissions);
 }
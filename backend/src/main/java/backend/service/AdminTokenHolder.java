@@ -0,0 +1,117 @@
+package backend.service;
+
+import backend.dto.keycloak.KeycloakTokenResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free holder for the Keycloak admin (client_credentials) token.
+ * At most one grant is in flight at a time: concurrent callers that find no valid token await that grant.
+ * A fresh token is fetched in the background once {@code refreshFraction} of its lifetime has passed,
+ * so request threads normally never pay for the fetch. There is a single background refresh at any time: every
+ * successful grant replaces it, and a failed one is retried with exponential backoff.
+ */
+@Slf4j
+class AdminTokenHolder {
+    private static final long FIRST_RETRY_DELAY_MILLIS = 1_000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    record Token(String accessToken, Instant expiresAt) {
+        boolean isValid(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+
+    private final Supplier<CompletableFuture<KeycloakTokenResponseDTO>> fetcher;
+    private final double refreshFraction;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicReference<Token> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Token>> inFlight = new AtomicReference<>();
+    private final AtomicReference<ScheduledFuture<?>> scheduledRefresh = new AtomicReference<>();
+
+    AdminTokenHolder(Supplier<CompletableFuture<KeycloakTokenResponseDTO>> fetcher,
+                     double refreshFraction,
+                     ScheduledExecutorService scheduler) {
+        this.fetcher = fetcher;
+        this.refreshFraction = refreshFraction;
+        this.scheduler = scheduler;
+    }
+
+    CompletableFuture<String> getToken() {
+        Token token = current.get();
+        if (token != null && token.isValid(Instant.now())) {
+            return CompletableFuture.completedFuture(token.accessToken());
+        }
+        return refresh().thenApply(Token::accessToken);
+    }
+
+    void invalidate() {
+        current.set(null);
+    }
+
+    // Joins the grant in flight, or starts one if there is none
+    CompletableFuture<Token> refresh() {
+        while (true) {
+            CompletableFuture<Token> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Token> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                startGrant(mine);
+                return mine;
+            }
+        }
+    }
+
+    private void startGrant(CompletableFuture<Token> mine) {
+        log.info("Requesting a new admin token");
+        CompletableFuture<KeycloakTokenResponseDTO> grant;
+        try {
+            grant = fetcher.get();
+        } catch (RuntimeException e) {
+            grant = CompletableFuture.failedFuture(e);
+        }
+        grant.whenComplete((response, error) -> {
+            if (error != null) {
+                inFlight.set(null);
+                mine.completeExceptionally(error);
+                return;
+            }
+            Instant now = Instant.now();
+            Token token = new Token(response.getAccessToken(), now.plusSeconds(response.getExpiresIn()));
+            current.set(token);
+            inFlight.set(null);
+            mine.complete(token);
+            scheduleRefresh((long) (Duration.ofSeconds(response.getExpiresIn()).toMillis() * refreshFraction), 0);
+            log.info("Admin token expires at: {}", token.expiresAt());
+        });
+    }
+
+    // Replaces the pending background refresh, so on-demand grants after invalidate() never add a second chain
+    private void scheduleRefresh(long delayMillis, int failures) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        ScheduledFuture<?> next = scheduler.schedule(() -> refresh().whenComplete((token, error) -> {
+            if (error != null) {
+                long retryMillis = Math.min(MAX_RETRY_DELAY_MILLIS, FIRST_RETRY_DELAY_MILLIS << Math.min(failures, 16));
+                log.warn("Background admin token refresh failed, retrying in {} ms: {}", retryMillis, error.getMessage());
+                scheduleRefresh(retryMillis, failures + 1);
+            }
+        }), delayMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = scheduledRefresh.getAndSet(next);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package backend.service;
+
+import backend.config.ChallengeAutocompleteProperties;
+import backend.dto.ChallengeTitleDTO;
+import backend.dto.response.ChallengeSuggestionDTO;
+import backend.repository.ChallengeRepository;
+import backend.util.PrefixIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Search-as-you-type over challenge titles, answered from an in-process {@link PrefixIndex}.
+ * Built from a streaming scan at startup, kept current by {@link #addAfterCommit} on every new challenge, and rebuilt
+ * periodically so popularity changes and deletions are reflected. The rebuild takes one thread of the scheduling
+ * pool for as long as the scan runs; {@code spring.task.scheduling.pool.size} leaves room for the other jobs.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChallengeAutocompleteService {
+    private final ChallengeRepository challengeRepo;
+    private final ChallengeAutocompleteProperties props;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Guards the swap of the index against concurrent adds; adds made while a rebuild runs are replayed onto it
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private final List<ChallengeTitleDTO> addedDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+
+    private volatile PrefixIndex index = PrefixIndex.builder().build();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${challenge-autocomplete.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${challenge-autocomplete.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            setRebuilding(true);
+            long startedAt = System.nanoTime();
+            PrefixIndex.Builder builder = PrefixIndex.builder();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ChallengeTitleDTO> titles = challengeRepo.streamAllTitles()) {
+                    titles.forEach(title -> builder.add(title.id(), title.title(), title.popularity()));
+                }
+            });
+            PrefixIndex built = builder.build();
+
+            swapLock.lock();
+            try {
+                // A challenge created during the scan may also have been read by it; the index reports an id once
+                addedDuringRebuild.forEach(title -> built.add(title.id(), title.title(), title.popularity()));
+                addedDuringRebuild.clear();
+                rebuilding = false;
+                index = built;
+            } finally {
+                swapLock.unlock();
+            }
+            log.info("Autocomplete index built with {} title(s), ~{} MiB, in {} ms", built.size(),
+                    built.footprintBytes() >> 20, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (RuntimeException e) {
+            setRebuilding(false);
+            throw e;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void add(UUID challengeId, String title, int popularity) {
+        swapLock.lock();
+        try {
+            if (rebuilding) {
+                addedDuringRebuild.add(new ChallengeTitleDTO(challengeId, title, popularity, 0));
+            }
+            index.add(challengeId, title, popularity);
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    // Inside a transaction, waits for the commit so a rolled-back challenge is never suggested
+    public void addAfterCommit(UUID challengeId, String title, int popularity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(challengeId, title, popularity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(challengeId, title, popularity);
+            }
+        });
+    }
+
+    public List<ChallengeSuggestionDTO> suggest(String prefix, Integer limit) {
+        int effectiveLimit = limit == null ? props.getDefaultLimit() : Math.min(limit, PrefixIndex.MAX_RESULTS);
+        return index.search(prefix, effectiveLimit).stream()
+                .map(match -> new ChallengeSuggestionDTO(match.id(), match.text()))
+                .toList();
+    }
+
+    private void setRebuilding(boolean value) {
+        swapLock.lock();
+        try {
+            rebuilding = value;
+            if (!value) {
+                addedDuringRebuild.clear();
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+}
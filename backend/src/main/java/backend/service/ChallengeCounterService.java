@@ -0,0 +1,123 @@
+package backend.service;
+
+import backend.config.ChallengeCounterProperties;
+import backend.repository.ChallengeCounterRepository;
+import backend.repository.FoldedShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * Participation counters of challenges (active, pending, complete, saved, submissions). Every connection change
+ * (delivered by the outbox) and submission adds a delta to one of several shard rows of its challenge, so a hot
+ * challenge spreads its writes instead of queueing on the challenges row lock; a scheduled job folds the shards into
+ * the challenge columns, which therefore lag by one outbox poll plus one fold interval. A second job recomputes the
+ * counters set-wise to repair drift.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChallengeCounterService {
+    // Advisory lock key serializing folds and rebuilds across instances
+    private static final long COUNTERS_LOCK = 0x4348_414C_434E_54L;
+
+    private final ChallengeCounterRepository counterRepo;
+    private final ChallengeCounterProperties props;
+    private final ChallengeDetailsCache detailsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    // Joins the caller's transaction, so the delta commits or rolls back with the change it counts
+    public void record(UUID challengeId, ChallengeCountersDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        counterRepo.addToShard(challengeId, ThreadLocalRandom.current().nextInt(props.getShards()),
+                delta.active(), delta.pending(), delta.complete(), delta.saved(), delta.submissions());
+    }
+
+    // Many challenges' deltas on one random shard with a single statement
+    public void record(Map<UUID, ChallengeCountersDelta> deltas) {
+        List<Map.Entry<UUID, ChallengeCountersDelta>> entries = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        counterRepo.addToShards(entries.stream().map(Map.Entry::getKey).toArray(UUID[]::new),
+                ThreadLocalRandom.current().nextInt(props.getShards()),
+                column(entries, ChallengeCountersDelta::active),
+                column(entries, ChallengeCountersDelta::pending),
+                column(entries, ChallengeCountersDelta::complete),
+                column(entries, ChallengeCountersDelta::saved),
+                column(entries, ChallengeCountersDelta::submissions));
+    }
+
+    private static Integer[] column(List<Map.Entry<UUID, ChallengeCountersDelta>> entries,
+                                    ToIntFunction<ChallengeCountersDelta> field) {
+        return entries.stream().map(entry -> field.applyAsInt(entry.getValue())).toArray(Integer[]::new);
+    }
+
+    @Scheduled(fixedDelayString = "${challenge-counters.fold-interval-ms:1000}")
+    public void scheduledFold() {
+        int folded;
+        do {
+            folded = foldOnce();
+        } while (folded >= props.getFoldBatchSize());
+    }
+
+    // Returns how many shard rows were drained, which is what the batch size bounds
+    public int foldOnce() {
+        List<FoldedShards> folded = transactionTemplate.execute(status -> {
+            counterRepo.lock(COUNTERS_LOCK);
+            return counterRepo.foldShards(props.getFoldBatchSize());
+        });
+        folded.forEach(challenge -> detailsCache.invalidate(challenge.getChallengeId()));
+        int shards = (int) folded.stream().mapToLong(FoldedShards::getShards).sum();
+        if (!folded.isEmpty()) {
+            log.debug("Folded {} counter shard(s) into {} challenge(s)", shards, folded.size());
+        }
+        return shards;
+    }
+
+    @Scheduled(initialDelayString = "${challenge-counters.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${challenge-counters.rebuild-interval-ms:21600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every challenge's counters in id-ordered batches, one short transaction each, and returns how
+     * many challenges had drifted.
+     */
+    public int rebuild() {
+        long startedAt = System.nanoTime();
+        int repaired = 0;
+        int scanned = 0;
+        String afterId = null;
+        while (true) {
+            List<UUID> batch = counterRepo.findIdsAfter(afterId, props.getRebuildBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<UUID> drifted = transactionTemplate.execute(status -> {
+                counterRepo.lock(COUNTERS_LOCK);
+                return counterRepo.rebuild(batch.toArray(UUID[]::new), ChallengeCountersOutboxHandler.NAME);
+            });
+            drifted.forEach(detailsCache::invalidate);
+            repaired += drifted.size();
+            scanned += batch.size();
+            afterId = batch.getLast().toString();
+        }
+        log.info("Rebuilt counters of {} challenge(s) in {} ms, {} had drifted",
+                scanned, (System.nanoTime() - startedAt) / 1_000_000, repaired);
+        return repaired;
+    }
+}
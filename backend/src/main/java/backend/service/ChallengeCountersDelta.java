@@ -0,0 +1,46 @@
+package backend.service;
+
+import backend.model.enums.ConnectionType;
+
+/**
+ * Signed change to a challenge's participation counters, recorded on a counter shard and folded later.
+ * Deltas can be combined so that a connection transition costs one shard write.
+ */
+public record ChallengeCountersDelta(
+        int active,
+        int pending,
+        int complete,
+        int saved,
+        int submissions
+) {
+    public static final ChallengeCountersDelta ZERO = new ChallengeCountersDelta(0, 0, 0, 0, 0);
+
+    public static ChallengeCountersDelta ofSubmissions(int submissions) {
+        return new ChallengeCountersDelta(0, 0, 0, 0, submissions);
+    }
+
+    // Authors and invitations are not counted per challenge
+    public static ChallengeCountersDelta forConnection(ConnectionType connType, int delta) {
+        return switch (connType) {
+            case active -> new ChallengeCountersDelta(delta, 0, 0, 0, 0);
+            case pending_verification -> new ChallengeCountersDelta(0, delta, 0, 0, 0);
+            case complete -> new ChallengeCountersDelta(0, 0, delta, 0, 0);
+            case saved -> new ChallengeCountersDelta(0, 0, 0, delta, 0);
+            case author, awaiting_response -> ZERO;
+        };
+    }
+
+    public ChallengeCountersDelta plus(ChallengeCountersDelta other) {
+        return new ChallengeCountersDelta(
+                active + other.active,
+                pending + other.pending,
+                complete + other.complete,
+                saved + other.saved,
+                submissions + other.submissions
+        );
+    }
+
+    public boolean isZero() {
+        return this.equals(ZERO);
+    }
+}
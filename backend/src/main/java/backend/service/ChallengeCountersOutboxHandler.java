@@ -0,0 +1,43 @@
+package backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Feeds connection changes into the challenge counter shards; one shard write per challenge and batch
+@Component
+@RequiredArgsConstructor
+public class ChallengeCountersOutboxHandler implements OutboxHandler {
+    // Also read by the counter rebuild, which subtracts events this handler has not applied yet
+    public static final String NAME = "challenge-counters";
+
+    private final ChallengeCounterService counters;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Map<UUID, ChallengeCountersDelta> deltas = new HashMap<>();
+        for (OutboxEvent event : events) {
+            if (!event.isConnectionChange()) {
+                continue;
+            }
+            ChallengeCountersDelta delta = ChallengeCountersDelta.ZERO;
+            if (event.source() != null) {
+                delta = delta.plus(ChallengeCountersDelta.forConnection(event.source(), -1));
+            }
+            if (event.target() != null) {
+                delta = delta.plus(ChallengeCountersDelta.forConnection(event.target(), 1));
+            }
+            deltas.merge(event.challengeId(), delta, ChallengeCountersDelta::plus);
+        }
+        counters.record(deltas);
+    }
+}
@@ -0,0 +1,71 @@
+package backend.service;
+
+import backend.config.ChallengeCacheProperties;
+import backend.dto.response.ChallengeDetailsDTO;
+import backend.util.CacheLoading;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of challenge details, evicting by size and by time since write.
+ * Concurrent misses for the same challenge share a single load.
+ */
+@Component
+@Slf4j
+public class ChallengeDetailsCache {
+    private final AsyncCache<UUID, ChallengeDetailsDTO> cache;
+
+    public ChallengeDetailsCache(ChallengeCacheProperties props) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaxSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .buildAsync();
+        log.info("Challenge details cache configured with maxSize={} and ttl={}", props.getMaxSize(), props.getTtl());
+    }
+
+    public ChallengeDetailsDTO get(UUID challengeId, Function<UUID, ChallengeDetailsDTO> loader) {
+        return CacheLoading.getOrLoad(cache, challengeId, loader);
+    }
+
+    // The cached value, if loaded, without loading it or counting a hit
+    public ChallengeDetailsDTO peek(UUID challengeId) {
+        CompletableFuture<ChallengeDetailsDTO> future = cache.asMap().get(challengeId);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    public void put(ChallengeDetailsDTO details) {
+        cache.synchronous().put(details.id(), details);
+    }
+
+    public void invalidate(UUID challengeId) {
+        cache.synchronous().invalidate(challengeId);
+    }
+
+    // Inside a transaction, waits for the commit: invalidating earlier lets a concurrent reader cache the old state
+    public void invalidateAfterCommit(UUID challengeId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(challengeId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(challengeId);
+            }
+        });
+    }
+
+    public Cache<UUID, ChallengeDetailsDTO> nativeCache() {
+        return cache.synchronous();
+    }
+}
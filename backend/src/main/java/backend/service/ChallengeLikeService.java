@@ -0,0 +1,95 @@
+package backend.service;
+
+import backend.config.ChallengeLikeProperties;
+import backend.exception.NotFoundException;
+import backend.repository.ChallengeLikeRepository;
+import backend.repository.FoldedShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Likes are deduplicated per user in challenge_likes and counted through sharded delta rows,
+ * which a scheduled job folds into challenges.likes_count. The sortable count therefore lags
+ * the true count by at most one fold interval.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChallengeLikeService {
+    private static final String CHALLENGE_FK = "challenge_likes_challenge_id_fkey";
+    private static final String USER_FK = "challenge_likes_user_id_fkey";
+
+    private final ChallengeLikeRepository likeRepo;
+    private final ChallengeLikeProperties props;
+    private final ChallengeDetailsCache detailsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public boolean like(UUID challengeId, UUID userId) {
+        try {
+            if (likeRepo.insertIfAbsent(userId, challengeId) == 0) {
+                return false;
+            }
+        } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName()
+                    : null;
+            if (CHALLENGE_FK.equals(constraint)) {
+                throw new NotFoundException("Challenge with ID " + challengeId + " not found");
+            }
+            if (USER_FK.equals(constraint)) {
+                throw new NotFoundException("User with ID " + userId + " not found");
+            }
+            throw e;
+        }
+        likeRepo.addToShard(challengeId, randomShard(), 1);
+        return true;
+    }
+
+    @Transactional
+    public boolean unlike(UUID challengeId, UUID userId) {
+        if (likeRepo.deleteLike(userId, challengeId) == 0) {
+            return false;
+        }
+        likeRepo.addToShard(challengeId, randomShard(), -1);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${challenge-likes.fold-interval-ms:1000}")
+    public void scheduledFold() {
+        int folded;
+        do {
+            folded = foldOnce();
+        } while (folded >= props.getFoldBatchSize());
+    }
+
+    // Called from scheduledFold on the same bean, so the transaction is explicit rather than @Transactional.
+    // Returns how many shard rows were drained, which is what the batch size bounds.
+    public int foldOnce() {
+        List<FoldedShards> folded = transactionTemplate.execute(status -> likeRepo.foldShards(props.getFoldBatchSize()));
+        folded.forEach(challenge -> detailsCache.invalidate(challenge.getChallengeId()));
+        int shards = (int) folded.stream().mapToLong(FoldedShards::getShards).sum();
+        if (!folded.isEmpty()) {
+            log.debug("Folded {} like shard(s) into likes_count for {} challenge(s)", shards, folded.size());
+        }
+        return shards;
+    }
+
+    public long pendingLikes(UUID challengeId) {
+        return likeRepo.pendingDelta(challengeId);
+    }
+
+    private int randomShard() {
+        return ThreadLocalRandom.current().nextInt(props.getShards());
+    }
+}
@@ -0,0 +1,76 @@
+package backend.service;
+
+import backend.config.ChallengeCacheProperties;
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.response.ChallengeDetailsDTO;
+import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.util.CacheLoading;
+import backend.util.SerializedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Serialized, gzip-precompressed challenge responses. A details entry is reused only while
+ * {@link ChallengeDetailsCache} still holds the very DTO it was serialized from, so every invalidation there
+ * (folds, submissions, completions) retires it without a hook of its own. Pages of the global listing are cached
+ * for a short TTL and dropped when a challenge is created; per-user feeds are serialized per request, since
+ * {@link UserFeedCache} already keeps their DTOs.
+ */
+@Component
+public class ChallengeResponseCache {
+    private final ChallengeDetailsCache detailsCache;
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, DetailsEntry> details;
+    private final AsyncCache<ChallengeQueryDTO, SerializedResponse> lists;
+
+    public ChallengeResponseCache(ChallengeDetailsCache detailsCache, ObjectMapper objectMapper,
+                                  ChallengeCacheProperties props) {
+        this.detailsCache = detailsCache;
+        this.objectMapper = objectMapper;
+        this.details = Caffeine.newBuilder()
+                .maximumSize(props.getMaxSize())
+                .expireAfterWrite(props.getTtl())
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(props.getListMaxSize())
+                .expireAfterWrite(props.getListTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public SerializedResponse details(UUID challengeId, Supplier<ChallengeDetailsDTO> loader) {
+        DetailsEntry cached = details.getIfPresent(challengeId);
+        if (cached != null && cached.source() == detailsCache.peek(challengeId)) {
+            return cached.response();
+        }
+        ChallengeDetailsDTO loaded = loader.get();
+        SerializedResponse response = SerializedResponse.of(objectMapper, loaded, loaded.updatedAt());
+        details.put(challengeId, new DetailsEntry(loaded, response));
+        return response;
+    }
+
+    public SerializedResponse list(ChallengeQueryDTO query, Supplier<PageResponseDTO<ChallengeSummaryDTO>> loader) {
+        if (query.connectionType() != null) {
+            return SerializedResponse.of(objectMapper, loader.get(), null);
+        }
+        return CacheLoading.getOrLoad(lists, query, q -> SerializedResponse.of(objectMapper, loader.get(), null));
+    }
+
+    public void invalidateLists() {
+        lists.synchronous().invalidateAll();
+    }
+
+    public Cache<ChallengeQueryDTO, SerializedResponse> nativeListCache() {
+        return lists.synchronous();
+    }
+
+    private record DetailsEntry(ChallengeDetailsDTO source, SerializedResponse response) {
+    }
+}
@@ -1,10 +1,14 @@
 package backend.service;
 
 import backend.dto.ChallengeQueryDTO;
+import backend.dto.ChallengeSearchQueryDTO;
 import backend.dto.request.CreateChallengeRequestDTO;
+import backend.dto.request.InviteUsersRequestDTO;
 import backend.dto.request.SubmissionRequestDTO;
+import backend.dto.response.BulkInviteResponseDTO;
 import backend.dto.response.ChallengeDetailsDTO;
 import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
 import backend.model.ChallengeEntity;
 
 import java.util.List;
@@ -13,18 +17,22 @@ import java.util.UUID;
 public interface ChallengeService {
     ChallengeEntity getChallengeById(UUID challengeId);
 
-    List<ChallengeSummaryDTO> listChallenges(ChallengeQueryDTO query, UUID userId);
+    PageResponseDTO<ChallengeSummaryDTO> listChallenges(ChallengeQueryDTO query, UUID userId);
+
+    PageResponseDTO<ChallengeSummaryDTO> searchChallenges(ChallengeSearchQueryDTO query);
 
     ChallengeDetailsDTO createChallenge(CreateChallengeRequestDTO req, UUID userId);
 
     ChallengeDetailsDTO viewChallenge(UUID challengeId);
 
-    void likeChallenge(UUID challengeId);
+    void likeChallenge(UUID challengeId, UUID userId);
+    void unlikeChallenge(UUID challengeId, UUID userId);
     void saveChallenge(UUID challengeId, UUID userId);
     void unsaveChallenge(UUID challengeId, UUID userId);
 
     void acceptChallenge(UUID challengeId, UUID userId);
     void challengeUser(UUID challengeId, UUID userId);
+    BulkInviteResponseDTO inviteUsers(UUID challengeId, InviteUsersRequestDTO request);
 
     void submitCompletion(UUID userId, UUID challengeId, SubmissionRequestDTO submission);
     void completeChallenge(UUID challengeId, UUID userId, UUID authorId);
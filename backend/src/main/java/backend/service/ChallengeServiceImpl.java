@@ -1,23 +1,46 @@
 package backend.service;
 
+import backend.dto.ChallengeAuthorDTO;
+import backend.dto.ChallengeCursor;
 import backend.dto.ChallengeQueryDTO;
+import backend.dto.ChallengeSearchQueryDTO;
+import backend.dto.SearchCursor;
+import backend.dto.SortType;
 import backend.dto.request.CreateChallengeRequestDTO;
+import backend.dto.request.InviteUsersRequestDTO;
 import backend.dto.request.SubmissionRequestDTO;
+import backend.dto.response.BulkInviteResponseDTO;
 import backend.dto.response.ChallengeDetailsDTO;
 import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.InviteResultDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.exception.NotFoundException;
 import backend.mapper.ChallengeMapper;
 import backend.model.ChallengeEntity;
 import backend.model.UserEntity;
 import backend.model.enums.ConnectionType;
 import backend.repository.ChallengeRepository;
+import backend.repository.ChallengeSearchHit;
+import backend.repository.UserIdentity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -27,6 +50,11 @@ public class ChallengeServiceImpl implements ChallengeService{
     private final ChallengeMapper challengeMapper;
     private final UserChallengeConnectionService connService;
     private final UserService userService;
+    private final ChallengeDetailsCache detailsCache;
+    private final ChallengeLikeService likeService;
+    private final ChallengeAutocompleteService autocomplete;
+    private final SubmissionService submissionService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public ChallengeEntity getChallengeById(UUID challengeId) {
@@ -42,30 +70,76 @@ public class ChallengeServiceImpl implements ChallengeService{
         return challengeMapper.toSummaryDTO(entity, authorUsername, authorAvatarUrl);
     }
 
-    @Override
-    public List<ChallengeSummaryDTO> listChallenges(ChallengeQueryDTO query, UUID userId) {
-        Specification<ChallengeEntity> spec = (root, q, cb) -> cb.conjunction();
+    public List<ChallengeSummaryDTO> toChallengeSummaryDTOs(List<ChallengeEntity> entities) {
+        Map<UUID, ChallengeAuthorDTO> authors = connService.getAuthorsForChallenges(
+                entities.stream().map(ChallengeEntity::getId).toList());
 
-        if (query.category() != null) {
-            spec = spec.and((root, cq, cb) -> cb.equal(root.get("category"), query.category()));
-        }
-        if (query.difficulty() != null) {
-            spec = spec.and((root, cq, cb) -> cb.equal(root.get("difficulty"), query.difficulty()));
-        }
+        return entities.stream()
+                .map(entity -> {
+                    ChallengeAuthorDTO author = authors.get(entity.getId());
+                    return author == null
+                            ? challengeMapper.toSummaryDTO(entity, null, null)
+                            : challengeMapper.toSummaryDTO(entity, author.authorUsername(), author.authorAvatarUrl());
+                })
+                .toList();
+    }
 
-        Sort sort = Sort.unsorted();
-        if (query.sortType() != null) {
-            switch (query.sortType()) {
-                case likes -> sort = Sort.by(Sort.Direction.DESC, "likes");
-                case submissions -> sort = Sort.by(Sort.Direction.DESC, "submissions");
-                case points -> sort = Sort.by(Sort.Direction.DESC, "points");
-            }
+    @Override
+    public PageResponseDTO<ChallengeSummaryDTO> listChallenges(ChallengeQueryDTO query, UUID userId) {
+        if (query.connectionType() != null) {
+            return connService.getChallengesForUserByConnectionType(userId, query);
         }
+        Specification<ChallengeEntity> spec = ChallengeSpecifications.forQuery(query);
+
+        // Keyset order: sort key first, id as a unique tie-breaker so the cursor position is unambiguous
+        String sortAttribute = query.sortType() == null ? "createdAt" : query.sortType().attribute();
+        Sort sort = Sort.by(Sort.Direction.DESC, sortAttribute).and(Sort.by(Sort.Direction.DESC, "id"));
+
+        List<ChallengeEntity> rows = challengeRepo.findBy(spec, q -> q.sortBy(sort).limit(query.limit() + 1).all());
+        boolean hasMore = rows.size() > query.limit();
+        List<ChallengeEntity> page = hasMore ? rows.subList(0, query.limit()) : rows;
 
-        return challengeRepo.findAll(spec, sort)
+        String nextCursor = hasMore ? toCursor(page.getLast(), query.sortType()).encode() : null;
+        return PageResponseDTO.of(toChallengeSummaryDTOs(page), nextCursor);
+    }
+
+    /**
+     * Ranked full-text search, keyset-paginated on (rank, id). The ranked ids come from one index-backed query;
+     * the page's entities and authors are then loaded in one query each.
+     */
+    @Override
+    public PageResponseDTO<ChallengeSummaryDTO> searchChallenges(ChallengeSearchQueryDTO query) {
+        SearchCursor cursor = query.cursor();
+        List<ChallengeSearchHit> hits = challengeRepo.search(query.text(),
+                query.category() == null ? null : query.category().name(),
+                query.difficulty() == null ? null : query.difficulty().name(),
+                cursor == null ? null : cursor.rank(),
+                cursor == null ? null : cursor.lastId().toString(),
+                query.limit() + 1);
+        boolean hasMore = hits.size() > query.limit();
+        List<ChallengeSearchHit> page = hasMore ? hits.subList(0, query.limit()) : hits;
+
+        Map<UUID, ChallengeEntity> byId = challengeRepo.findAllById(page.stream().map(ChallengeSearchHit::getId).toList())
                 .stream()
-                .map(this::toChallengeSummaryDTO)
+                .collect(Collectors.toMap(ChallengeEntity::getId, Function.identity()));
+        List<ChallengeEntity> entities = page.stream()
+                .map(hit -> byId.get(hit.getId()))
+                .filter(Objects::nonNull)
                 .toList();
+
+        String nextCursor = hasMore ? new SearchCursor(page.getLast().getRank(), page.getLast().getId()).encode() : null;
+        return PageResponseDTO.of(toChallengeSummaryDTOs(entities), nextCursor);
+    }
+
+    private static ChallengeCursor toCursor(ChallengeEntity last, SortType sortType) {
+        String sortKey = sortType == null
+                ? last.getCreatedAt().toString()
+                : switch (sortType) {
+                    case likes -> String.valueOf(last.getLikesCount());
+                    case submissions -> String.valueOf(last.getSubmissionsCount());
+                    case points -> String.valueOf(last.getPoints());
+                };
+        return new ChallengeCursor(sortType, sortKey, last.getId());
     }
 
     @Override
@@ -73,6 +147,8 @@ public class ChallengeServiceImpl implements ChallengeService{
         ChallengeEntity entity = challengeMapper.toEntity(req);
         ChallengeEntity saved = challengeRepo.save(entity);
         log.info("Challenge created");
+        autocomplete.addAfterCommit(saved.getId(), saved.getTitle(),
+                saved.getLikesCount() + saved.getSubmissionsCount());
 
         connService.createUserChallengeConnection(authorId, saved.getId(), ConnectionType.author);
 
@@ -80,20 +156,35 @@ public class ChallengeServiceImpl implements ChallengeService{
         String authorUsername = user.getUsername();
         String authorAvatarUrl = user.getAvatarUrl();
 
-        return challengeMapper.toDetailsDTO(saved, authorId, authorUsername, authorAvatarUrl);
+        ChallengeDetailsDTO details = challengeMapper.toDetailsDTO(saved, authorId, authorUsername, authorAvatarUrl);
+        detailsCache.put(details);
+        return details;
     }
 
     @Override
     public ChallengeDetailsDTO viewChallenge(UUID challengeId) {
-        ChallengeEntity challenge = getChallengeById(challengeId);
-        UserEntity author = connService.getAuthorForChallenge(challengeId);
+        return detailsCache.get(challengeId, this::loadChallengeDetails);
+    }
 
-        return challengeMapper.toDetailsDTO(challenge, author.getId(), author.getUsername(), author.getAvatarUrl());
+    // One transaction, so the lazy comments load in the same session whether or not the caller has one
+    private ChallengeDetailsDTO loadChallengeDetails(UUID challengeId) {
+        return transactionTemplate.execute(status -> {
+            ChallengeEntity challenge = getChallengeById(challengeId);
+            UserEntity author = connService.getAuthorForChallenge(challengeId);
+
+            return challengeMapper.toDetailsDTO(challenge, author.getId(), author.getUsername(), author.getAvatarUrl());
+        });
     }
 
+    // The cached likesCount is refreshed when the like shards are folded, not per like
     @Override
-    public void likeChallenge(UUID challengeId) {
+    public void likeChallenge(UUID challengeId, UUID userId) {
+        likeService.like(challengeId, userId);
+    }
 
+    @Override
+    public void unlikeChallenge(UUID challengeId, UUID userId) {
+        likeService.unlike(challengeId, userId);
     }
 
     @Override
@@ -108,8 +199,9 @@ public class ChallengeServiceImpl implements ChallengeService{
 
     @Override
     public void acceptChallenge(UUID challengeId, UUID userId) {
-        connService.createUserChallengeConnection(userId, challengeId, ConnectionType.active);
-        connService.deleteUserChallengeConnection(userId, challengeId, ConnectionType.awaiting_response);
+        connService.transitionUserChallengeConnection(userId, challengeId, ConnectionType.awaiting_response,
+                ConnectionType.active);
+        detailsCache.invalidateAfterCommit(challengeId);
     }
 
     @Override
@@ -117,18 +209,70 @@ public class ChallengeServiceImpl implements ChallengeService{
         connService.createUserChallengeConnection(userId, challengeId, ConnectionType.awaiting_response);
     }
 
+    /**
+     * Invites many users at once: one query resolves the ids and usernames, one multi-row INSERT creates the
+     * invitations. Each distinct invitee gets one result: repeated entries, and a username naming a user already
+     * given by id, are reported once under their first mention.
+     */
+    @Override
+    @Transactional
+    public BulkInviteResponseDTO inviteUsers(UUID challengeId, InviteUsersRequestDTO request) {
+        if (!challengeRepo.existsById(challengeId)) {
+            throw new NotFoundException("Challenge with ID " + challengeId + " not found");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(request.userIdsOrEmpty());
+        Set<String> usernames = new LinkedHashSet<>(request.usernamesOrEmpty());
+
+        Set<UUID> knownIds = new HashSet<>();
+        Map<String, UUID> idsByUsername = new HashMap<>();
+        for (UserIdentity user : userService.resolveIdentities(ids, usernames)) {
+            knownIds.add(user.getId());
+            idsByUsername.put(user.getUsername(), user.getId());
+        }
+
+        Set<UUID> resolved = new LinkedHashSet<>();
+        ids.stream().filter(knownIds::contains).forEach(resolved::add);
+        usernames.stream().map(idsByUsername::get).filter(Objects::nonNull).forEach(resolved::add);
+        Set<UUID> invited = connService.createUserChallengeConnections(resolved, challengeId, ConnectionType.awaiting_response);
+
+        List<InviteResultDTO> results = new ArrayList<>(ids.size() + usernames.size());
+        Set<UUID> reported = new HashSet<>();
+        for (UUID id : ids) {
+            addInviteResult(results, id.toString(), knownIds.contains(id) ? id : null, invited, reported);
+        }
+        for (String username : usernames) {
+            addInviteResult(results, username, idsByUsername.get(username), invited, reported);
+        }
+        return BulkInviteResponseDTO.of(results);
+    }
+
+    private static void addInviteResult(List<InviteResultDTO> results, String invitee, UUID userId,
+                                        Set<UUID> invited, Set<UUID> reported) {
+        if (userId == null) {
+            results.add(new InviteResultDTO(invitee, null, InviteResultDTO.Status.not_found));
+        } else if (reported.add(userId)) {
+            InviteResultDTO.Status status = invited.contains(userId)
+                    ? InviteResultDTO.Status.invited
+                    : InviteResultDTO.Status.already_invited;
+            results.add(new InviteResultDTO(invitee, userId, status));
+        }
+    }
+
     @Override
+    @Transactional
     public void submitCompletion(UUID userId, UUID challengeId, SubmissionRequestDTO submission) {
-        // TODO Call submission service to create a submission
-        connService.createUserChallengeConnection(userId, challengeId, ConnectionType.pending_verification);
-        connService.deleteUserChallengeConnection(userId, challengeId, ConnectionType.active);
+        connService.transitionUserChallengeConnection(userId, challengeId, ConnectionType.active,
+                ConnectionType.pending_verification);
+        submissionService.createSubmission(userId, challengeId, submission);
+        detailsCache.invalidateAfterCommit(challengeId);
     }
 
     @Override
     public void completeChallenge(UUID challengeId, UUID userId, UUID authorId) {
         // TODO check if challenge belongs to author
         // TODO change submission status to approved
-        connService.createUserChallengeConnection(userId, challengeId, ConnectionType.complete);
-        connService.deleteUserChallengeConnection(userId, challengeId, ConnectionType.pending_verification);
+        connService.transitionUserChallengeConnection(userId, challengeId, ConnectionType.pending_verification,
+                ConnectionType.complete);
+        detailsCache.invalidateAfterCommit(challengeId);
     }
 }
@@ -0,0 +1,41 @@
+package backend.service;
+
+import backend.dto.ChallengeQueryDTO;
+import backend.model.ChallengeEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * Filters and keyset position of a challenge listing, as a JPA {@link Specification}.
+ */
+final class ChallengeSpecifications {
+
+    private ChallengeSpecifications() {
+    }
+
+    static Specification<ChallengeEntity> forQuery(ChallengeQueryDTO query) {
+        Specification<ChallengeEntity> spec = (root, q, cb) -> cb.conjunction();
+
+        if (query.category() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("category"), query.category()));
+        }
+        if (query.difficulty() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("difficulty"), query.difficulty()));
+        }
+        if (query.cursor() != null) {
+            spec = spec.and(after(query.cursor().attribute(), query.cursor().sortValue(), query.cursor().lastId()));
+        }
+        return spec;
+    }
+
+    // The redundant "key <= cursor" bound lets Postgres start the index scan at the cursor instead of filtering from the top
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<ChallengeEntity> after(String attribute, Comparable key, UUID lastId) {
+        return (root, cq, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get(attribute), key),
+                cb.or(
+                        cb.lessThan(root.get(attribute), key),
+                        cb.and(cb.equal(root.get(attribute), key), cb.lessThan(root.get("id"), lastId))));
+    }
+}
@@ -0,0 +1,63 @@
+package backend.service;
+
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.CommentCursor;
+import backend.dto.CommentDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.repository.CommentRepository;
+import backend.repository.CommentThreadRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class CommentService {
+    private final CommentRepository commentRepo;
+
+    /**
+     * A page of top-level comments with all of their replies nested, oldest first at every level.
+     * The whole page is one query; the trees are assembled here.
+     */
+    public PageResponseDTO<CommentDTO> getThreads(UUID challengeId, String cursor, Integer limit) {
+        CommentCursor after = CommentCursor.decode(cursor);
+        int pageSize = ChallengeQueryDTO.pageSize(limit);
+        List<CommentThreadRow> rows = commentRepo.findThreadPage(challengeId,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.lastId().toString(),
+                pageSize);
+        return assemble(rows, pageSize);
+    }
+
+    // Two linear passes: every node first, then each one is attached to its parent, so a reply timestamped
+    // before its parent still lands in the right place. Rows are in (created_at, id) order, and so are the replies.
+    static PageResponseDTO<CommentDTO> assemble(List<CommentThreadRow> rows, int pageSize) {
+        Map<UUID, CommentDTO> byId = new HashMap<>(rows.size() * 2);
+        for (CommentThreadRow row : rows) {
+            byId.put(row.getId(), new CommentDTO(row.getId(), row.getText(), row.getAuthorUsername(),
+                    row.getAuthorAvatarUrl(), row.getCreatedAt().atOffset(ZoneOffset.UTC), row.getParentCommentId(), new ArrayList<>()));
+        }
+
+        List<CommentDTO> roots = new ArrayList<>();
+        for (CommentThreadRow row : rows) {
+            CommentDTO comment = byId.get(row.getId());
+            if (row.getParentCommentId() == null) {
+                roots.add(comment);
+            } else {
+                CommentDTO parent = byId.get(row.getParentCommentId());
+                if (parent != null) parent.replies().add(comment);
+            }
+        }
+
+        boolean hasMore = roots.size() > pageSize;
+        List<CommentDTO> page = hasMore ? roots.subList(0, pageSize) : roots;
+        String nextCursor = hasMore ? new CommentCursor(page.getLast().createdAt(), page.getLast().id()).encode() : null;
+        return PageResponseDTO.of(page, nextCursor);
+    }
+}
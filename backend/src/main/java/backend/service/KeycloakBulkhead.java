@@ -0,0 +1,48 @@
+package backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent in-flight calls of one Keycloak operation. Calls over the limit
+ * are rejected immediately instead of queueing behind a slow Keycloak.
+ */
+final class KeycloakBulkhead {
+    private final String operation;
+    private final Semaphore permits;
+
+    KeycloakBulkhead(String operation, int maxConcurrent) {
+        this.operation = operation;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    <T> Mono<T> call(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            if (!permits.tryAcquire()) {
+                return Mono.error(new RejectedException(operation));
+            }
+            Mono<T> call;
+            try {
+                call = request.get();
+            } catch (RuntimeException e) {
+                permits.release();
+                return Mono.error(e);
+            }
+            return call.doFinally(signal -> permits.release());
+        });
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    static final class RejectedException extends ResponseStatusException {
+        RejectedException(String operation) {
+            super(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent Keycloak requests (" + operation + ")");
+        }
+    }
+}
@@ -4,11 +4,15 @@ import backend.config.KeycloakConfigProperties;
 import backend.dto.keycloak.KeycloakRegisterRequestDTO;
 import backend.dto.request.RefreshRequestDTO;
 import backend.dto.keycloak.KeycloakTokenResponseDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -16,11 +20,18 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
-import java.time.Instant;
 import java.util.UUID;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking Keycloak client. Every call runs on the pooled, time-limited {@link WebClient},
+ * is bounded by the overall request deadline and goes through the bulkhead of its operation type.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -28,11 +39,51 @@ public class KeycloakClient {
 
     private final WebClient webClient;
     private final KeycloakConfigProperties keycloakProps;
+    private final MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService adminTokenScheduler;
+    private AdminTokenHolder adminToken;
+    private KeycloakBulkhead userTokenBulkhead;
+    private KeycloakBulkhead refreshTokenBulkhead;
+    private KeycloakBulkhead clientTokenBulkhead;
+    private KeycloakBulkhead createUserBulkhead;
+    private KeycloakBulkhead deleteUserBulkhead;
+
+    @PostConstruct
+    void startAdminTokenHolder() {
+        KeycloakConfigProperties.Bulkhead limits = keycloakProps.getBulkhead();
+        userTokenBulkhead    = bulkhead("user_token",    limits.getUserToken());
+        refreshTokenBulkhead = bulkhead("refresh_token", limits.getRefreshToken());
+        clientTokenBulkhead  = bulkhead("client_token",  limits.getClientToken());
+        createUserBulkhead   = bulkhead("create_user",   limits.getCreateUser());
+        deleteUserBulkhead   = bulkhead("delete_user",   limits.getDeleteUser());
+
+        adminTokenScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "keycloak-admin-token");
+            thread.setDaemon(true);
+            return thread;
+        });
+        adminToken = new AdminTokenHolder(
+                () -> getClientToken().toFuture(),
+                keycloakProps.getAdminTokenRefreshFraction(),
+                adminTokenScheduler);
+    }
 
-    private String cachedAdminToken;
-    private Instant adminTokenExpiry;
+    @PreDestroy
+    void stopAdminTokenHolder() {
+        adminTokenScheduler.shutdownNow();
+    }
 
-    public KeycloakTokenResponseDTO getUserToken(String username, String password) {
+    private KeycloakBulkhead bulkhead(String operation, int maxConcurrent) {
+        KeycloakBulkhead bulkhead = new KeycloakBulkhead(operation, maxConcurrent);
+        Gauge.builder("keycloak.bulkhead.available", bulkhead, KeycloakBulkhead::availablePermits)
+                .description("Free Keycloak call slots per operation")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    public Mono<KeycloakTokenResponseDTO> getUserToken(String username, String password) {
         MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
         form.add("grant_type",     "password");
         form.add("client_id",      keycloakProps.getClientId());
@@ -40,194 +91,183 @@ public class KeycloakClient {
         form.add("username",       username);
         form.add("password",       password);
 
-        try {
-            ResponseEntity<KeycloakTokenResponseDTO> response = webClient.post()
-                    .uri(keycloakProps.getTokenEndpoint())
-                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                    .bodyValue(form)
-                    .retrieve()
-                    .toEntity(KeycloakTokenResponseDTO.class)
-                    .block();
-
-            if (response == null || response.getBody() == null) {
-                log.error("No response from Keycloak while requesting token for {}", username);
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No response from Keycloak");
-            }
-
-            log.info("Successfully issued a new token for user: {} -> {}", username, response.getBody().getAccessToken());
-            return response.getBody();
-
-        } catch (WebClientResponseException e) {
-            log.warn("Keycloak login failed: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString(), e);
-        } catch (WebClientRequestException ex) {
-            log.error("C`ould not reach Keycloak for issuing a new user token: {}", ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable", ex);
-        }
+        return timed("user_token", userTokenBulkhead.call(() -> withDeadline(tokenRequest(form), "issuing a new user token"))
+                .doOnNext(token -> log.info("Successfully issued a new token for user: {}", username))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.warn("Keycloak login failed: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString(), e);
+                }));
     }
 
 
-    public KeycloakTokenResponseDTO refreshUserToken(RefreshRequestDTO refreshToken) {
+    public Mono<KeycloakTokenResponseDTO> refreshUserToken(RefreshRequestDTO refreshToken) {
         MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
         form.add("grant_type", "refresh_token");
         form.add("client_id", keycloakProps.getClientId());
         form.add("client_secret", keycloakProps.getClientSecret());
         form.add("refresh_token", refreshToken.getRefreshToken());
 
-        try {
-            ResponseEntity<KeycloakTokenResponseDTO> response = webClient.post()
-                    .uri(keycloakProps.getTokenEndpoint())
-                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                    .bodyValue(form)
-                    .retrieve()
-                    .toEntity(KeycloakTokenResponseDTO.class)
-                    .block();
-
-            if (response == null || response.getBody() == null) {
-                log.error("No response from Keycloak while refreshing token");
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No response from Keycloak");
-            }
-
-            log.info("Successfully refreshed token for refreshToken ending with: {}",
-                    refreshToken.getRefreshToken().substring(Math.max(0, refreshToken.getRefreshToken().length() - 6)));
-
-            return response.getBody();
-        } catch (WebClientResponseException e) {
-            log.warn("Keycloak token refresh failed: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString(), e);
-        } catch (WebClientRequestException ex) {
-            log.error("Could not reach Keycloak for refreshing user token: {}", ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable", ex);
-        }
+        return timed("refresh_token", refreshTokenBulkhead.call(() -> withDeadline(tokenRequest(form), "refreshing user token"))
+                .doOnNext(token -> log.info("Successfully refreshed token for refreshToken ending with: {}",
+                        refreshToken.getRefreshToken().substring(Math.max(0, refreshToken.getRefreshToken().length() - 6))))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.warn("Keycloak token refresh failed: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    return new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString(), e);
+                }));
     }
 
 
-    public KeycloakTokenResponseDTO getClientToken() {
+    public Mono<KeycloakTokenResponseDTO> getClientToken() {
         MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
         form.add("grant_type", "client_credentials");
         form.add("client_id", keycloakProps.getClientId());
         form.add("client_secret", keycloakProps.getClientSecret());
 
-        try {
-            ResponseEntity<KeycloakTokenResponseDTO> response = webClient.post()
-                    .uri(keycloakProps.getTokenEndpoint())
-                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                    .bodyValue(form)
-                    .retrieve()
-                    .toEntity(KeycloakTokenResponseDTO.class)
-                    .block();
-
-            if (response == null || response.getBody() == null) {
-                log.error("No response from Keycloak while getting a new client token");
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No response from Keycloak");
-            }
-            return response.getBody();
-        } catch (WebClientResponseException e) {
-            log.error("Keycloak responded with status {} and body: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                cachedAdminToken = null;
-                adminTokenExpiry = null;
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable (unauthorized)", e);
-            }
-            throw new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString(), e);
-        }
-        catch (WebClientRequestException ex) {
-            log.error("Could not reach Keycloak for getting client token: {}", ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable", ex);
-        }
+        return timed("client_token", clientTokenBulkhead.call(() -> withDeadline(tokenRequest(form), "getting client token"))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    log.error("Keycloak responded with status {} and body: {}", e.getStatusCode(), e.getResponseBodyAsString());
+                    if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                        adminToken.invalidate();
+                        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable (unauthorized)", e);
+                    }
+                    return new ResponseStatusException(e.getStatusCode(), e.getResponseBodyAsString(), e);
+                }));
+    }
 
+    Mono<String> getAdminAccessToken() {
+        // The grant future is shared by every waiting caller, so a cancelled caller must not cancel it
+        return Mono.fromFuture(adminToken::getToken, true);
     }
 
-    private String getAdminAccessToken() {
-        if (cachedAdminToken != null && adminTokenExpiry != null && Instant.now().isBefore(adminTokenExpiry)) {
-            return cachedAdminToken;
-        }
-        log.info("Admin token is null or expired => getting a new one");
-        KeycloakTokenResponseDTO newAdminToken = getClientToken();
-        cachedAdminToken = newAdminToken.getAccessToken();
-        adminTokenExpiry = Instant.now().plusSeconds(newAdminToken.getExpiresIn());
-        log.info("Admin token expires at: {}", adminTokenExpiry);
-        return newAdminToken.getAccessToken();
+    public Mono<UUID> createUser(KeycloakRegisterRequestDTO user) {
+        return timed("create_user", createUserBulkhead.call(() -> getAdminAccessToken()
+                        .flatMap(token -> withDeadline(webClient.post()
+                                .uri(keycloakProps.getUserEndpoint())
+                                .header("Authorization", "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(user)
+                                .retrieve()
+                                .toBodilessEntity(), "user creation")))
+                .map(response -> {
+                    URI location = response.getHeaders().getLocation();
+                    if (location == null) {
+                        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Missing Location header from Keycloak");
+                    }
+                    String[] pathSegments = location.getPath().split("/");
+                    String userId = pathSegments[pathSegments.length - 1];
+
+                    log.info("User with username {} and ID {} has been successfully created in Keycloak", user.getUsername(), userId);
+                    return UUID.fromString(userId);
+                })
+                .onErrorMap(WebClientResponseException.class, ex -> {
+                    log.error("Keycloak responded with status {} and body: {}", ex.getStatusCode(), ex.getResponseBodyAsString());
+                    invalidateAdminTokenIfRejected(ex);
+                    return new ResponseStatusException(ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+                }));
     }
 
-    public UUID createUser(KeycloakRegisterRequestDTO user) {
-        String adminToken = getAdminAccessToken();
-
-        try {
-            ResponseEntity<Void> response = webClient.post()
-                    .uri(keycloakProps.getUserEndpoint())
-                    .header("Authorization", "Bearer " + adminToken)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(user)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-
-            if (response == null) {
-                log.error("No response from keycloak while trying to create a user [{}]", user.getUsername());
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No response from Keycloak");
-            }
-            URI location = response.getHeaders().getLocation();
-            if (location == null) {
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Missing Location header from Keycloak");
-            }
-            String[] pathSegments = location.getPath().split("/");
-            String userId = pathSegments[pathSegments.length - 1];
-
-            log.info("User with username {} and ID {} has been successfully created in Keycloak", user.getUsername(), userId);
-            return UUID.fromString(userId);
-
-        } catch (WebClientResponseException ex) {
-            log.error("Keycloak responded with status {} and body: {}", ex.getStatusCode(), ex.getResponseBodyAsString());
-            throw new ResponseStatusException(ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
-        } catch (WebClientRequestException ex) {
-            log.error("Could not reach Keycloak for user creation: {}", ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable", ex);
-        }
+    public Mono<Boolean> deleteUser(UUID userId) {
+        String deleteUri = keycloakProps.getUserEndpoint() + "/" + userId;
+
+        return timed("delete_user", deleteUserBulkhead.call(() -> getAdminAccessToken()
+                        .flatMap(token -> withDeadline(webClient.delete()
+                                .uri(deleteUri)
+                                .header("Authorization", "Bearer " + token)
+                                .retrieve()
+                                .toBodilessEntity(), "deleting user " + userId)))
+                .map(response -> {
+                    int status = response.getStatusCode().value();
+                    return switch (status) {
+                        case 204 -> {
+                            log.info("User with ID {} has been successfully deleted from Keycloak", userId);
+                            yield true;
+                        }
+                        case 404 -> {
+                            log.info("User with ID {} not found in Keycloak", userId);
+                            yield false;
+                        }
+                        default -> {
+                            log.warn("Unexpected status {} from Keycloak while trying to delete user with ID {}", status, userId);
+                            yield false;
+                        }
+                    };
+                })
+                .onErrorResume(WebClientResponseException.class, ex -> {
+                    log.error("Keycloak responded with status {} and body: {}", ex.getStatusCode(), ex.getResponseBodyAsString());
+                    if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.just(false);
+                    }
+                    invalidateAdminTokenIfRejected(ex);
+                    return Mono.error(new ResponseStatusException(ex.getStatusCode(), ex.getResponseBodyAsString(), ex));
+                }));
     }
 
-    public boolean deleteUser(UUID userId) {
-        String adminToken = getAdminAccessToken();
+    private Mono<KeycloakTokenResponseDTO> tokenRequest(MultiValueMap<String, String> form) {
+        return webClient.post()
+                .uri(keycloakProps.getTokenEndpoint())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .bodyValue(form)
+                .retrieve()
+                .bodyToMono(KeycloakTokenResponseDTO.class);
+    }
 
-        String deleteUri = keycloakProps.getUserEndpoint() + "/" + userId;
-        try {
-            ResponseEntity<Void> response = webClient.delete()
-                    .uri(deleteUri)
-                    .header("Authorization", "Bearer " + adminToken)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-
-            if (response == null) {
-                log.warn("No response from Keycloak when deleting user with ID {}", userId);
-                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No response from Keycloak");
-            }
-
-            int status = response.getStatusCode().value();
-            return switch (status) {
-                case 204 -> {
-                    log.info("User with ID {} has been successfully deleted from Keycloak", userId);
-                    yield true;
-                }
-                case 404 -> {
-                    log.info("User with ID {} not found in Keycloak", userId);
-                    yield false;
-                }
-                default -> {
-                    log.warn("Unexpected status {} from Keycloak while trying to delete user with ID {}", status, userId);
-                    yield false;
-                }
-            };
-        } catch (WebClientResponseException ex) {
-            log.error("Keycloak responded with status {} and body: {}", ex.getStatusCode(), ex.getResponseBodyAsString());
-            if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
-                return false;
-            }
-            throw new ResponseStatusException(ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
-        } catch (WebClientRequestException ex) {
-            log.error("Could not reach Keycloak for deleting user {}: {}", userId, ex.getMessage());
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable", ex);
+    /**
+     * Applies the overall deadline and maps empty responses, connection failures and timeouts to 503.
+     */
+    private <T> Mono<T> withDeadline(Mono<T> request, String action) {
+        return request
+                .timeout(keycloakProps.getHttp().getRequestTimeout())
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("No response from Keycloak while {}", action);
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No response from Keycloak");
+                }))
+                .onErrorMap(WebClientRequestException.class, ex -> {
+                    log.error("Could not reach Keycloak for {}: {}", action, ex.getMessage());
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak is unavailable", ex);
+                })
+                .onErrorMap(TimeoutException.class, ex -> {
+                    log.error("Keycloak did not answer within {} while {}", keycloakProps.getHttp().getRequestTimeout(), action);
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Keycloak timed out", ex);
+                });
+    }
+
+    /**
+     * Records the call in the {@code keycloak.requests} timer, tagged with the operation and how it ended.
+     */
+    private <T> Mono<T> timed(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(value -> stopTimer(sample, operation, "success"))
+                    .doOnError(e -> stopTimer(sample, operation, outcome(e)))
+                    .doOnCancel(() -> stopTimer(sample, operation, "cancelled"));
+        });
+    }
+
+    private void stopTimer(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder("keycloak.requests")
+                .description("Keycloak calls by operation and outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof KeycloakBulkhead.RejectedException) return "rejected";
+        Throwable cause = e instanceof WebClientResponseException ? e : e.getCause();
+        if (cause instanceof TimeoutException) return "timeout";
+        if (cause instanceof WebClientRequestException) return "io_error";
+        if (cause instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return "error";
+    }
+
+    // A revoked or expired admin token must not be served again to the next caller
+    private void invalidateAdminTokenIfRejected(WebClientResponseException ex) {
+        if (ex.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+            adminToken.invalidate();
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package backend.service;
+
+import backend.dto.LeaderboardWindow;
+import backend.dto.UserPointsDTO;
+import backend.dto.UserSummaryDTO;
+import backend.dto.response.LeaderboardEntryDTO;
+import backend.exception.NotFoundException;
+import backend.repository.UserPointsEventRepository;
+import backend.repository.UserRepository;
+import backend.repository.UserStatsRepository;
+import backend.util.OrderStatisticTree;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory points ranking. Loaded once at startup and kept current by {@link UserStatsService#addPoints} and
+ * {@link UserStatsService#creditPoints}, so top-K, rank and neighbourhood queries never sort user_stats.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LeaderboardService {
+    public static final int MAX_LIMIT = 100;
+
+    private final UserStatsRepository statsRepo;
+    private final UserPointsEventRepository pointsEventRepo;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<LeaderboardWindow, Board> boards = new EnumMap<>(Map.of(
+            LeaderboardWindow.all_time, new Board(LeaderboardWindow.all_time),
+            LeaderboardWindow.weekly, new Board(LeaderboardWindow.weekly),
+            LeaderboardWindow.monthly, new Board(LeaderboardWindow.monthly)
+    ));
+
+    // Before the web server and the scheduled jobs start: reload replaces the boards wholesale, so points added
+    // while it ran would be lost
+    @PostConstruct
+    public void load() {
+        OffsetDateTime now = OffsetDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserPointsDTO> points = statsRepo.streamAllPoints()) {
+                boards.get(LeaderboardWindow.all_time).reload(points, now);
+            }
+        });
+        for (LeaderboardWindow window : List.of(LeaderboardWindow.weekly, LeaderboardWindow.monthly)) {
+            List<UserPointsDTO> points = pointsEventRepo.sumPointsSince(window.periodStart(now));
+            boards.get(window).reload(points.stream(), now);
+        }
+        log.info("Leaderboard loaded with {} user(s)", boards.get(LeaderboardWindow.all_time).size());
+    }
+
+    public void addPoints(UUID userId, int points) {
+        OffsetDateTime now = OffsetDateTime.now();
+        boards.values().forEach(board -> board.add(userId, points, now));
+    }
+
+    public List<LeaderboardEntryDTO> top(LeaderboardWindow window, int limit) {
+        return toDtos(boards.get(window).top(clamp(limit), OffsetDateTime.now()));
+    }
+
+    public LeaderboardEntryDTO rankOf(LeaderboardWindow window, UUID userId) {
+        List<RankedEntry> entries = boards.get(window).around(userId, 0, OffsetDateTime.now());
+        if (entries.isEmpty()) {
+            throw new NotFoundException("User with ID " + userId + " is not ranked");
+        }
+        return toDtos(entries).getFirst();
+    }
+
+    public List<LeaderboardEntryDTO> around(LeaderboardWindow window, UUID userId, int radius) {
+        List<RankedEntry> entries = boards.get(window).around(userId, clamp(radius), OffsetDateTime.now());
+        if (entries.isEmpty()) {
+            throw new NotFoundException("User with ID " + userId + " is not ranked");
+        }
+        return toDtos(entries);
+    }
+
+    private List<LeaderboardEntryDTO> toDtos(List<RankedEntry> entries) {
+        Map<UUID, UserSummaryDTO> users = userRepository.findSummariesByIdIn(
+                        entries.stream().map(RankedEntry::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(UserSummaryDTO::id, Function.identity()));
+
+        return entries.stream()
+                .map(entry -> {
+                    UserSummaryDTO user = users.get(entry.userId());
+                    return new LeaderboardEntryDTO(
+                            entry.rank(),
+                            entry.userId(),
+                            user == null ? null : user.username(),
+                            user == null ? null : user.avatarUrl(),
+                            entry.points());
+                })
+                .toList();
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(value, MAX_LIMIT));
+    }
+
+    private record RankedEntry(int rank, UUID userId, long points) {
+    }
+
+    /** One ranking window; the tree is only touched under the board's lock. */
+    private static final class Board {
+        private final LeaderboardWindow window;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final OrderStatisticTree tree = new OrderStatisticTree();
+        private final Map<UUID, Long> scores = new HashMap<>();
+        private OffsetDateTime periodStart;
+
+        Board(LeaderboardWindow window) {
+            this.window = window;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return tree.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void reload(Stream<UserPointsDTO> points, OffsetDateTime now) {
+            lock.writeLock().lock();
+            try {
+                tree.clear();
+                scores.clear();
+                periodStart = window.periodStart(now);
+                points.forEach(p -> {
+                    scores.put(p.userId(), p.points());
+                    tree.insert(p.userId(), p.points());
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void add(UUID userId, long delta, OffsetDateTime now) {
+            lock.writeLock().lock();
+            try {
+                rollOver(now);
+                Long old = scores.get(userId);
+                long updated = old == null ? delta : old + delta;
+                if (old != null) {
+                    tree.remove(userId, old);
+                }
+                scores.put(userId, updated);
+                tree.insert(userId, updated);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<RankedEntry> top(int limit, OffsetDateTime now) {
+            rollOverIfStale(now);
+            lock.readLock().lock();
+            try {
+                return tree.range(0, limit).stream().map(this::ranked).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<RankedEntry> around(UUID userId, int radius, OffsetDateTime now) {
+            rollOverIfStale(now);
+            lock.readLock().lock();
+            try {
+                Long score = scores.get(userId);
+                if (score == null) {
+                    return List.of();
+                }
+                int index = tree.indexOf(userId, score);
+                return tree.range(index - radius, 2 * radius + 1).stream().map(this::ranked).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Competition ranking: users with equal points share a rank
+        private RankedEntry ranked(OrderStatisticTree.Entry entry) {
+            return new RankedEntry(tree.countAbove(entry.score()) + 1, entry.id(), entry.score());
+        }
+
+        private void rollOverIfStale(OffsetDateTime now) {
+            if (window == LeaderboardWindow.all_time) {
+                return;
+            }
+            OffsetDateTime current = window.periodStart(now);
+            lock.readLock().lock();
+            try {
+                if (current.equals(periodStart)) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                rollOver(now);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Caller holds the write lock
+        private void rollOver(OffsetDateTime now) {
+            OffsetDateTime current = window.periodStart(now);
+            if (current != null && !current.equals(periodStart)) {
+                tree.clear();
+                scores.clear();
+                periodStart = current;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package backend.service;
+
+import backend.config.OutboxProperties;
+import backend.repository.OutboxEventRepository;
+import backend.repository.OutboxOffset;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Delivers outbox events to every {@link OutboxHandler} in batches. Each handler has its own offset row; a batch
+ * is read, handled and the offset advanced in one transaction, and the row is locked with SKIP LOCKED so several
+ * instances poll without delivering a batch twice. A failing handler is retried from its offset on the next poll
+ * and holds back no other handler.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+    private static final long DRAIN_TIMEOUT_NANOS = 10_000_000_000L;
+
+    private final OutboxEventRepository outboxRepo;
+    private final List<OutboxHandler> handlers;
+    private final OutboxProperties props;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:200}")
+    public void scheduledDispatch() {
+        for (OutboxHandler handler : handlers) {
+            try {
+                int handled;
+                do {
+                    handled = dispatchOnce(handler, false);
+                } while (handled >= props.getBatchSize());
+            } catch (RuntimeException e) {
+                log.error("Outbox handler {} failed, retrying from its offset on the next poll", handler.name(), e);
+            }
+        }
+    }
+
+    // Handlers start at the horizon of their first registration, so register before the web server starts serving
+    @PostConstruct
+    public void registerHandlers() {
+        handlers.forEach(handler -> outboxRepo.registerHandler(handler.name()));
+    }
+
+    /**
+     * Blocks until every handler has applied the events committed before the call.
+     */
+    public void drain() {
+        long maxId = outboxRepo.findMaxId();
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        for (OutboxHandler handler : handlers) {
+            while (outboxRepo.hasPendingUpTo(handler.name(), maxId)) {
+                if (dispatchOnce(handler, true) > 0) {
+                    continue;
+                }
+                // Events behind a transaction that is still open stay above the horizon until it ends
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Outbox handler " + handler.name() + " did not catch up");
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while draining the outbox", e);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval-ms:60000}")
+    public void scheduledCleanup() {
+        String[] names = handlers.stream().map(OutboxHandler::name).toArray(String[]::new);
+        int deleted;
+        int total = 0;
+        do {
+            deleted = outboxRepo.deleteApplied(names, props.getCleanupBatchSize());
+            total += deleted;
+        } while (deleted >= props.getCleanupBatchSize());
+        if (total > 0) {
+            log.debug("Deleted {} outbox event(s) applied by every handler", total);
+        }
+    }
+
+    private int dispatchOnce(OutboxHandler handler, boolean wait) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Integer handled = transactionTemplate.execute(status -> {
+            List<OutboxOffset> offset = wait ? outboxRepo.lockOffset(handler.name()) : outboxRepo.tryLockOffset(handler.name());
+            if (offset.isEmpty()) {
+                // Not registered yet, or being dispatched by another instance right now
+                return 0;
+            }
+            List<OutboxEvent> events = outboxRepo.findBatch(offset.getFirst().getLastTxid(),
+                            offset.getFirst().getLastId(), props.getBatchSize())
+                    .stream()
+                    .map(OutboxEvent::of)
+                    .toList();
+            if (events.isEmpty()) {
+                return 0;
+            }
+            handler.handle(events);
+            OutboxEvent last = events.getLast();
+            outboxRepo.advanceOffset(handler.name(), last.txid(), last.id());
+            return events.size();
+        });
+        if (handled > 0) {
+            sample.stop(Timer.builder("outbox.dispatch")
+                    .description("Time to handle one batch of outbox events")
+                    .tag("handler", handler.name())
+                    .register(meterRegistry));
+            Counter.builder("outbox.events.handled")
+                    .description("Outbox events applied by a handler")
+                    .tag("handler", handler.name())
+                    .register(meterRegistry)
+                    .increment(handled);
+        }
+        return handled;
+    }
+}
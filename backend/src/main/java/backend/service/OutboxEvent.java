@@ -0,0 +1,32 @@
+package backend.service;
+
+import backend.model.enums.ConnectionType;
+import backend.repository.OutboxEventRow;
+
+import java.util.UUID;
+
+/**
+ * A change recorded in the outbox. A connection change removed the user's {@code source} connection and added
+ * the {@code target} one; either side is null when there was no such connection.
+ */
+public record OutboxEvent(
+        long id,
+        long txid,
+        String type,
+        UUID userId,
+        UUID challengeId,
+        ConnectionType source,
+        ConnectionType target
+) {
+    public static final String CONNECTION_CHANGED = "connection_changed";
+
+    public static OutboxEvent of(OutboxEventRow row) {
+        return new OutboxEvent(row.getId(), row.getTxid(), row.getEventType(), row.getUserId(), row.getChallengeId(),
+                row.getSource() == null ? null : ConnectionType.valueOf(row.getSource()),
+                row.getTarget() == null ? null : ConnectionType.valueOf(row.getTarget()));
+    }
+
+    public boolean isConnectionChange() {
+        return CONNECTION_CHANGED.equals(type);
+    }
+}
@@ -0,0 +1,15 @@
+package backend.service;
+
+import java.util.List;
+
+/**
+ * Applies outbox events to one derived view. Each batch is handled in the transaction that advances the
+ * handler's offset, so a batch either takes effect together with its offset or is delivered again.
+ */
+public interface OutboxHandler {
+
+    // Key of the handler's offset; renaming it makes the handler start over at the current horizon
+    String name();
+
+    void handle(List<OutboxEvent> events);
+}
@@ -0,0 +1,34 @@
+package backend.service;
+
+import backend.model.enums.ConnectionType;
+import backend.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records changes in the outbox. Must be called inside the transaction making the change, so the event commits or
+ * rolls back with it; {@link OutboxDispatcher} delivers it to the handlers afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    private final OutboxEventRepository outboxRepo;
+
+    public void connectionChanged(UUID userId, UUID challengeId, ConnectionType source, ConnectionType target) {
+        connectionsChanged(List.of(userId), challengeId, source, target);
+    }
+
+    // One multi-row INSERT for all users
+    public void connectionsChanged(Collection<UUID> userIds, UUID challengeId, ConnectionType source, ConnectionType target) {
+        if (userIds.isEmpty() || (source == null && target == null)) {
+            return;
+        }
+        outboxRepo.append(OutboxEvent.CONNECTION_CHANGED, challengeId, userIds.toArray(UUID[]::new),
+                source == null ? null : source.name(),
+                target == null ? null : target.name());
+    }
+}
@@ -0,0 +1,47 @@
+package backend.service;
+
+import backend.model.enums.ConnectionType;
+import backend.repository.PointsAward;
+import backend.repository.UserPointsEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Awards a challenge's points when a user completes it. The points log is keyed by event id, so an event that is
+// delivered again awards nothing the second time.
+@Component
+@RequiredArgsConstructor
+public class PointsAwardOutboxHandler implements OutboxHandler {
+    private final UserPointsEventRepository pointsEventRepo;
+    private final UserStatsService statsService;
+
+    @Override
+    public String name() {
+        return "points-award";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        List<OutboxEvent> completions = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.isConnectionChange() && event.target() == ConnectionType.complete) {
+                completions.add(event);
+            }
+        }
+        if (completions.isEmpty()) {
+            return;
+        }
+        List<PointsAward> awards = pointsEventRepo.insertForEvents(
+                completions.stream().map(OutboxEvent::id).toArray(Long[]::new),
+                completions.stream().map(OutboxEvent::userId).toArray(UUID[]::new),
+                completions.stream().map(OutboxEvent::challengeId).toArray(UUID[]::new));
+        Map<UUID, Integer> points = awards.stream()
+                .collect(Collectors.toMap(PointsAward::getUserId, award -> award.getPoints().intValue()));
+        statsService.creditPoints(points);
+    }
+}
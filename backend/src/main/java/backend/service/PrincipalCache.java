@@ -0,0 +1,41 @@
+package backend.service;
+
+import backend.config.PrincipalCacheProperties;
+import backend.dto.response.UserResponseDTO;
+import backend.util.CacheLoading;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of resolved principals keyed by the token subject, so repeated logins and token
+ * round trips for the same user skip the users/user_stats lookup.
+ */
+@Component
+public class PrincipalCache {
+    private final AsyncCache<UUID, UserResponseDTO> cache;
+
+    public PrincipalCache(PrincipalCacheProperties props) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaxSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public UserResponseDTO get(UUID userId, Function<UUID, UserResponseDTO> loader) {
+        return CacheLoading.getOrLoad(cache, userId, loader);
+    }
+
+    public void invalidate(UUID userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    public Cache<UUID, UserResponseDTO> nativeCache() {
+        return cache.synchronous();
+    }
+}
@@ -0,0 +1,144 @@
+package backend.service;
+
+import backend.config.SubmissionReviewProperties;
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.SubmissionCursor;
+import backend.dto.request.ReviewSubmissionsRequestDTO;
+import backend.dto.request.SubmissionRequestDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.dto.response.ReviewSubmissionsResponseDTO;
+import backend.dto.response.SubmissionSummaryDTO;
+import backend.model.SubmissionEntity;
+import backend.model.enums.ConnectionType;
+import backend.model.enums.SubmissionStatus;
+import backend.repository.ChallengeRepository;
+import backend.repository.SubmissionDecision;
+import backend.repository.SubmissionQueueRow;
+import backend.repository.SubmissionRepository;
+import backend.repository.UserChallengeConnectionRepository;
+import backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Submissions and the review queue of a challenge's pending ones, which is open to the challenge's authors only.
+ * Moderators either page through the whole queue or claim the next batch for themselves; a claim hides those
+ * submissions from other moderators' claims until it is decided or lapses.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SubmissionService {
+    private final SubmissionRepository submissionRepo;
+    private final UserChallengeConnectionRepository connRepo;
+    private final UserChallengeConnectionService connService;
+    private final ChallengeDetailsCache detailsCache;
+    private final SubmissionReviewProperties props;
+    private final ChallengeCounterService counters;
+    private final UserRepository userRepo;
+    private final ChallengeRepository challengeRepo;
+
+    // Called once the submitter has moved to pending_verification, in the same transaction
+    @Transactional
+    public SubmissionEntity createSubmission(UUID userId, UUID challengeId, SubmissionRequestDTO req) {
+        SubmissionEntity saved = submissionRepo.save(SubmissionEntity.builder()
+                .proof(req.proof())
+                .description(req.description())
+                .user(userRepo.getReferenceById(userId))
+                .challenge(challengeRepo.getReferenceById(challengeId))
+                .build());
+        counters.record(challengeId, ChallengeCountersDelta.ofSubmissions(1));
+        log.info("User {} submitted {} for challenge {}", userId, saved.getId(), challengeId);
+        return saved;
+    }
+
+    public PageResponseDTO<SubmissionSummaryDTO> getPending(UUID challengeId, UUID moderatorId, String cursor, Integer limit) {
+        requireAuthor(challengeId, moderatorId);
+        SubmissionCursor after = SubmissionCursor.decode(cursor);
+        int pageSize = ChallengeQueryDTO.pageSize(limit);
+        List<SubmissionQueueRow> rows = submissionRepo.findPendingPage(challengeId,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.lastId().toString(),
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<SubmissionSummaryDTO> page = toSummaries(hasMore ? rows.subList(0, pageSize) : rows);
+        String nextCursor = hasMore ? new SubmissionCursor(page.getLast().createdAt(), page.getLast().id()).encode() : null;
+        return PageResponseDTO.of(page, nextCursor);
+    }
+
+    @Transactional
+    public List<SubmissionSummaryDTO> claimNext(UUID challengeId, UUID moderatorId, int count) {
+        requireAuthor(challengeId, moderatorId);
+        if (count < 1 || count > props.getMaxClaim()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Claim count must be between 1 and " + props.getMaxClaim());
+        }
+        List<SubmissionQueueRow> claimed = submissionRepo.claimPending(challengeId, moderatorId, count,
+                props.getClaimTtl().toSeconds());
+        log.info("Moderator {} claimed {} submission(s) of challenge {}", moderatorId, claimed.size(), challengeId);
+        return toSummaries(claimed);
+    }
+
+    /**
+     * Approves or rejects the listed submissions in one UPDATE. Their submitters are moved from pending_verification
+     * together, in the same transaction: to complete when approved, back to active when rejected, so they can submit
+     * again.
+     */
+    @Transactional
+    public ReviewSubmissionsResponseDTO review(UUID challengeId, UUID moderatorId, ReviewSubmissionsRequestDTO req) {
+        requireAuthor(challengeId, moderatorId);
+        if (req.decision() == SubmissionStatus.pending) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Decision must be approved or rejected");
+        }
+
+        Set<UUID> requested = new LinkedHashSet<>(req.submissionIds());
+        List<SubmissionDecision> decisions = submissionRepo.decidePending(challengeId,
+                requested.toArray(UUID[]::new), moderatorId, req.decision().name());
+
+        List<UUID> decided = new ArrayList<>(decisions.size());
+        Set<UUID> submitters = new LinkedHashSet<>();
+        for (SubmissionDecision decision : decisions) {
+            decided.add(decision.getId());
+            submitters.add(decision.getUserId());
+        }
+        if (!submitters.isEmpty()) {
+            ConnectionType target = req.decision() == SubmissionStatus.approved
+                    ? ConnectionType.complete
+                    : ConnectionType.active;
+            connService.transitionUserChallengeConnections(submitters, challengeId,
+                    ConnectionType.pending_verification, target);
+            detailsCache.invalidateAfterCommit(challengeId);
+        }
+
+        decided.forEach(requested::remove);
+        log.info("Moderator {} {} {} submission(s) of challenge {}, skipped {}",
+                moderatorId, req.decision(), decided.size(), challengeId, requested.size());
+        return new ReviewSubmissionsResponseDTO(req.decision(), decided, List.copyOf(requested));
+    }
+
+    private void requireAuthor(UUID challengeId, UUID userId) {
+        if (!connRepo.existsByUserIdAndChallengeIdAndConnectionType(userId, challengeId, ConnectionType.author)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the challenge author can review its submissions");
+        }
+    }
+
+    private static List<SubmissionSummaryDTO> toSummaries(List<SubmissionQueueRow> rows) {
+        return rows.stream()
+                .map(row -> new SubmissionSummaryDTO(row.getId(), row.getProof(), row.getDescription(),
+                        SubmissionStatus.valueOf(row.getStatus()), row.getAuthorUsername(),
+                        row.getAuthorAvatarUrl(), row.getCreatedAt().atOffset(ZoneOffset.UTC)))
+                .toList();
+    }
+}
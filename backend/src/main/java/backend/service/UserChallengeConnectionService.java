@@ -1,20 +1,35 @@
 package backend.service;
 
+import backend.dto.ChallengeAuthorDTO;
+import backend.dto.ChallengeQueryDTO;
 import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
 import backend.model.UserChallengeConnectionEntity;
 import backend.model.UserEntity;
 import backend.model.enums.ConnectionType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserChallengeConnectionService {
-    List<ChallengeSummaryDTO> getChallengesForUserByConnectionType(UUID userId, ConnectionType connType);
+    PageResponseDTO<ChallengeSummaryDTO> getChallengesForUserByConnectionType(UUID userId, ChallengeQueryDTO query);
 
     UserChallengeConnectionEntity createUserChallengeConnection(UUID userId, UUID challengeId, ConnectionType connType);
 
+    Set<UUID> createUserChallengeConnections(Collection<UUID> userIds, UUID challengeId, ConnectionType connType);
+
     UserEntity getAuthorForChallenge(UUID challengeId);
 
+    Map<UUID, ChallengeAuthorDTO> getAuthorsForChallenges(Collection<UUID> challengeIds);
+
     void deleteUserChallengeConnection(UUID userId, UUID challengeId, ConnectionType connType);
 
+    boolean transitionUserChallengeConnection(UUID userId, UUID challengeId, ConnectionType source, ConnectionType target);
+
+    Set<UUID> transitionUserChallengeConnections(Collection<UUID> userIds, UUID challengeId, ConnectionType source,
+                                                 ConnectionType target);
+
 }
@@ -1,31 +1,100 @@
 package backend.service;
 
+import backend.dto.ChallengeAuthorDTO;
+import backend.dto.ChallengeCursor;
+import backend.dto.ChallengeQueryDTO;
 import backend.dto.response.ChallengeSummaryDTO;
-import backend.model.ChallengeEntity;
+import backend.dto.response.PageResponseDTO;
+import backend.exception.ConflictException;
+import backend.exception.NotFoundException;
 import backend.model.UserChallengeConnectionEntity;
 import backend.model.UserEntity;
+import backend.model.enums.ChallengeCategory;
+import backend.model.enums.ChallengeDifficulty;
 import backend.model.enums.ConnectionType;
+import backend.repository.ChallengeFeedRow;
+import backend.repository.ConnectionMove;
+import backend.repository.ConnectionTransitionResult;
 import backend.repository.UserChallengeConnectionRepository;
-import backend.repository.UserStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserChallengeConnectionServiceImpl implements UserChallengeConnectionService{
+    // Lifecycle transitions: target state -> the states the user can move there from. A rejected submission sends
+    // the submitter back to active, so they can submit again.
+    private static final Map<ConnectionType, Set<ConnectionType>> TRANSITION_SOURCES = Map.of(
+            ConnectionType.active, Set.of(ConnectionType.awaiting_response, ConnectionType.pending_verification),
+            ConnectionType.pending_verification, Set.of(ConnectionType.active),
+            ConnectionType.complete, Set.of(ConnectionType.pending_verification)
+    );
+    // A challenge can be accepted without an invitation
+    private static final Set<ConnectionType> SOURCE_OPTIONAL = Set.of(ConnectionType.awaiting_response);
+    private static final String CHALLENGE_FK = "user_challenge_connection_challenge_id_fkey";
+    private static final String USER_FK = "user_challenge_connection_user_id_fkey";
+
     private final UserChallengeConnectionRepository connRepo;
-    private final UserStatsService statsService;
-    //private final ChallengeService challengeService;
+    private final OutboxService outbox;
+    private final MeterRegistry meterRegistry;
+    private final UserFeedCache feedCache;
 
+    /**
+     * A page of the challenges the user is connected to with the query's connection type, newest connection first.
+     * Challenges and their authors come from one statement; the unfiltered first page is served from the feed cache.
+     */
     @Override
-    public List<ChallengeSummaryDTO> getChallengesForUserByConnectionType(UUID userId, ConnectionType connType) {
-        return List.of();
+    public PageResponseDTO<ChallengeSummaryDTO> getChallengesForUserByConnectionType(UUID userId, ChallengeQueryDTO query) {
+        boolean firstPage = query.cursor() == null && query.category() == null && query.difficulty() == null
+                && query.limit() == ChallengeQueryDTO.DEFAULT_PAGE_SIZE;
+        if (firstPage) {
+            return feedCache.get(userId, query.connectionType(), () -> loadFeedPage(userId, query));
+        }
+        return loadFeedPage(userId, query);
+    }
+
+    private PageResponseDTO<ChallengeSummaryDTO> loadFeedPage(UUID userId, ChallengeQueryDTO query) {
+        ChallengeCursor cursor = query.cursor();
+        List<ChallengeFeedRow> rows = connRepo.findFeedPage(userId, query.connectionType().name(),
+                query.category() == null ? null : query.category().name(),
+                query.difficulty() == null ? null : query.difficulty().name(),
+                cursor == null ? null : OffsetDateTime.parse(cursor.sortKey()),
+                cursor == null ? null : cursor.lastId().toString(),
+                query.limit() + 1);
+        boolean hasMore = rows.size() > query.limit();
+        List<ChallengeFeedRow> page = hasMore ? rows.subList(0, query.limit()) : rows;
+
+        // Same shape as a createdAt listing cursor, positioned on the connection time instead
+        String nextCursor = hasMore
+                ? new ChallengeCursor(null, page.getLast().getConnectedAt().toString(), page.getLast().getId()).encode()
+                : null;
+        return PageResponseDTO.of(page.stream().map(UserChallengeConnectionServiceImpl::toSummary).toList(), nextCursor);
+    }
+
+    private static ChallengeSummaryDTO toSummary(ChallengeFeedRow row) {
+        return new ChallengeSummaryDTO(row.getId(), row.getTitle(), row.getDescription(), row.getCoverImageUrl(),
+                row.getPoints(), ChallengeCategory.valueOf(row.getCategory()),
+                ChallengeDifficulty.valueOf(row.getDifficulty()), row.getAuthorUsername(), row.getAuthorAvatarUrl(),
+                row.getLikesCount(), row.getSubmissionsCount(), row.getActiveCount(), row.getPendingCount(),
+                row.getCompleteCount(), row.getSavedCount(), row.getCreatedAt().atOffset(ZoneOffset.UTC));
     }
 
     @Override
@@ -36,6 +105,20 @@ public class UserChallengeConnectionServiceImpl implements UserChallengeConnecti
     }
 
     @Override
+    public Map<UUID, ChallengeAuthorDTO> getAuthorsForChallenges(Collection<UUID> challengeIds) {
+        if (challengeIds.isEmpty()) {
+            return Map.of();
+        }
+        return connRepo.findConnectedUsersByChallengeIds(challengeIds, ConnectionType.author)
+                .stream()
+                .collect(Collectors.toMap(ChallengeAuthorDTO::challengeId, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * Stats, points and challenge counters follow from the outbox event written in the same transaction.
+     */
+    @Override
+    @Transactional
     public UserChallengeConnectionEntity createUserChallengeConnection(UUID userId, UUID challengeId, ConnectionType connType) {
         UserChallengeConnectionEntity entity = UserChallengeConnectionEntity.builder()
                 .challengeId(challengeId)
@@ -47,21 +130,151 @@ public class UserChallengeConnectionServiceImpl implements UserChallengeConnecti
         log.info("Successfully established connection of type [{}] between user and challenge at ts -> {}",
                 connType.toString(), saved.getTimestamp().toString());
 
-        // Update user stats
-        statsService.incrementCounter(userId, connType);
-//        if (connType == ConnectionType.complete) {
-//            ChallengeEntity challenge = challengeService.getChallengeById(challengeId);
-//            statsService.addPoints(userId, challenge.getPoints());
-//        }
+        outbox.connectionChanged(userId, challengeId, null, connType);
+        feedCache.invalidateAfterCommit(userId, connType);
+        countTransition("none", connType.name(), "applied");
 
         return saved;
     }
 
+    /**
+     * Connects all given users to the challenge with one multi-row INSERT and one outbox INSERT, in a single
+     * transaction. Users that already have a connection of this type are skipped; the returned set holds only
+     * the users whose connection was created.
+     */
     @Override
+    @Transactional
+    public Set<UUID> createUserChallengeConnections(Collection<UUID> userIds, UUID challengeId, ConnectionType connType) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> created = new HashSet<>(connRepo.insertAllIfAbsent(challengeId, userIds.toArray(UUID[]::new), connType.name()));
+        log.info("Established {} new connection(s) of type [{}] on challenge {} for {} requested user(s)",
+                created.size(), connType, challengeId, userIds.size());
+
+        outbox.connectionsChanged(created, challengeId, null, connType);
+        feedCache.invalidateAfterCommit(created, connType);
+        countTransition("none", connType.name(), "applied", created.size());
+        countTransition("none", connType.name(), "noop", userIds.size() - created.size());
+        return created;
+    }
+
+    @Override
+    @Transactional
     public void deleteUserChallengeConnection(UUID userId, UUID challengeId, ConnectionType connType) {
         int deleted_rows = connRepo.deleteByUserIdAndChallengeIdAndConnectionType(userId, challengeId, connType);
         log.info("Deleted {} user-challenge connection(s) for userId={}, challengeId={}, connectionType={}",
                 deleted_rows, userId, challengeId, connType);
-        statsService.decrementCounter(userId, connType);
+        if (deleted_rows > 0) {
+            outbox.connectionChanged(userId, challengeId, connType, null);
+        }
+        feedCache.invalidateAfterCommit(userId, connType);
+        countTransition(connType.name(), "none", deleted_rows > 0 ? "applied" : "noop");
+    }
+
+    /**
+     * Moves the user from {@code source} into {@code target}, as one DELETE ... RETURNING plus INSERT and one outbox
+     * event, all in a single transaction.
+     * Repeating a transition that already happened is a no-op and returns false.
+     */
+    @Override
+    @Transactional
+    public boolean transitionUserChallengeConnection(UUID userId, UUID challengeId, ConnectionType source,
+                                                     ConnectionType target) {
+        requireTransition(source, target);
+
+        ConnectionTransitionResult result = connRepo.moveConnection(userId, challengeId, source.name(), target.name());
+        boolean inserted = result.getInserted() > 0;
+
+        if (result.getMoved() > 0) {
+            // A target row that already existed absorbs the move: only the source connection goes away
+            outbox.connectionChanged(userId, challengeId, source, inserted ? target : null);
+        } else if (SOURCE_OPTIONAL.contains(source)) {
+            try {
+                inserted = connRepo.insertIfAbsent(userId, challengeId, target.name()) > 0;
+            } catch (DataIntegrityViolationException e) {
+                String constraint = e.getCause() instanceof ConstraintViolationException violation
+                        ? violation.getConstraintName()
+                        : null;
+                if (CHALLENGE_FK.equals(constraint)) {
+                    throw new NotFoundException("Challenge with ID " + challengeId + " not found");
+                }
+                if (USER_FK.equals(constraint)) {
+                    throw new NotFoundException("User with ID " + userId + " not found");
+                }
+                throw e;
+            }
+            if (inserted) {
+                outbox.connectionChanged(userId, challengeId, null, target);
+            }
+        } else if (!connRepo.existsByUserIdAndChallengeIdAndConnectionType(userId, challengeId, target)) {
+            countTransition(source.name(), target.name(), "conflict");
+            throw new ConflictException("Cannot move to [" + target + "]: user is not in state [" + source + "]");
+        }
+
+        feedCache.invalidateAfterCommit(userId, source);
+        feedCache.invalidateAfterCommit(userId, target);
+        log.info("Transitioned user {} on challenge {} from [{}] to [{}] (moved={}, inserted={})",
+                userId, challengeId, source, target, result.getMoved(), inserted);
+        boolean changed = result.getMoved() > 0 || inserted;
+        // An accept without a prior invitation starts from no connection at all
+        String from = changed && result.getMoved() == 0 ? "none" : source.name();
+        countTransition(from, target.name(), changed ? "applied" : "noop");
+        return changed;
+    }
+
+    /**
+     * Moves every given user that is in {@code source} into {@code target} with one DELETE ... RETURNING plus INSERT
+     * and at most two outbox INSERTs. Users in any other state are skipped rather than rejected, so one stale entry
+     * does not fail the batch; the returned set holds the users that were moved.
+     */
+    @Override
+    @Transactional
+    public Set<UUID> transitionUserChallengeConnections(Collection<UUID> userIds, UUID challengeId,
+                                                        ConnectionType source, ConnectionType target) {
+        requireTransition(source, target);
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> moved = new HashSet<>();
+        Set<UUID> replaced = new HashSet<>();
+        for (ConnectionMove move : connRepo.moveConnections(challengeId, userIds.toArray(UUID[]::new), source.name(), target.name())) {
+            (move.getInserted() ? moved : replaced).add(move.getUserId());
+        }
+        outbox.connectionsChanged(moved, challengeId, source, target);
+        outbox.connectionsChanged(replaced, challengeId, source, null);
+        moved.addAll(replaced);
+        feedCache.invalidateAfterCommit(moved, source);
+        feedCache.invalidateAfterCommit(moved, target);
+
+        log.info("Transitioned {} of {} user(s) on challenge {} from [{}] to [{}]",
+                moved.size(), userIds.size(), challengeId, source, target);
+        countTransition(source.name(), target.name(), "applied", moved.size());
+        countTransition(source.name(), target.name(), "noop", userIds.size() - moved.size());
+        return moved;
+    }
+
+    private static void requireTransition(ConnectionType source, ConnectionType target) {
+        if (!TRANSITION_SOURCES.getOrDefault(target, Set.of()).contains(source)) {
+            throw new IllegalArgumentException("No lifecycle transition leads from " + source + " to " + target);
+        }
+    }
+
+    private void countTransition(String from, String to, String result) {
+        countTransition(from, to, result, 1);
+    }
+
+    private void countTransition(String from, String to, String result, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+        Counter.builder("challenge.connection.transitions")
+                .description("User-challenge connection state changes")
+                .tag("from", from)
+                .tag("to", to)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment(amount);
     }
 }
@@ -0,0 +1,74 @@
+package backend.service;
+
+import backend.config.UserFeedCacheProperties;
+import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.model.enums.ConnectionType;
+import backend.util.CacheLoading;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * First page of each user's per-connection-type feed, the page every "my challenges" screen opens with.
+ * Entries are evicted once a transaction changing one of the user's connections of that type commits.
+ */
+@Component
+public class UserFeedCache {
+    private final AsyncCache<FeedKey, PageResponseDTO<ChallengeSummaryDTO>> cache;
+
+    public UserFeedCache(UserFeedCacheProperties props) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaxSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public PageResponseDTO<ChallengeSummaryDTO> get(UUID userId, ConnectionType type,
+                                                    Supplier<PageResponseDTO<ChallengeSummaryDTO>> loader) {
+        return CacheLoading.getOrLoad(cache, new FeedKey(userId, type), key -> loader.get());
+    }
+
+    public void invalidate(UUID userId, ConnectionType type) {
+        cache.synchronous().invalidate(new FeedKey(userId, type));
+    }
+
+    public void invalidate(Collection<UUID> userIds, ConnectionType type) {
+        cache.synchronous().invalidateAll(userIds.stream().map(userId -> new FeedKey(userId, type)).toList());
+    }
+
+    // Inside a transaction, waits for the commit: invalidating earlier lets a concurrent reader cache the old feed
+    public void invalidateAfterCommit(UUID userId, ConnectionType type) {
+        invalidateAfterCommit(Set.of(userId), type);
+    }
+
+    public void invalidateAfterCommit(Collection<UUID> userIds, ConnectionType type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userIds, type);
+            return;
+        }
+        List<UUID> snapshot = List.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(snapshot, type);
+            }
+        });
+    }
+
+    public Cache<?, PageResponseDTO<ChallengeSummaryDTO>> nativeCache() {
+        return cache.synchronous();
+    }
+
+    private record FeedKey(UUID userId, ConnectionType type) {}
+}
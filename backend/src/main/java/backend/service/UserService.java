@@ -1,23 +1,33 @@
 package backend.service;
 
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.UserCursor;
 import backend.dto.request.RegisterRequestDTO;
+import backend.dto.response.PageResponseDTO;
 import backend.dto.response.UserResponseDTO;
 import backend.exception.ConflictException;
 import backend.exception.NotFoundException;
 import backend.mapper.UserMapper;
 import backend.model.UserEntity;
 import backend.model.UserStatsEntity;
+import backend.repository.UserIdentity;
 import backend.repository.UserRepository;
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,14 +36,16 @@ public class UserService {
     private final KeycloakClient keycloakClient;
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
+    private final Scheduler blockingScheduler;
 
-    public UserEntity findByAccessToken(String accessToken) {
+    public UserResponseDTO findPrincipalByAccessToken(String accessToken) {
+        // The token was just issued by Keycloak, so only its subject is needed here
+        UUID userId = UUID.fromString(JWT.decode(accessToken).getSubject());
 
-        DecodedJWT jwt = JWT.decode(accessToken);
-        UUID userId    = UUID.fromString(jwt.getSubject()); // SUB
-
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("No local user with id " + userId));
+        return principalCache.get(userId, id -> userRepository.findById(id)
+                .map(userMapper::toDto)
+                .orElseThrow(() -> new IllegalArgumentException("No local user with id " + id)));
     }
 
     public UserEntity findById(UUID id) {
@@ -41,7 +53,16 @@ public class UserService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found: " + id));
     }
 
-    public UserResponseDTO createUser(RegisterRequestDTO registerRequestDTO) {
+    public Mono<UserResponseDTO> createUser(RegisterRequestDTO registerRequestDTO) {
+        // Repository calls block, so they run on the blocking scheduler rather than the Keycloak client's event loop
+        return Mono.fromRunnable(() -> checkAvailable(registerRequestDTO))
+                .subscribeOn(blockingScheduler)
+                .then(keycloakClient.createUser(userMapper.toKeycloakDto(registerRequestDTO)))
+                .publishOn(blockingScheduler)
+                .map(userId -> saveNewUser(userId, registerRequestDTO));
+    }
+
+    private void checkAvailable(RegisterRequestDTO registerRequestDTO) {
         if (userRepository.existsByUsername(registerRequestDTO.username())) {
             throw new ConflictException("Username is already in use");
         }
@@ -49,9 +70,9 @@ public class UserService {
         if (registerRequestDTO.email() != null && userRepository.existsByEmail(registerRequestDTO.email())) {
             throw new ConflictException("Email is already in use");
         }
+    }
 
-        UUID userId = keycloakClient.createUser(userMapper.toKeycloakDto(registerRequestDTO));
-
+    private UserResponseDTO saveNewUser(UUID userId, RegisterRequestDTO registerRequestDTO) {
         UserEntity entity = userMapper.toEntity(userId, registerRequestDTO);
 
         UserStatsEntity stats = UserStatsEntity.builder()
@@ -78,15 +99,43 @@ public class UserService {
             throw new NotFoundException("User with ID " + userId + " not found");
         }
 
-        keycloakClient.deleteUser(userId);
+        // Bounded by the Keycloak request deadline
+        keycloakClient.deleteUser(userId).block();
         userRepository.deleteById(userId);
+        principalCache.invalidate(userId);
         log.info("User with ID {} has been successfully deleted", userId);
     }
 
-    public List<UserResponseDTO> listUsers() {
-        List<UserEntity> users = userRepository.findAll();
-        return users.stream()
-                .map(userMapper::toDto)
-                .toList();
+    /**
+     * A page of users with their stats, oldest first. Rows are read straight into DTOs, so nothing is loaded into
+     * the persistence context and the stats come from the same query.
+     */
+    public PageResponseDTO<UserResponseDTO> listUsers(String cursor, Integer limit) {
+        UserCursor after = UserCursor.decode(cursor);
+        int pageSize = ChallengeQueryDTO.pageSize(limit);
+        List<UserResponseDTO> rows = after == null
+                ? userRepository.findFirstResponsePage(Limit.of(pageSize + 1))
+                : userRepository.findResponsePageAfter(after.createdAt(), after.lastId(), Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UserResponseDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? new UserCursor(page.getLast().createdAt(), page.getLast().id()).encode() : null;
+        return PageResponseDTO.of(page, nextCursor);
+    }
+
+    // Every user in listing order, fetched 1000 rows at a time, so memory stays flat however large the table is
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<UserResponseDTO> action) {
+        try (Stream<UserResponseDTO> users = userRepository.streamAllResponses()) {
+            users.forEach(action);
+        }
+    }
+
+    // Users matching any of the given ids or usernames, in one query; unknown entries are simply absent
+    public List<UserIdentity> resolveIdentities(Collection<UUID> ids, Collection<String> usernames) {
+        if (ids.isEmpty() && usernames.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findIdentities(ids.toArray(UUID[]::new), usernames.toArray(String[]::new));
     }
 }
@@ -0,0 +1,49 @@
+package backend.service;
+
+import backend.model.enums.ConnectionType;
+
+/**
+ * Signed change to a user's stats row, applied as a single atomic UPDATE.
+ * Deltas can be combined so that a connection transition or a batch of events costs one statement per user.
+ */
+public record UserStatsDelta(
+        int points,
+        int createdChallengesCount,
+        int completeChallengesCount,
+        int activeChallengesCount,
+        int savedChallengesCount,
+        int submissionsCount
+) {
+    public static final UserStatsDelta ZERO = new UserStatsDelta(0, 0, 0, 0, 0, 0);
+
+    public static UserStatsDelta ofPoints(int points) {
+        return new UserStatsDelta(points, 0, 0, 0, 0, 0);
+    }
+
+    // Maps a connection type to the counter it drives; awaiting_response has no counter of its own
+    public static UserStatsDelta forConnection(ConnectionType connType, int delta) {
+        return switch (connType) {
+            case author -> new UserStatsDelta(0, delta, 0, 0, 0, 0);
+            case complete -> new UserStatsDelta(0, 0, delta, 0, 0, 0);
+            case active -> new UserStatsDelta(0, 0, 0, delta, 0, 0);
+            case saved -> new UserStatsDelta(0, 0, 0, 0, delta, 0);
+            case pending_verification -> new UserStatsDelta(0, 0, 0, 0, 0, delta);
+            case awaiting_response -> ZERO;
+        };
+    }
+
+    public UserStatsDelta plus(UserStatsDelta other) {
+        return new UserStatsDelta(
+                points + other.points,
+                createdChallengesCount + other.createdChallengesCount,
+                completeChallengesCount + other.completeChallengesCount,
+                activeChallengesCount + other.activeChallengesCount,
+                savedChallengesCount + other.savedChallengesCount,
+                submissionsCount + other.submissionsCount
+        );
+    }
+
+    public boolean isZero() {
+        return this.equals(ZERO);
+    }
+}
@@ -0,0 +1,41 @@
+package backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Keeps the per-user connection counters in user_stats; one combined delta per user and batch, written in the
+// dispatch transaction so the deltas commit together with the handler's offset (or buffered in write-behind mode)
+@Component
+@RequiredArgsConstructor
+public class UserStatsOutboxHandler implements OutboxHandler {
+    private final UserStatsService statsService;
+
+    @Override
+    public String name() {
+        return "user-stats";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Map<UUID, UserStatsDelta> deltas = new HashMap<>();
+        for (OutboxEvent event : events) {
+            if (!event.isConnectionChange()) {
+                continue;
+            }
+            UserStatsDelta delta = UserStatsDelta.ZERO;
+            if (event.source() != null) {
+                delta = delta.plus(UserStatsDelta.forConnection(event.source(), -1));
+            }
+            if (event.target() != null) {
+                delta = delta.plus(UserStatsDelta.forConnection(event.target(), 1));
+            }
+            deltas.merge(event.userId(), delta, UserStatsDelta::plus);
+        }
+        statsService.recordCounterDeltas(deltas);
+    }
+}
@@ -1,68 +1,149 @@
 package backend.service;
 
+import backend.model.UserPointsEventEntity;
 import backend.model.UserStatsEntity;
-import backend.model.enums.ConnectionType;
+import backend.repository.UserPointsEventRepository;
 import backend.repository.UserStatsRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserStatsService {
+    // Multi-row UPDATEs lock their rows in this order, so two batches sharing users cannot deadlock. Postgres
+    // orders uuids by their unsigned bytes, UUID.compareTo by signed halves; this matches Postgres.
+    static final Comparator<Map.Entry<UUID, UserStatsDelta>> LOCK_ORDER = Comparator
+            .comparing((Map.Entry<UUID, UserStatsDelta> entry) -> entry.getKey().getMostSignificantBits(),
+                    Long::compareUnsigned)
+            .thenComparing(entry -> entry.getKey().getLeastSignificantBits(), Long::compareUnsigned);
+
     private final UserStatsRepository statsRepo;
+    private final UserStatsWriteBehindBuffer writeBehind;
+    private final UserPointsEventRepository pointsEventRepo;
+    private final LeaderboardService leaderboardService;
 
     public UserStatsEntity getStatsByUserId(UUID userId) {
-        return statsRepo.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User stats not found"));
+        return writeBehind.read(userId,
+                () -> statsRepo.findById(userId).orElseThrow(() -> new EntityNotFoundException("User stats not found")),
+                UserStatsService::withPending);
     }
 
-//    public void incrementCreatedChallengesCount(UUID userId) {
-//        UserStatsEntity stats = getStatsByUserId(userId);
-//        stats.setCreatedChallengesCount(stats.getCompleteChallengesCount() + 1);
-//        statsRepo.save(stats);
-//        log.info("Incremented createdChallengesCount");
-//    }
+    private static UserStatsEntity withPending(UserStatsEntity stats, UserStatsDelta pending) {
+        if (pending.isZero()) {
+            return stats;
+        }
+        // Detached copy, so merging unflushed deltas never gets written back by the dirty check
+        return UserStatsEntity.builder()
+                .userId(stats.getUserId())
+                .user(stats.getUser())
+                .points(stats.getPoints() + pending.points())
+                .createdChallengesCount(stats.getCreatedChallengesCount() + pending.createdChallengesCount())
+                .completeChallengesCount(stats.getCompleteChallengesCount() + pending.completeChallengesCount())
+                .activeChallengesCount(stats.getActiveChallengesCount() + pending.activeChallengesCount())
+                .savedChallengesCount(stats.getSavedChallengesCount() + pending.savedChallengesCount())
+                .submissionsCount(stats.getSubmissionsCount() + pending.submissionsCount())
+                .build();
+    }
 
+    @Transactional
     public void addPoints(UUID userId, int points) {
-        UserStatsEntity stats = getStatsByUserId(userId);
-        stats.setPoints(stats.getPoints() + points);
-        statsRepo.save(stats);
+        applyDelta(userId, UserStatsDelta.ofPoints(points));
+        pointsEventRepo.save(UserPointsEventEntity.builder().userId(userId).points(points).build());
+        // Only move the in-memory ranking once the points are durable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                leaderboardService.addPoints(userId, points);
+            }
+        });
         log.info("Added {} points", points);
     }
 
-    public void incrementCounter(UUID userId, ConnectionType connType) {
-        UserStatsEntity stats = getStatsByUserId(userId);
-        switch (connType) {
-            case author -> stats.setCreatedChallengesCount(stats.getCompleteChallengesCount() + 1);
-            case active -> stats.setActiveChallengesCount(stats.getActiveChallengesCount() + 1);
-            case complete -> stats.setCompleteChallengesCount(stats.getCompleteChallengesCount() + 1);
-            case saved -> stats.setSavedChallengesCount(stats.getSavedChallengesCount() + 1);
-            case pending_verification -> stats.setSubmissionsCount(stats.getSubmissionsCount() + 1);
-            case awaiting_response -> log.info("User has been challenged by another user");
-            default -> throw new IllegalArgumentException("Unknown connection type: " + connType);
+    /**
+     * Credits points that are already logged in user_points_events, one statement for all users.
+     * The leaderboard follows once the transaction commits.
+     */
+    public void creditPoints(Map<UUID, Integer> pointsByUser) {
+        applyDeltas(pointsByUser.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> UserStatsDelta.ofPoints(entry.getValue()))));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pointsByUser.forEach(leaderboardService::addPoints);
+            }
+        });
+    }
+
+    /**
+     * Connection counter deltas from the outbox. Written in the current transaction, or in write-behind mode added
+     * to the buffer once it commits, so a batch that rolls back and is delivered again is not counted twice.
+     */
+    public void recordCounterDeltas(Map<UUID, UserStatsDelta> deltas) {
+        if (!writeBehind.isEnabled()) {
+            applyDeltas(deltas);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.forEach(writeBehind::add);
+                }
+            });
+        } else {
+            deltas.forEach(writeBehind::add);
         }
-        statsRepo.save(stats);
-        log.info("Incremented {} counter for user {}", connType, userId);
     }
 
-    public void decrementCounter(UUID userId, ConnectionType connType) {
-        UserStatsEntity stats = getStatsByUserId(userId);
-        switch (connType) {
-            case author -> stats.setCreatedChallengesCount(stats.getCompleteChallengesCount() - 1);
-            case active -> stats.setActiveChallengesCount(stats.getActiveChallengesCount() - 1);
-            case complete -> stats.setCompleteChallengesCount(stats.getCompleteChallengesCount() - 1);
-            case saved -> stats.setSavedChallengesCount(stats.getSavedChallengesCount() - 1);
-            case pending_verification -> stats.setSubmissionsCount(stats.getSubmissionsCount() - 1);
-            case awaiting_response -> log.info("User has accepted or rejected a challenge request");
-            default -> throw new IllegalArgumentException("Unknown connection type: " + connType);
+    // A different delta per user in one statement, bypassing the write-behind buffer
+    public void applyDeltas(Map<UUID, UserStatsDelta> deltas) {
+        List<Map.Entry<UUID, UserStatsDelta>> entries = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .sorted(LOCK_ORDER)
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        int updated = statsRepo.applyDeltas(entries.stream().map(Map.Entry::getKey).toArray(UUID[]::new),
+                column(entries, UserStatsDelta::points),
+                column(entries, UserStatsDelta::createdChallengesCount),
+                column(entries, UserStatsDelta::completeChallengesCount),
+                column(entries, UserStatsDelta::activeChallengesCount),
+                column(entries, UserStatsDelta::savedChallengesCount),
+                column(entries, UserStatsDelta::submissionsCount));
+        if (updated != entries.size()) {
+            log.warn("Stats update touched {} of {} users; missing users were skipped", updated, entries.size());
         }
-        statsRepo.save(stats);
-        log.info("Decremented {} counter for user {}", connType, userId);
     }
 
+    private static Integer[] column(List<Map.Entry<UUID, UserStatsDelta>> entries, ToIntFunction<UserStatsDelta> field) {
+        return entries.stream().map(entry -> field.applyAsInt(entry.getValue())).toArray(Integer[]::new);
+    }
+
+    public void applyDelta(UUID userId, UserStatsDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        int updated = statsRepo.applyDelta(userId,
+                delta.points(),
+                delta.createdChallengesCount(),
+                delta.completeChallengesCount(),
+                delta.activeChallengesCount(),
+                delta.savedChallengesCount(),
+                delta.submissionsCount());
+        if (updated == 0) {
+            throw new EntityNotFoundException("User stats not found");
+        }
+    }
 }
@@ -0,0 +1,237 @@
+package backend.service;
+
+import backend.config.UserStatsWriteBehindProperties;
+import backend.repository.UserStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates user stats deltas in memory and writes them out in batched multi-row UPDATEs, so bursts against one
+ * user collapse into a single row update per flush. Only active when {@code user-stats.write-behind.enabled} is set;
+ * the outbox stats handler then hands its deltas here once its batch has committed, instead of writing them in the
+ * dispatch transaction. That offset is already advanced, so deltas not yet flushed are lost if the process dies;
+ * a normal shutdown flushes them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsWriteBehindBuffer {
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 3;
+
+    private final UserStatsRepository statsRepo;
+    private final UserStatsWriteBehindProperties props;
+    private final TaskScheduler taskScheduler;
+
+    // ConcurrentHashMap locks per bin, so writers for different users rarely contend
+    private final ConcurrentHashMap<UUID, UserStatsDelta> pending = new ConcurrentHashMap<>();
+    // Drained but not yet committed; kept visible to readers until the batch is written
+    private final ConcurrentHashMap<UUID, UserStatsDelta> flushing = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingDeltas = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Odd while a flush is moving deltas or writing a batch, so readers can tell their snapshot straddled one
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    public boolean isEnabled() {
+        return props.isEnabled();
+    }
+
+    public void add(UUID userId, UserStatsDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        pending.merge(userId, delta, UserStatsDelta::plus);
+        // The flush itself runs on the scheduler, never on the thread that happened to cross the threshold
+        if (pendingDeltas.incrementAndGet() >= props.getMaxPendingDeltas() && flushQueued.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                flushQueued.set(false);
+                flush(false);
+            }, Instant.now());
+        }
+    }
+
+    public UserStatsDelta pendingFor(UUID userId) {
+        UserStatsDelta queued = pending.getOrDefault(userId, UserStatsDelta.ZERO);
+        UserStatsDelta inFlight = flushing.getOrDefault(userId, UserStatsDelta.ZERO);
+        return queued.plus(inFlight);
+    }
+
+    /**
+     * Reads the stored row and the user's unwritten deltas as of one instant and merges them. Without this a
+     * delta could be counted twice, e.g. when its batch commits after the row was read but before it leaves
+     * {@code flushing}. Optimistic first; if flushes keep overlapping, the read waits for the flush lock.
+     */
+    public <T> T read(UUID userId, Supplier<T> rowReader, BiFunction<T, UserStatsDelta, T> merge) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long before = writeSequence.get();
+            if ((before & 1) == 0) {
+                T row = rowReader.get();
+                UserStatsDelta delta = pendingFor(userId);
+                if (writeSequence.get() == before) {
+                    return merge.apply(row, delta);
+                }
+            }
+            Thread.onSpinWait();
+        }
+        flushLock.lock();
+        try {
+            return merge.apply(rowReader.get(), pendingFor(userId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-stats.write-behind.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (props.isEnabled()) {
+            flush(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(true);
+    }
+
+    public void flush(boolean waitForLock) {
+        if (waitForLock) {
+            flushLock.lock();
+        } else if (!flushLock.tryLock()) {
+            return; // another thread is already flushing
+        }
+        try {
+            pendingDeltas.set(0);
+            writeSequence.incrementAndGet();
+            try {
+                for (UUID userId : pending.keySet()) {
+                    // Move atomically with respect to concurrent add() calls for the same user
+                    pending.computeIfPresent(userId, (id, delta) -> {
+                        flushing.merge(id, delta, UserStatsDelta::plus);
+                        return null;
+                    });
+                }
+            } finally {
+                writeSequence.incrementAndGet();
+            }
+            if (flushing.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<UUID, UserStatsDelta>> entries = new ArrayList<>(flushing.entrySet());
+            entries.sort(UserStatsService.LOCK_ORDER);
+            List<Map.Entry<UUID, UserStatsDelta>> retry = new ArrayList<>();
+            boolean reachable = true;
+            for (int from = 0; from < entries.size(); from += props.getBatchSize()) {
+                List<Map.Entry<UUID, UserStatsDelta>> batch =
+                        entries.subList(from, Math.min(from + props.getBatchSize(), entries.size()));
+                writeSequence.incrementAndGet();
+                try {
+                    if (reachable) {
+                        reachable = writeBatch(batch, retry);
+                    } else {
+                        retry.addAll(batch);
+                    }
+                    batch.forEach(entry -> flushing.remove(entry.getKey()));
+                    // Back into the live map inside the same window, so readers never see the deltas missing
+                    retry.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), UserStatsDelta::plus));
+                } finally {
+                    writeSequence.incrementAndGet();
+                }
+                retry.clear();
+            }
+            if (reachable) {
+                log.debug("Flushed stats deltas for {} user(s)", entries.size());
+            } else {
+                log.warn("Stats flush interrupted by a database failure; unwritten deltas are kept for the next flush");
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes one batch. Deltas that could not be written because the database failed go to {@code retry};
+     * a delta the row itself rejects (a counter check violation) is dropped, as no retry would succeed.
+     * Returns false when the database looks unavailable, so the rest of the flush is not attempted.
+     */
+    private boolean writeBatch(List<Map.Entry<UUID, UserStatsDelta>> batch,
+                               List<Map.Entry<UUID, UserStatsDelta>> retry) {
+        int size = batch.size();
+        UUID[] userIds = new UUID[size];
+        Integer[] points = new Integer[size];
+        Integer[] created = new Integer[size];
+        Integer[] complete = new Integer[size];
+        Integer[] active = new Integer[size];
+        Integer[] saved = new Integer[size];
+        Integer[] submissions = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            UserStatsDelta delta = batch.get(i).getValue();
+            userIds[i] = batch.get(i).getKey();
+            points[i] = delta.points();
+            created[i] = delta.createdChallengesCount();
+            complete[i] = delta.completeChallengesCount();
+            active[i] = delta.activeChallengesCount();
+            saved[i] = delta.savedChallengesCount();
+            submissions[i] = delta.submissionsCount();
+        }
+
+        try {
+            int updated = statsRepo.applyDeltas(userIds, points, created, complete, active, saved, submissions);
+            if (updated != size) {
+                log.warn("Stats flush updated {} of {} rows; missing users were skipped", updated, size);
+            }
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // One bad row must not wedge the whole batch
+            log.error("Batched stats flush failed, retrying {} user(s) one by one: {}", size, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Batched stats flush failed for {} user(s): {}", size, e.getMessage());
+            retry.addAll(batch);
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!writeOne(batch.get(i).getKey(), batch.get(i).getValue())) {
+                retry.addAll(batch.subList(i, size));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean writeOne(UUID userId, UserStatsDelta delta) {
+        try {
+            statsRepo.applyDelta(userId,
+                    delta.points(),
+                    delta.createdChallengesCount(),
+                    delta.completeChallengesCount(),
+                    delta.activeChallengesCount(),
+                    delta.savedChallengesCount(),
+                    delta.submissionsCount());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.error("Dropping stats delta {} for user {}: {}", delta, userId, e.getMessage());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Stats delta for user {} not written: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+}
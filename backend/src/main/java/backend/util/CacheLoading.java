@@ -0,0 +1,42 @@
+package backend.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through loads for Caffeine caches that keep blocking I/O out of the cache's internal locks.
+ * <p>
+ * {@code Cache.get(key, loader)} runs the loader inside {@code ConcurrentHashMap.compute}, i.e. while holding a
+ * monitor; a virtual thread doing JDBC there pins its carrier. Here only an empty future is installed under the
+ * lock, the calling thread runs the loader afterwards, and concurrent callers for the same key wait on that future.
+ */
+public final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> ours = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> ours);
+        if (future == ours) {
+            try {
+                ours.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                // Caffeine drops failed futures, so the next caller retries the load
+                ours.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Treap ordered by score descending (ties broken by id) whose nodes carry subtree sizes,
+ * so insert, remove, rank lookup and positional select all run in expected O(log n).
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public final class OrderStatisticTree {
+
+    public record Entry(UUID id, long score) {
+    }
+
+    private static final class Node {
+        final UUID id;
+        final long score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID id, long score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    public void insert(UUID id, long score) {
+        root = insert(root, new Node(id, score, random.nextInt()));
+    }
+
+    public boolean remove(UUID id, long score) {
+        if (indexOf(id, score) < 0) {
+            return false;
+        }
+        root = remove(root, id, score);
+        return true;
+    }
+
+    /** Zero-based position of the entry in leaderboard order, or -1 if absent. */
+    public int indexOf(UUID id, long score) {
+        int index = 0;
+        Node t = root;
+        while (t != null) {
+            int cmp = compare(score, id, t);
+            if (cmp == 0) {
+                return index + size(t.left);
+            }
+            if (cmp < 0) {
+                t = t.left;
+            } else {
+                index += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        return -1;
+    }
+
+    /** Number of entries with a strictly higher score; 1 + this is the competition rank of {@code score}. */
+    public int countAbove(long score) {
+        int count = 0;
+        Node t = root;
+        while (t != null) {
+            if (t.score > score) {
+                count += size(t.left) + 1;
+                t = t.right;
+            } else {
+                t = t.left;
+            }
+        }
+        return count;
+    }
+
+    public Entry select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        Node t = root;
+        while (true) {
+            int leftSize = size(t.left);
+            if (index < leftSize) {
+                t = t.left;
+            } else if (index == leftSize) {
+                return new Entry(t.id, t.score);
+            } else {
+                index -= leftSize + 1;
+                t = t.right;
+            }
+        }
+    }
+
+    public List<Entry> range(int fromIndex, int count) {
+        int from = Math.max(0, fromIndex);
+        int to = Math.min(size(), fromIndex + count);
+        List<Entry> entries = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            entries.add(select(i));
+        }
+        return entries;
+    }
+
+    // Negative when (score, id) sorts before node t: higher scores first, then ascending id
+    private static int compare(long score, UUID id, Node t) {
+        int byScore = Long.compare(t.score, score);
+        return byScore != 0 ? byScore : id.compareTo(t.id);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static void update(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) {
+            return n;
+        }
+        if (n.priority > t.priority) {
+            Node[] parts = split(t, n.score, n.id);
+            n.left = parts[0];
+            n.right = parts[1];
+            update(n);
+            return n;
+        }
+        if (compare(n.score, n.id, t) < 0) {
+            t.left = insert(t.left, n);
+        } else {
+            t.right = insert(t.right, n);
+        }
+        update(t);
+        return t;
+    }
+
+    // Splits t into entries sorting before (score, id) and the rest
+    private static Node[] split(Node t, long score, UUID id) {
+        if (t == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(score, id, t) > 0) {
+            Node[] parts = split(t.right, score, id);
+            t.right = parts[0];
+            update(t);
+            return new Node[]{t, parts[1]};
+        }
+        Node[] parts = split(t.left, score, id);
+        t.left = parts[1];
+        update(t);
+        return new Node[]{parts[0], t};
+    }
+
+    private static Node remove(Node t, UUID id, long score) {
+        int cmp = compare(score, id, t);
+        if (cmp == 0) {
+            return merge(t.left, t.right);
+        }
+        if (cmp < 0) {
+            t.left = remove(t.left, id, score);
+        } else {
+            t.right = remove(t.right, id, score);
+        }
+        update(t);
+        return t;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+}
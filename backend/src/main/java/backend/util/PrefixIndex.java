@@ -0,0 +1,475 @@
+package backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Word-prefix index over short texts (challenge titles): returns the top N texts by score whose words start with
+ * the query's words, without any per-entry objects.
+ * <p>
+ * Documents live in parallel primitive arrays; their lower-cased words are packed, zero-terminated, into one byte
+ * pool. Each (word, document) pair is a {@code long} (word offset &lt;&lt; 32 | document slot) in one sorted array, so a
+ * prefix lookup is a binary search followed by a scan of the matching range. Words added after the last sort go
+ * to a small unsorted tail that is scanned linearly and merged once it fills up. Prefixes of up to three bytes
+ * would match a large share of the index, so their top results are kept precomputed; for longer ones the best
+ * score of every block of 64 sorted entries lets the scan skip blocks that cannot improve the current top N.
+ * <p>
+ * A single writer at a time (guarded internally); readers never lock and see the last published snapshot.
+ * All arrays are append-only below the sizes a snapshot captured, which is what makes that safe.
+ */
+public final class PrefixIndex {
+    public static final int MAX_RESULTS = 20;
+
+    private static final int SHORT_PREFIX_BYTES = 3;
+    private static final int TAIL_LIMIT = 8_192;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int BLOCK_SHIFT = 6;
+
+    public record Match(UUID id, String text, int score) {
+    }
+
+    private record Snapshot(long[] idHi, long[] idLo, int[] scores, int[] textStart, int[] wordStart,
+                            byte[] texts, byte[] words, int docs,
+                            long[] sorted, int sortedSize, int[] blockMax, long[] tail, int tailSize) {
+    }
+
+    /** Collects documents without publishing or merging; {@link #build()} sorts once at the end. */
+    public static final class Builder {
+        private final PrefixIndex index = new PrefixIndex();
+
+        public Builder add(UUID id, String text, int score) {
+            index.append(id, text, score);
+            return this;
+        }
+
+        public PrefixIndex build() {
+            index.mergeTail();
+            index.rebuildShortPrefixes();
+            index.publish();
+            return index;
+        }
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Key: prefix length and its (at most three) bytes; value: slots ordered by score, at most MAX_RESULTS
+    private final Map<Integer, int[]> shortPrefixTop = new ConcurrentHashMap<>();
+
+    private long[] idHi = new long[1_024];
+    private long[] idLo = new long[1_024];
+    private int[] scores = new int[1_024];
+    private int[] textStart = new int[1_025];
+    private int[] wordStart = new int[1_025];
+    private byte[] texts = new byte[32_768];
+    private byte[] words = new byte[32_768];
+    private int docs;
+    private long[] sorted = new long[0];
+    private int sortedSize;
+    private int[] blockMax = new int[0];
+    private long[] tail = new long[TAIL_LIMIT];
+    private int tailSize;
+
+    private volatile Snapshot snapshot;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private PrefixIndex() {
+    }
+
+    public void add(UUID id, String text, int score) {
+        writeLock.lock();
+        try {
+            int slot = docs;
+            append(id, text, score);
+            offerShortPrefixes(slot);
+            if (tailSize >= TAIL_LIMIT) {
+                mergeTail();
+            }
+            publish();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Top documents by score in which every word of {@code query} is the prefix of some word of the document,
+     * so "morning sw" finds "Morning swim". Duplicated ids are reported once.
+     */
+    public List<Match> search(String query, int limit) {
+        Snapshot s = snapshot;
+        List<byte[]> terms = new ArrayList<>(tokenize(query));
+        if (s == null || terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        // Every term is matched as a word prefix; the longest one is the most selective range to scan
+        byte[] prefix = terms.stream().max(Comparator.comparingInt(term -> term.length)).orElseThrow();
+        terms.remove(prefix);
+        TopN top = new TopN(s, Math.min(limit, MAX_RESULTS));
+
+        if (terms.isEmpty() && prefix.length <= SHORT_PREFIX_BYTES) {
+            int[] slots = shortPrefixTop.get(shortKey(prefix, 0, prefix.length));
+            if (slots != null) {
+                for (int slot : slots) {
+                    // the list may already name a document that is not published yet
+                    if (slot < s.docs) top.offer(slot);
+                }
+            }
+            return top.matches();
+        }
+
+        int i = lowerBound(s, prefix);
+        while (i < s.sortedSize) {
+            if ((i & ((1 << BLOCK_SHIFT) - 1)) == 0 && top.cannotImproveOn(s.blockMax[i >>> BLOCK_SHIFT])) {
+                i += 1 << BLOCK_SHIFT;
+                continue;
+            }
+            long entry = s.sorted[i];
+            if (comparePrefix(s.words, offset(entry), prefix) != 0) break;
+            if (containsAll(s, slot(entry), terms)) top.offer(slot(entry));
+            i++;
+        }
+        for (int t = 0; t < s.tailSize; t++) {
+            long entry = s.tail[t];
+            if (comparePrefix(s.words, offset(entry), prefix) == 0 && containsAll(s, slot(entry), terms)) {
+                top.offer(slot(entry));
+            }
+        }
+        return top.matches();
+    }
+
+    public int size() {
+        Snapshot s = snapshot;
+        return s == null ? 0 : s.docs;
+    }
+
+    /** Bytes held by the index arrays, counting allocated capacity, plus an estimate for the short-prefix table. */
+    public long footprintBytes() {
+        Snapshot s = snapshot;
+        if (s == null) return 0;
+        long bytes = 8L * (s.idHi.length + s.idLo.length + s.sorted.length + s.tail.length)
+                + 4L * (s.scores.length + s.textStart.length + s.wordStart.length + s.blockMax.length)
+                + s.texts.length + s.words.length;
+        for (int[] slots : shortPrefixTop.values()) {
+            // map node + boxed key + array header
+            bytes += 32 + 16 + 16 + 4L * slots.length;
+        }
+        return bytes;
+    }
+
+    // ---- writing (under writeLock, or single-threaded in the builder) ----
+
+    private void append(UUID id, String text, int score) {
+        ensureDocCapacity(docs + 1);
+        idHi[docs] = id.getMostSignificantBits();
+        idLo[docs] = id.getLeastSignificantBits();
+        scores[docs] = score;
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        texts = ensure(texts, textStart[docs] + raw.length);
+        System.arraycopy(raw, 0, texts, textStart[docs], raw.length);
+        textStart[docs + 1] = textStart[docs] + raw.length;
+
+        int end = wordStart[docs];
+        for (byte[] word : tokenize(text)) {
+            words = ensure(words, end + word.length + 1);
+            System.arraycopy(word, 0, words, end, word.length);
+            words[end + word.length] = 0;
+            tail = ensure(tail, tailSize + 1);
+            tail[tailSize++] = ((long) end << 32) | docs;
+            end += word.length + 1;
+        }
+        wordStart[docs + 1] = end;
+        docs++;
+    }
+
+    private void mergeTail() {
+        // sorted as a copy: readers of the current snapshot may be scanning the tail
+        long[] batch = Arrays.copyOf(tail, tailSize);
+        sort(batch, 0, batch.length);
+        long[] merged = new long[sortedSize + batch.length];
+        int i = 0, j = 0, k = 0;
+        while (i < sortedSize && j < batch.length) {
+            merged[k++] = compareEntries(sorted[i], batch[j]) <= 0 ? sorted[i++] : batch[j++];
+        }
+        while (i < sortedSize) merged[k++] = sorted[i++];
+        while (j < batch.length) merged[k++] = batch[j++];
+        sorted = merged;
+        sortedSize = merged.length;
+        blockMax = new int[(sortedSize + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT];
+        Arrays.fill(blockMax, Integer.MIN_VALUE);
+        for (int e = 0; e < sortedSize; e++) {
+            blockMax[e >>> BLOCK_SHIFT] = Math.max(blockMax[e >>> BLOCK_SHIFT], scores[slot(sorted[e])]);
+        }
+        tail = new long[TAIL_LIMIT];
+        tailSize = 0;
+    }
+
+    // Words sharing a short prefix are contiguous in the sorted array, so each table entry is one range scan
+    private void rebuildShortPrefixes() {
+        shortPrefixTop.clear();
+        for (int length = 1; length <= SHORT_PREFIX_BYTES; length++) {
+            int currentKey = -1;
+            SlotTop current = null;
+            for (int i = 0; i < sortedSize; i++) {
+                int offset = offset(sorted[i]);
+                if (wordLength(words, offset) < length) continue;
+                int key = shortKey(words, offset, length);
+                if (key != currentKey) {
+                    if (current != null) shortPrefixTop.put(currentKey, current.slots());
+                    currentKey = key;
+                    current = new SlotTop();
+                }
+                current.offer(slot(sorted[i]));
+            }
+            if (current != null) shortPrefixTop.put(currentKey, current.slots());
+        }
+    }
+
+    private void offerShortPrefixes(int slot) {
+        for (int offset = wordStart[slot]; offset < wordStart[slot + 1]; offset += wordLength(words, offset) + 1) {
+            int length = Math.min(SHORT_PREFIX_BYTES, wordLength(words, offset));
+            for (int l = 1; l <= length; l++) {
+                shortPrefixTop.compute(shortKey(words, offset, l), (key, slots) -> {
+                    SlotTop top = new SlotTop();
+                    if (slots != null) {
+                        for (int existing : slots) top.offer(existing);
+                    }
+                    top.offer(slot);
+                    return top.slots();
+                });
+            }
+        }
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(idHi, idLo, scores, textStart, wordStart, texts, words, docs,
+                sorted, sortedSize, blockMax, tail, tailSize);
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity < idHi.length) return;
+        int grown = Math.max(capacity, idHi.length + (idHi.length >> 1));
+        idHi = Arrays.copyOf(idHi, grown);
+        idLo = Arrays.copyOf(idLo, grown);
+        scores = Arrays.copyOf(scores, grown);
+        textStart = Arrays.copyOf(textStart, grown + 1);
+        wordStart = Arrays.copyOf(wordStart, grown + 1);
+    }
+
+    private static byte[] ensure(byte[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length + (array.length >> 1)));
+    }
+
+    private static long[] ensure(long[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length + (array.length >> 1)));
+    }
+
+    // ---- sorting: entries ordered by word bytes (unsigned, terminator first), then slot ----
+
+    private int compareEntries(long a, long b) {
+        int i = offset(a), j = offset(b);
+        while (true) {
+            int x = words[i++] & 0xff, y = words[j++] & 0xff;
+            if (x != y) return x - y;
+            if (x == 0) return Integer.compare(slot(a), slot(b));
+        }
+    }
+
+    private void sort(long[] a, int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            long pivot = medianOfThree(a[from], a[(from + to) >>> 1], a[to - 1]);
+            int i = from, j = to - 1;
+            while (i <= j) {
+                while (compareEntries(a[i], pivot) < 0) i++;
+                while (compareEntries(a[j], pivot) > 0) j--;
+                if (i <= j) {
+                    long t = a[i];
+                    a[i++] = a[j];
+                    a[j--] = t;
+                }
+            }
+            // recurse into the smaller half so the stack stays logarithmic
+            if (j - from < to - i) {
+                sort(a, from, j + 1);
+                from = i;
+            } else {
+                sort(a, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            long entry = a[i];
+            int j = i - 1;
+            while (j >= from && compareEntries(a[j], entry) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = entry;
+        }
+    }
+
+    private long medianOfThree(long a, long b, long c) {
+        if (compareEntries(a, b) > 0) {
+            long t = a;
+            a = b;
+            b = t;
+        }
+        if (compareEntries(b, c) > 0) {
+            b = c;
+            if (compareEntries(a, b) > 0) b = a;
+        }
+        return b;
+    }
+
+    // ---- reading ----
+
+    private static int lowerBound(Snapshot s, byte[] prefix) {
+        int lo = 0, hi = s.sortedSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(s.words, offset(s.sorted[mid]), prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // 0 when the word at offset starts with prefix; otherwise the word's order relative to the prefix
+    private static int comparePrefix(byte[] words, int offset, byte[] prefix) {
+        for (int k = 0; k < prefix.length; k++) {
+            int x = words[offset + k] & 0xff, y = prefix[k] & 0xff;
+            if (x != y) return x - y;
+        }
+        return 0;
+    }
+
+    private static boolean containsAll(Snapshot s, int slot, List<byte[]> terms) {
+        for (byte[] term : terms) {
+            boolean found = false;
+            for (int offset = s.wordStart[slot]; offset < s.wordStart[slot + 1] && !found;
+                 offset += wordLength(s.words, offset) + 1) {
+                found = comparePrefix(s.words, offset, term) == 0;
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static int wordLength(byte[] words, int offset) {
+        int end = offset;
+        while (words[end] != 0) end++;
+        return end - offset;
+    }
+
+    private static int shortKey(byte[] bytes, int offset, int length) {
+        int key = length << 24;
+        for (int k = 0; k < length; k++) {
+            key |= (bytes[offset + k] & 0xff) << (8 * (SHORT_PREFIX_BYTES - 1 - k));
+        }
+        return key;
+    }
+
+    private static int offset(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int slot(long entry) {
+        return (int) entry;
+    }
+
+    // Lower-cased words of the text, split on anything that is not a letter or digit; repeated words once
+    static List<byte[]> tokenize(String text) {
+        Set<String> distinct = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                distinct.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return distinct.stream().map(word -> word.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    /** Best slots by score in the writer's view, for the short-prefix table. */
+    private final class SlotTop {
+        private final int[] slots = new int[MAX_RESULTS];
+        private int count;
+
+        void offer(int slot) {
+            int score = scores[slot];
+            if (count == MAX_RESULTS && score <= scores[slots[count - 1]]) return;
+            for (int k = 0; k < count; k++) {
+                if (slots[k] == slot) return;
+            }
+            int k = Math.min(count, MAX_RESULTS - 1);
+            while (k > 0 && scores[slots[k - 1]] < score) {
+                slots[k] = slots[k - 1];
+                k--;
+            }
+            slots[k] = slot;
+            count = Math.min(count + 1, MAX_RESULTS);
+        }
+
+        int[] slots() {
+            return Arrays.copyOf(slots, count);
+        }
+    }
+
+    /** Best matches of one query, ordered by score; the same id under two slots counts once. */
+    private static final class TopN {
+        private final Snapshot s;
+        private final int[] slots;
+        private int count;
+
+        TopN(Snapshot s, int limit) {
+            this.s = s;
+            this.slots = new int[limit];
+        }
+
+        // A full top N only accepts scores above its last entry
+        boolean cannotImproveOn(int score) {
+            return count == slots.length && score <= s.scores[slots[count - 1]];
+        }
+
+        void offer(int slot) {
+            int score = s.scores[slot];
+            if (count == slots.length && score <= s.scores[slots[count - 1]]) return;
+            for (int k = 0; k < count; k++) {
+                int other = slots[k];
+                if (other == slot || (s.idHi[other] == s.idHi[slot] && s.idLo[other] == s.idLo[slot])) return;
+            }
+            int k = Math.min(count, slots.length - 1);
+            while (k > 0 && s.scores[slots[k - 1]] < score) {
+                slots[k] = slots[k - 1];
+                k--;
+            }
+            slots[k] = slot;
+            count = Math.min(count + 1, slots.length);
+        }
+
+        List<Match> matches() {
+            List<Match> matches = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                int slot = slots[k];
+                String text = new String(s.texts, s.textStart[slot], s.textStart[slot + 1] - s.textStart[slot],
+                        StandardCharsets.UTF_8);
+                matches.add(new Match(new UUID(s.idHi[slot], s.idLo[slot]), text, s.scores[slot]));
+            }
+            return matches;
+        }
+    }
+}
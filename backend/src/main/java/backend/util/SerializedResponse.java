@@ -0,0 +1,59 @@
+package backend.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once, in identity and gzip encodings, with a strong ETag per encoding derived from
+ * the JSON bytes. Cached instances are written out as-is, so a repeat hit does no Jackson or compression work.
+ */
+public record SerializedResponse(
+        String etag,
+        String gzipEtag,
+        OffsetDateTime lastModified,
+        byte[] json,
+        byte[] gzip
+) {
+    // 128 bits of SHA-256 are plenty to tell versions of one resource apart
+    private static final int ETAG_BYTES = 16;
+
+    public static SerializedResponse of(ObjectMapper objectMapper, Object body, OffsetDateTime lastModified) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response body is not serializable", e);
+        }
+        String hash = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(sha256(json), ETAG_BYTES));
+        // The encodings differ byte for byte, so each gets its own strong validator
+        return new SerializedResponse("\"" + hash + "\"", "\"" + hash + "-gz\"", lastModified, json, gzip(json));
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
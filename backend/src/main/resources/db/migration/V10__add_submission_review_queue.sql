@@ -0,0 +1,8 @@
+-- Authors review a challenge's pending submissions oldest first. Only pending rows are ever queued, so the index
+-- covers just those and stays small no matter how many submissions have been decided.
+
+ALTER TABLE submissions
+    ADD COLUMN claimed_by    UUID,
+    ADD COLUMN claimed_until TIMESTAMPTZ;
+
+CREATE INDEX idx_submissions_pending ON submissions (challenge_id, created_at, id) WHERE status = 'pending';
@@ -0,0 +1,7 @@
+-- Per-user feeds read one user's connections of one type newest first, keyset on (ts, challenge_id).
+-- Extending idx_ucc_user_type with those columns makes every page an index range scan; the old index is a prefix.
+CREATE INDEX idx_ucc_user_type_ts ON user_challenge_connection (user_id, type, ts DESC, challenge_id DESC);
+DROP INDEX idx_ucc_user_type;
+
+-- Each feed row and each challenge summary looks up the challenge's author
+CREATE INDEX idx_ucc_challenge_author ON user_challenge_connection (challenge_id) WHERE type = 'author';
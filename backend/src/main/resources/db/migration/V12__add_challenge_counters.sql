@@ -0,0 +1,47 @@
+-- Per-challenge participation counters, kept next to likes_count and submissions_count so list rows never count
+-- connections. Changes arrive as deltas on sharded rows, like challenge_like_shards, and are folded in batches.
+ALTER TABLE challenges
+    ADD COLUMN active_count   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN pending_count  INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN complete_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN saved_count    INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE challenge_counter_shards (
+  challenge_id       UUID     NOT NULL REFERENCES challenges(id) ON DELETE CASCADE,
+  shard              SMALLINT NOT NULL,
+  active_delta       INTEGER  NOT NULL DEFAULT 0,
+  pending_delta      INTEGER  NOT NULL DEFAULT 0,
+  complete_delta     INTEGER  NOT NULL DEFAULT 0,
+  saved_delta        INTEGER  NOT NULL DEFAULT 0,
+  submissions_delta  INTEGER  NOT NULL DEFAULT 0,
+
+  PRIMARY KEY (challenge_id, shard)
+);
+
+-- Counting a challenge's connections or submissions (backfill below and the rebuild job) reads them by challenge
+CREATE INDEX idx_ucc_challenge_type ON user_challenge_connection (challenge_id, type);
+CREATE INDEX idx_submissions_challenge ON submissions (challenge_id);
+
+WITH connections AS (
+    SELECT challenge_id,
+           count(*) FILTER (WHERE type = 'active')               AS active,
+           count(*) FILTER (WHERE type = 'pending_verification') AS pending,
+           count(*) FILTER (WHERE type = 'complete')             AS complete,
+           count(*) FILTER (WHERE type = 'saved')                AS saved
+    FROM user_challenge_connection
+    GROUP BY challenge_id
+), submitted AS (
+    SELECT challenge_id, count(*) AS submissions
+    FROM submissions
+    GROUP BY challenge_id
+)
+UPDATE challenges c
+SET active_count      = COALESCE(cn.active, 0),
+    pending_count     = COALESCE(cn.pending, 0),
+    complete_count    = COALESCE(cn.complete, 0),
+    saved_count       = COALESCE(cn.saved, 0),
+    submissions_count = COALESCE(sb.submissions, 0)
+FROM challenges ch
+LEFT JOIN connections cn ON cn.challenge_id = ch.id
+LEFT JOIN submitted sb ON sb.challenge_id = ch.id
+WHERE c.id = ch.id;
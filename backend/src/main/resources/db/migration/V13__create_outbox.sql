@@ -0,0 +1,29 @@
+-- Side effects of connection changes (stats, points, challenge counters) are recorded here in the same transaction
+-- as the change and applied later by OutboxDispatcher. No foreign keys: an event outlives the rows it describes.
+--
+-- txid is the writing transaction's id. Handlers consume events in (txid, id) order and only below the oldest
+-- transaction still in flight, so an event committed late can never land behind a handler's offset.
+CREATE TABLE outbox_events (
+  id            BIGSERIAL       PRIMARY KEY,
+  txid          BIGINT          NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint),
+  event_type    TEXT            NOT NULL,
+  user_id       UUID            NOT NULL,
+  challenge_id  UUID            NOT NULL,
+  source        connection_type,
+  target        connection_type,
+  created_at    TIMESTAMPTZ     NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_events_position ON outbox_events (txid, id);
+
+-- Last event each handler has applied; advanced in the transaction that applies the batch
+CREATE TABLE outbox_offsets (
+  handler     TEXT        PRIMARY KEY,
+  last_txid   BIGINT      NOT NULL,
+  last_id     BIGINT      NOT NULL,
+  updated_at  TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Points awarded for an outbox event are logged once, however often the event is delivered
+ALTER TABLE user_points_events
+    ADD COLUMN source_event_id BIGINT UNIQUE;
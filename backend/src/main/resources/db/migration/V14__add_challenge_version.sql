@@ -0,0 +1,5 @@
+-- Row version for conditional GETs and optimistic locking. Every write to a challenge row bumps version and
+-- updated_at, including the set-wise like and counter folds.
+ALTER TABLE challenges
+    ADD COLUMN version    BIGINT      NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,3 @@
+-- The user listing pages and streams users in (created_at, id) order; id makes the keyset position unique.
+
+CREATE INDEX idx_users_created_id ON users (created_at, id);
@@ -0,0 +1,28 @@
+-- Keyset pagination for GET /api/challenges orders by (<sort column> DESC, id DESC) and filters on category and
+-- difficulty by equality. Each filter combination gets its own index per sort column, with the filters as the
+-- leading columns, so a page is a range scan that starts at the cursor and stops after limit + 1 rows however
+-- rare the category/difficulty pair is.
+
+-- No filter
+CREATE INDEX idx_challenges_created            ON challenges (created_at DESC, id DESC);
+CREATE INDEX idx_challenges_likes              ON challenges (likes_count DESC, id DESC);
+CREATE INDEX idx_challenges_subs               ON challenges (submissions_count DESC, id DESC);
+CREATE INDEX idx_challenges_points             ON challenges (points DESC, id DESC);
+
+-- category
+CREATE INDEX idx_challenges_cat_created        ON challenges (category, created_at DESC, id DESC);
+CREATE INDEX idx_challenges_cat_likes          ON challenges (category, likes_count DESC, id DESC);
+CREATE INDEX idx_challenges_cat_subs           ON challenges (category, submissions_count DESC, id DESC);
+CREATE INDEX idx_challenges_cat_points         ON challenges (category, points DESC, id DESC);
+
+-- difficulty
+CREATE INDEX idx_challenges_diff_created       ON challenges (difficulty, created_at DESC, id DESC);
+CREATE INDEX idx_challenges_diff_likes         ON challenges (difficulty, likes_count DESC, id DESC);
+CREATE INDEX idx_challenges_diff_subs          ON challenges (difficulty, submissions_count DESC, id DESC);
+CREATE INDEX idx_challenges_diff_points        ON challenges (difficulty, points DESC, id DESC);
+
+-- category and difficulty
+CREATE INDEX idx_challenges_cat_diff_created   ON challenges (category, difficulty, created_at DESC, id DESC);
+CREATE INDEX idx_challenges_cat_diff_likes     ON challenges (category, difficulty, likes_count DESC, id DESC);
+CREATE INDEX idx_challenges_cat_diff_subs      ON challenges (category, difficulty, submissions_count DESC, id DESC);
+CREATE INDEX idx_challenges_cat_diff_points    ON challenges (category, difficulty, points DESC, id DESC);
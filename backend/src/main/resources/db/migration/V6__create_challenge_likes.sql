@@ -0,0 +1,21 @@
+-- One row per (user, challenge) like; the primary key makes like/unlike idempotent.
+CREATE TABLE challenge_likes (
+  user_id       UUID        NOT NULL REFERENCES users(id)      ON DELETE CASCADE,
+  challenge_id  UUID        NOT NULL REFERENCES challenges(id) ON DELETE CASCADE,
+  created_at    TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+  PRIMARY KEY (user_id, challenge_id)
+);
+
+CREATE INDEX idx_challenge_likes_challenge ON challenge_likes (challenge_id);
+
+-- Not-yet-folded like deltas. Each like lands on one of several shard rows per challenge,
+-- so a viral challenge spreads its writes instead of queueing on the challenges row lock.
+-- A background job periodically folds the shards into challenges.likes_count.
+CREATE TABLE challenge_like_shards (
+  challenge_id  UUID     NOT NULL REFERENCES challenges(id) ON DELETE CASCADE,
+  shard         SMALLINT NOT NULL,
+  delta         INTEGER  NOT NULL DEFAULT 0,
+
+  PRIMARY KEY (challenge_id, shard)
+);
@@ -0,0 +1,9 @@
+-- Append-only log of awarded points; lets the weekly/monthly leaderboards be rebuilt at startup.
+CREATE TABLE user_points_events (
+  id          BIGSERIAL   PRIMARY KEY,
+  user_id     UUID        NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  points      INTEGER     NOT NULL,
+  created_at  TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_user_points_events_created ON user_points_events (created_at, user_id);
@@ -0,0 +1,10 @@
+-- Full-text search over challenge titles and descriptions.
+-- The vector is generated by Postgres so it can never drift from the text; title matches rank above description matches.
+
+ALTER TABLE challenges
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_challenges_search ON challenges USING GIN (search_vector);
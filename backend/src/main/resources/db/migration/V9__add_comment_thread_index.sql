@@ -0,0 +1,4 @@
+-- Comment threads are read as: top-level comments of a challenge in (created_at, id) order, then each level of
+-- replies by parent. Both lookups are range scans of this index; id makes the keyset position unique.
+
+CREATE INDEX idx_comments_thread ON comments (challenge_id, parent_comment_id, created_at, id);
@@ -0,0 +1,34 @@
+package backend;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class for tests that need the real schema (native enums, Flyway migrations).
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "KEYCLOAK_BASE_URL=http://localhost:65535",
+        "KEYCLOAK_REALM=test",
+        "KEYCLOAK_CLIENT_ID=test",
+        "KEYCLOAK_CLIENT_SECRET=test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Tests deliver outbox events and fold shards explicitly (OutboxDispatcher.drain(), scheduledFold()),
+        // and no background job may add to the Hibernate statement counts they assert on
+        "outbox.poll-interval-ms=3600000",
+        "outbox.cleanup-interval-ms=3600000",
+        "challenge-likes.fold-interval-ms=3600000",
+        "challenge-counters.fold-interval-ms=3600000"
+})
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+}
@@ -0,0 +1,172 @@
+package backend.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalJwtDecoderTest {
+    private static final String ISSUER = "http://keycloak.test/realms/test";
+
+    @TempDir
+    Path dir;
+
+    private RSAKey signingKey;
+    private JwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("local-key").generate();
+        Path jwksFile = dir.resolve("jwks.json");
+        Files.writeString(jwksFile, new JWKSet(signingKey).toString(true));
+
+        // Keycloak is unreachable, so every key has to come from the local file
+        KeycloakConfigProperties props = new KeycloakConfigProperties();
+        props.setJwksEndpoint("/realms/test/protocol/openid-connect/certs");
+        props.setJwksFile(jwksFile.toString());
+        CachedJwkSource jwkSource = new CachedJwkSource(
+                WebClient.builder().baseUrl("http://127.0.0.1:1").build(), props, Schedulers.boundedElastic());
+        jwkSource.load();
+
+        decoder = JwtDecoderConfig.localJwtDecoder(jwkSource, ISSUER);
+    }
+
+    @Test
+    void verifiesTokenOfflineWithKeysFromFile() throws Exception {
+        UUID subject = UUID.randomUUID();
+
+        Jwt jwt = decoder.decode(sign(signingKey, ISSUER, subject));
+
+        assertThat(jwt.getSubject()).isEqualTo(subject.toString());
+    }
+
+    @Test
+    void rejectsForeignIssuer() throws Exception {
+        String token = sign(signingKey, "http://elsewhere/realms/test", UUID.randomUUID());
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsUnknownSigningKey() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("other-key").generate();
+        String token = sign(otherKey, ISSUER, UUID.randomUUID());
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void startupDoesNotWaitForKeycloakWhenTheFileHasKeys() throws Exception {
+        HttpServer keycloak = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        keycloak.createContext("/certs", exchange -> {
+            sleep(2_000);
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        keycloak.start();
+        try {
+            KeycloakConfigProperties props = new KeycloakConfigProperties();
+            props.setJwksEndpoint("/certs");
+            props.setJwksFile(dir.resolve("jwks.json").toString());
+            CachedJwkSource jwkSource = new CachedJwkSource(WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + keycloak.getAddress().getPort()).build(),
+                    props, Schedulers.boundedElastic());
+
+            long startedAt = System.nanoTime();
+            jwkSource.load();
+            assertThat(System.nanoTime() - startedAt).isLessThan(1_000_000_000L);
+
+            Jwt jwt = JwtDecoderConfig.localJwtDecoder(jwkSource, ISSUER)
+                    .decode(sign(signingKey, ISSUER, UUID.randomUUID()));
+            assertThat(jwt).isNotNull();
+        } finally {
+            keycloak.stop(0);
+        }
+    }
+
+    @Test
+    void unknownKeyIsRejectedAtOnceAndFetchedInTheBackground() throws Exception {
+        RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID("rotated-key").generate();
+        byte[] jwks = new JWKSet(rotatedKey).toPublicJWKSet().toString().getBytes(StandardCharsets.UTF_8);
+        // A slow Keycloak: the token that triggers the fetch must not wait for it
+        HttpServer keycloak = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        keycloak.createContext("/certs", exchange -> {
+            sleep(1_000);
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        keycloak.start();
+        try {
+            KeycloakConfigProperties props = new KeycloakConfigProperties();
+            props.setJwksEndpoint("/certs");
+            CachedJwkSource jwkSource = new CachedJwkSource(WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + keycloak.getAddress().getPort()).build(),
+                    props, Schedulers.boundedElastic());
+            JwtDecoder rotatingDecoder = JwtDecoderConfig.localJwtDecoder(jwkSource, ISSUER);
+            String token = sign(rotatedKey, ISSUER, UUID.randomUUID());
+
+            long startedAt = System.nanoTime();
+            assertThatThrownBy(() -> rotatingDecoder.decode(token)).isInstanceOf(JwtException.class);
+            assertThat(System.nanoTime() - startedAt).isLessThan(500_000_000L);
+
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            Jwt jwt = null;
+            while (jwt == null && System.nanoTime() < deadline) {
+                try {
+                    jwt = rotatingDecoder.decode(token);
+                } catch (JwtException e) {
+                    sleep(50);
+                }
+            }
+            assertThat(jwt).isNotNull();
+        } finally {
+            keycloak.stop(0);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String sign(RSAKey key, String issuer, UUID subject) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject.toString())
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
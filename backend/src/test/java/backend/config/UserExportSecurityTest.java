@@ -0,0 +1,72 @@
+package backend.config;
+
+import backend.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class UserExportSecurityTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // Tokens are resolved by their value, so the test does not need a signing key
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, 'exported')", UUID.randomUUID());
+        when(jwtDecoder.decode("user-token")).thenReturn(token("user-token", "user"));
+        when(jwtDecoder.decode("admin-token")).thenReturn(token("admin-token", "user", "admin"));
+    }
+
+    @Test
+    void exportNeedsAnAuthenticatedAdmin() throws Exception {
+        mvc.perform(get("/api/users/export"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/users/export").header("Authorization", "Bearer user-token"))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/users/export").header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"username\":\"exported\"")));
+    }
+
+    @Test
+    void pagedListingStaysOpen() throws Exception {
+        mvc.perform(get("/api/users"))
+                .andExpect(status().isOk());
+    }
+
+    private static Jwt token(String value, String... realmRoles) {
+        return Jwt.withTokenValue(value)
+                .header("alg", "RS256")
+                .subject(UUID.randomUUID().toString())
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .claim("realm_access", Map.of("roles", List.of(realmRoles)))
+                .build();
+    }
+}
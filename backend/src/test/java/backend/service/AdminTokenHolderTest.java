@@ -0,0 +1,151 @@
+package backend.service;
+
+import backend.config.KeycloakConfigProperties;
+import backend.dto.keycloak.KeycloakTokenResponseDTO;
+import backend.support.KeycloakStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminTokenHolderTest {
+
+    private KeycloakStub stub;
+    private KeycloakClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new KeycloakStub();
+        KeycloakConfigProperties props = new KeycloakConfigProperties();
+        props.setBaseUrl(stub.baseUrl());
+        props.setTokenEndpoint(KeycloakStub.TOKEN_ENDPOINT);
+        props.setClientId("backend");
+        props.setClientSecret("secret");
+        props.setAdminTokenRefreshFraction(0.5);
+        client = new KeycloakClient(WebClient.builder().baseUrl(stub.baseUrl()).build(), props, new SimpleMeterRegistry());
+        client.startAdminTokenHolder();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stopAdminTokenHolder();
+        stub.close();
+    }
+
+    @Test
+    void burstOfCallersIssuesASingleGrant() throws Exception {
+        stub.setDelayMillis(300);
+        int callers = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<String>> tokens = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                tokens.add(pool.submit(() -> {
+                    start.await();
+                    return client.getAdminAccessToken().block();
+                }));
+            }
+            start.countDown();
+            Set<String> distinct = new HashSet<>();
+            for (Future<String> token : tokens) {
+                distinct.add(token.get());
+            }
+            assertThat(distinct).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(stub.clientCredentialsGrants()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenIsRefreshedInTheBackgroundBeforeExpiry() throws Exception {
+        stub.setExpiresIn(2);
+        String first = client.getAdminAccessToken().block();
+
+        // refresh fraction 0.5 of a 2s token: a new grant is issued after ~1s without any caller waiting
+        Thread.sleep(1_500);
+        assertThat(stub.clientCredentialsGrants()).isEqualTo(2);
+
+        stub.setDelayMillis(1_000);
+        long startedAt = System.nanoTime();
+        String second = client.getAdminAccessToken().block();
+        long tookMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(tookMillis).isLessThan(500);
+    }
+
+    @Test
+    void grantAfterInvalidateReplacesThePendingRefresh() throws Exception {
+        AtomicInteger grants = new AtomicInteger();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AdminTokenHolder holder = new AdminTokenHolder(countingFetcher(grants, new AtomicBoolean()), 0.5, scheduler);
+            holder.getToken().get();
+            // a 401 drops the token and the next caller issues an on-demand grant
+            holder.invalidate();
+            holder.getToken().get();
+            assertThat(grants.get()).isEqualTo(2);
+
+            // one refresh chain: ~1s after the second grant there is exactly one background refresh, not two
+            Thread.sleep(1_500);
+            assertThat(grants.get()).isEqualTo(3);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedBackgroundRefreshIsRetried() throws Exception {
+        AtomicInteger grants = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AdminTokenHolder holder = new AdminTokenHolder(countingFetcher(grants, failing), 0.5, scheduler);
+            holder.getToken().get();
+            failing.set(true);
+
+            // the scheduled refresh after ~1s fails, then is retried after the first 1s backoff
+            Thread.sleep(1_500);
+            assertThat(grants.get()).isEqualTo(2);
+            failing.set(false);
+            Thread.sleep(1_000);
+            assertThat(grants.get()).isEqualTo(3);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static Supplier<CompletableFuture<KeycloakTokenResponseDTO>> countingFetcher(AtomicInteger grants,
+                                                                                       AtomicBoolean failing) {
+        return () -> {
+            int grant = grants.incrementAndGet();
+            if (failing.get()) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Keycloak unavailable"));
+            }
+            KeycloakTokenResponseDTO response = new KeycloakTokenResponseDTO();
+            response.setAccessToken("token-" + grant);
+            response.setExpiresIn(2);
+            return CompletableFuture.completedFuture(response);
+        };
+    }
+}
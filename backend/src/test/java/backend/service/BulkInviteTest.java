@@ -0,0 +1,115 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.request.InviteUsersRequestDTO;
+import backend.dto.response.BulkInviteResponseDTO;
+import backend.dto.response.InviteResultDTO;
+import backend.exception.NotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkInviteTest extends PostgresIntegrationTest {
+    private static final int USERS = 2_000;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private UUID challengeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userIds.clear();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UUID id = UUID.randomUUID();
+            userIds.add(id);
+            rows.add(new Object[]{id, "invitee-" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username) VALUES (?, ?)", rows);
+        jdbc.update("INSERT INTO user_stats (user_id) SELECT id FROM users");
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+    }
+
+    @Test
+    void invitesThousandsInAConstantNumberOfStatements() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkInviteResponseDTO response = challengeService.inviteUsers(challengeId,
+                new InviteUsersRequestDTO(userIds, List.of()));
+
+        assertThat(response.invited()).isEqualTo(USERS);
+        // existence check, resolve, multi-row INSERT, multi-row outbox INSERT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(invitationCount()).isEqualTo(USERS);
+    }
+
+    @Test
+    void reportsEveryEntry() {
+        UUID unknown = UUID.randomUUID();
+        challengeService.inviteUsers(challengeId, new InviteUsersRequestDTO(List.of(userIds.get(0)), List.of()));
+
+        BulkInviteResponseDTO response = challengeService.inviteUsers(challengeId, new InviteUsersRequestDTO(
+                List.of(userIds.get(0), userIds.get(1), unknown),
+                List.of("invitee-1", "invitee-2", "nobody")));
+
+        // invitee-1 is the user already given by id, so it is reported once, under that first mention
+        assertThat(response.results()).extracting(InviteResultDTO::status).containsExactly(
+                InviteResultDTO.Status.already_invited,
+                InviteResultDTO.Status.invited,
+                InviteResultDTO.Status.not_found,
+                InviteResultDTO.Status.invited,
+                InviteResultDTO.Status.not_found);
+        assertThat(response.results().get(3).userId()).isEqualTo(userIds.get(2));
+        assertThat(invitationCount()).isEqualTo(3);
+    }
+
+    @Test
+    void repeatedInviteesAreInvitedAndReportedOnce() {
+        BulkInviteResponseDTO response = challengeService.inviteUsers(challengeId, new InviteUsersRequestDTO(
+                List.of(userIds.get(0), userIds.get(0), userIds.get(1)),
+                List.of("invitee-1", "invitee-2", "invitee-2")));
+
+        assertThat(response.results()).extracting(InviteResultDTO::invitee).containsExactly(
+                userIds.get(0).toString(), userIds.get(1).toString(), "invitee-2");
+        assertThat(response.results()).extracting(InviteResultDTO::status)
+                .containsOnly(InviteResultDTO.Status.invited);
+        assertThat(response.invited()).isEqualTo(3);
+        assertThat(invitationCount()).isEqualTo(3);
+    }
+
+    @Test
+    void unknownChallengeIsNotFound() {
+        assertThatThrownBy(() -> challengeService.inviteUsers(UUID.randomUUID(),
+                new InviteUsersRequestDTO(userIds.subList(0, 5), null)))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private int invitationCount() {
+        return jdbc.queryForObject(
+                "SELECT count(*) FROM user_challenge_connection WHERE challenge_id = ? AND type = 'awaiting_response'",
+                Integer.class, challengeId);
+    }
+}
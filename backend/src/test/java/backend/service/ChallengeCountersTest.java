@@ -0,0 +1,103 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.request.SubmissionRequestDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeCountersTest extends PostgresIntegrationTest {
+    private static final int USERS = 40;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private ChallengeCounterService counterService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<UUID> userIds = new ArrayList<>();
+    private UUID challengeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userIds.clear();
+        for (int i = 0; i < USERS; i++) {
+            UUID id = UUID.randomUUID();
+            userIds.add(id);
+            jdbc.update("INSERT INTO users (id, username) VALUES (?, ?)", id, "participant-" + i);
+        }
+        jdbc.update("INSERT INTO user_stats (user_id) SELECT id FROM users");
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+    }
+
+    @Test
+    void foldsConnectionAndSubmissionDeltasIntoTheChallengeRow() {
+        for (int i = 0; i < USERS; i++) {
+            UUID userId = userIds.get(i);
+            if (i % 2 == 0) {
+                challengeService.saveChallenge(challengeId, userId);
+            } else {
+                challengeService.acceptChallenge(challengeId, userId);
+            }
+        }
+        for (int i = 1; i < 10; i += 2) {
+            challengeService.submitCompletion(userIds.get(i), challengeId, new SubmissionRequestDTO("proof", null));
+        }
+        challengeService.completeChallenge(challengeId, userIds.get(1), null);
+
+        assertThat(counters()).containsEntry("active_count", 0);
+        dispatcher.drain();
+        counterService.scheduledFold();
+
+        assertThat(counters()).containsAllEntriesOf(Map.of(
+                "saved_count", 20,
+                "active_count", 15,
+                "pending_count", 4,
+                "complete_count", 1,
+                "submissions_count", 5));
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM challenge_counter_shards", Long.class)).isZero();
+    }
+
+    @Test
+    void rebuildRepairsDriftWithoutDoubleCountingPendingDeltas() {
+        for (int i = 0; i < 10; i++) {
+            challengeService.acceptChallenge(challengeId, userIds.get(i));
+        }
+        dispatcher.drain();
+        counterService.scheduledFold();
+        challengeService.acceptChallenge(challengeId, userIds.get(10));
+        jdbc.update("UPDATE challenges SET active_count = 999, saved_count = 7 WHERE id = ?", challengeId);
+
+        // the last accept is still in the outbox; the rebuild must leave it to the counters handler
+        assertThat(counterService.rebuild()).isEqualTo(1);
+        dispatcher.drain();
+        counterService.scheduledFold();
+
+        assertThat(counters()).containsEntry("active_count", 11).containsEntry("saved_count", 0);
+        assertThat(counterService.rebuild()).isZero();
+    }
+
+    private Map<String, Object> counters() {
+        return jdbc.queryForMap("""
+                SELECT active_count, pending_count, complete_count, saved_count, submissions_count
+                FROM challenges WHERE id = ?
+                """, challengeId);
+    }
+}
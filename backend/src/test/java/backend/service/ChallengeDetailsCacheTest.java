@@ -0,0 +1,98 @@
+package backend.service;
+
+import backend.config.ChallengeCacheProperties;
+import backend.dto.response.ChallengeDetailsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeDetailsCacheTest {
+
+    @Test
+    void concurrentMissesTriggerASingleLoad() throws Exception {
+        ChallengeDetailsCache cache = new ChallengeDetailsCache(new ChallengeCacheProperties());
+        UUID challengeId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<ChallengeDetailsDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get(challengeId, id -> {
+                        loads.incrementAndGet();
+                        sleep(50);
+                        return details(id);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ChallengeDetailsDTO> result : results) {
+                assertThat(result.get().id()).isEqualTo(challengeId);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.nativeCache().stats().missCount()).isEqualTo(1);
+        assertThat(cache.nativeCache().stats().hitCount()).isEqualTo(31);
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        ChallengeDetailsCache cache = new ChallengeDetailsCache(new ChallengeCacheProperties());
+        UUID challengeId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(challengeId, id -> { loads.incrementAndGet(); return details(id); });
+        cache.invalidate(challengeId);
+        cache.get(challengeId, id -> { loads.incrementAndGet(); return details(id); });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateAfterCommitKeepsTheEntryUntilTheTransactionCommits() {
+        ChallengeDetailsCache cache = new ChallengeDetailsCache(new ChallengeCacheProperties());
+        UUID challengeId = UUID.randomUUID();
+        cache.put(details(challengeId));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateAfterCommit(challengeId);
+            assertThat(cache.peek(challengeId)).isNotNull();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(cache.peek(challengeId)).isNull();
+    }
+
+    private static ChallengeDetailsDTO details(UUID id) {
+        return new ChallengeDetailsDTO(id, "title", "description", null, 10, null, null,
+                null, "author", null, 0, 0, 0, 0, 0, 0, null, 0, null, List.of(), List.of());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single challenge with likes from many threads while the fold job runs. Prints the like throughput and
+ * how far likes_count lagged behind count(challenge_likes), sampled every 50 ms, and checks that the count never
+ * ran ahead and ends up exact. Tagged "load": excluded from the default build, run with -Pload-tests.
+ */
+@Tag("load")
+// The fold job must run during the test, unlike in the other integration tests
+@TestPropertySource(properties = "challenge-likes.fold-interval-ms=100")
+class ChallengeLikeLoadTest extends PostgresIntegrationTest {
+    private static final int USERS = 5_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private ChallengeLikeService likeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID challengeId;
+    private final List<UUID> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 'viral', 'social', 'easy')",
+                challengeId);
+        users.clear();
+        for (int i = 0; i < USERS; i++) {
+            users.add(UUID.randomUUID());
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username) VALUES (?, ?)", users, 1_000,
+                (ps, id) -> {
+                    ps.setObject(1, id);
+                    ps.setString(2, "liker-" + id);
+                });
+    }
+
+    @Test
+    void hotChallengeLikesAreCountedExactly() throws Exception {
+        // One statement, so both counts come from the same snapshot
+        List<Long> lags = Collections.synchronizedList(new ArrayList<>());
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> lags.add(jdbc.queryForObject("""
+                SELECT (SELECT count(*) FROM challenge_likes WHERE challenge_id = ?)
+                     - (SELECT likes_count FROM challenges WHERE id = ?)
+                """, Long.class, challengeId, challengeId)), 0, 50, TimeUnit.MILLISECONDS);
+
+        CountDownLatch start = new CountDownLatch(1);
+        long elapsedNanos;
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (UUID userId : users) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    likeService.like(challengeId, userId);
+                    // duplicate likes must not be counted twice
+                    likeService.like(challengeId, userId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            long started = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            elapsedNanos = System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+        sampler.shutdown();
+        sampler.awaitTermination(5, TimeUnit.SECONDS);
+
+        likeService.scheduledFold();
+        Integer likesCount = jdbc.queryForObject("SELECT likes_count FROM challenges WHERE id = ?",
+                Integer.class, challengeId);
+
+        List<Long> sorted = new ArrayList<>(lags);
+        Collections.sort(sorted);
+        System.out.printf("%d likes (+%d duplicates) from %d threads in %.2f s: %.0f likes/s%n",
+                USERS, USERS, THREADS, elapsedNanos / 1e9, USERS / (elapsedNanos / 1e9));
+        System.out.printf("likes_count lag over %d samples: p50 %d, p99 %d, max %d%n", sorted.size(),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.getLast());
+
+        // the fold only ever adds committed likes, so the count may trail but never lead
+        assertThat(sorted.getFirst()).isGreaterThanOrEqualTo(0);
+        assertThat(likesCount).isEqualTo(USERS);
+        assertThat(likeService.pendingLikes(challengeId)).isZero();
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        return sorted.get((int) Math.ceil(quantile * sorted.size()) - 1);
+    }
+}
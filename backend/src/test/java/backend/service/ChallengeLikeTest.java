@@ -0,0 +1,60 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChallengeLikeTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ChallengeLikeService likeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID userId;
+    private UUID otherUserId;
+    private UUID challengeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userId = UUID.randomUUID();
+        otherUserId = UUID.randomUUID();
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, 'liker'), (?, 'other')", userId, otherUserId);
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+    }
+
+    @Test
+    void foldMovesShardDeltasIntoLikesCount() {
+        likeService.like(challengeId, userId);
+        likeService.like(challengeId, otherUserId);
+        likeService.unlike(challengeId, otherUserId);
+
+        likeService.scheduledFold();
+
+        assertThat(jdbc.queryForObject("SELECT likes_count FROM challenges WHERE id = ?", Integer.class, challengeId))
+                .isEqualTo(1);
+        assertThat(likeService.pendingLikes(challengeId)).isZero();
+    }
+
+    @Test
+    void unknownChallengeAndUnknownUserAreReportedAsSuch() {
+        assertThatThrownBy(() -> likeService.like(UUID.randomUUID(), userId))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageStartingWith("Challenge");
+        assertThatThrownBy(() -> likeService.like(challengeId, UUID.randomUUID()))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageStartingWith("User");
+    }
+}
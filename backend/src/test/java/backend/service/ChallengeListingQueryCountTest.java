@@ -0,0 +1,85 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.response.ChallengeSummaryDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeListingQueryCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ChallengeServiceImpl challengeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listChallengesRunsAFixedNumberOfStatements() {
+        seed(5);
+        long small = countStatements();
+
+        seed(495);
+        long large = countStatements();
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void listChallengesResolvesAuthors() {
+        seed(3);
+        List<ChallengeSummaryDTO> summaries = challengeService.listChallenges(fullPage(), UUID.randomUUID()).items();
+
+        assertThat(summaries).hasSize(3);
+        assertThat(summaries).allSatisfy(s -> assertThat(s.authorUsername()).startsWith("author-"));
+    }
+
+    private long countStatements() {
+        statistics.clear();
+        challengeService.listChallenges(fullPage(), UUID.randomUUID());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static ChallengeQueryDTO fullPage() {
+        return new ChallengeQueryDTO(null, null, null, null, null, ChallengeQueryDTO.MAX_PAGE_SIZE);
+    }
+
+    private void seed(int challenges) {
+        for (int i = 0; i < challenges; i++) {
+            UUID userId = UUID.randomUUID();
+            UUID challengeId = UUID.randomUUID();
+            jdbc.update("INSERT INTO users (id, username, bio) VALUES (?, ?, repeat('x', 4096))",
+                    userId, "author-" + userId);
+            jdbc.update("INSERT INTO user_stats (user_id) VALUES (?)", userId);
+            jdbc.update("""
+                    INSERT INTO challenges (id, title, category, difficulty)
+                    VALUES (?, ?, 'sports', 'easy')
+                    """, challengeId, "challenge " + i);
+            jdbc.update("""
+                    INSERT INTO user_challenge_connection (user_id, challenge_id, type)
+                    VALUES (?, ?, 'author')
+                    """, userId, challengeId);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.ChallengeQueryDTO;
+import backend.util.SerializedResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeResponseCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ChallengeResponseCache responseCache;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private ChallengeCounterService counterService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private UUID userId;
+    private UUID challengeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        UUID authorId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, 'writer'), (?, 'reader')", authorId, userId);
+        jdbc.update("INSERT INTO user_stats (user_id) SELECT id FROM users");
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+        jdbc.update("INSERT INTO user_challenge_connection (user_id, challenge_id, type) VALUES (?, ?, 'author')",
+                authorId, challengeId);
+    }
+
+    @Test
+    void repeatedViewsReuseTheSerializedBytes() throws IOException {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        SerializedResponse first = details();
+
+        statistics.clear();
+        SerializedResponse second = details();
+
+        assertThat(second).isSameAs(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(gunzip(first.gzip())).isEqualTo(first.json());
+        assertThat(first.gzipEtag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void counterFoldBumpsTheVersionAndRetiresTheCachedBytes() throws IOException {
+        SerializedResponse before = details();
+        assertThat(json(before).get("version").asLong()).isZero();
+
+        challengeService.acceptChallenge(challengeId, userId);
+        dispatcher.drain();
+        counterService.foldOnce();
+        SerializedResponse after = details();
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(json(after).get("version").asLong()).isEqualTo(1);
+        assertThat(json(after).get("activeCount").asInt()).isEqualTo(1);
+        assertThat(after.lastModified()).isAfter(before.lastModified());
+    }
+
+    @Test
+    void listPagesAreCachedUntilAChallengeIsCreated() {
+        ChallengeQueryDTO query = ChallengeQueryDTO.fromStrings(null, null, null, null, null, null);
+        SerializedResponse first = responseCache.list(query, () -> challengeService.listChallenges(query, userId));
+
+        assertThat(responseCache.list(query, () -> challengeService.listChallenges(query, userId))).isSameAs(first);
+
+        responseCache.invalidateLists();
+        assertThat(responseCache.list(query, () -> challengeService.listChallenges(query, userId))).isNotSameAs(first);
+    }
+
+    private SerializedResponse details() {
+        return responseCache.details(challengeId, () -> challengeService.viewChallenge(challengeId));
+    }
+
+    private JsonNode json(SerializedResponse response) throws IOException {
+        return objectMapper.readTree(response.json());
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.ChallengeSearchQueryDTO;
+import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeSearchTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        insert("Morning swim", "Cold water every day", "sports", "easy");
+        insert("Read a book", "Then go for a swim", "educational", "easy");
+        insert("Plant a tree", "Anywhere", "environmental", "medium");
+
+        List<ChallengeSummaryDTO> items = search("swimming", null, null, null, 10).items();
+
+        assertThat(items).extracting(ChallengeSummaryDTO::title).containsExactly("Morning swim", "Read a book");
+    }
+
+    @Test
+    void composesWithCategoryAndDifficulty() {
+        insert("Run 5k", "", "sports", "easy");
+        insert("Run 10k", "", "sports", "hard");
+        insert("Run a workshop", "", "educational", "hard");
+
+        assertThat(search("run", "sports", "hard", null, 10).items())
+                .extracting(ChallengeSummaryDTO::title).containsExactly("Run 10k");
+    }
+
+    @Test
+    void cursorWalksEveryMatchOnce() {
+        for (int i = 0; i < 25; i++) {
+            insert("Walk " + i, "walk ".repeat(i % 4), "sports", "easy");
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponseDTO<ChallengeSummaryDTO> page = search("walk", null, null, cursor, 7);
+            page.items().forEach(item -> titles.add(item.title()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(titles).hasSize(25).doesNotHaveDuplicates();
+    }
+
+    private PageResponseDTO<ChallengeSummaryDTO> search(String text, String category, String difficulty,
+                                                        String cursor, int limit) {
+        return challengeService.searchChallenges(
+                ChallengeSearchQueryDTO.fromStrings(text, difficulty, category, cursor, limit));
+    }
+
+    private void insert(String title, String description, String category, String difficulty) {
+        jdbc.update("""
+                INSERT INTO challenges (title, description, category, difficulty)
+                VALUES (?, ?, CAST(? AS challenge_category), CAST(? AS challenge_difficulty))
+                """, title, description, category, difficulty);
+    }
+}
@@ -0,0 +1,116 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.CommentDTO;
+import backend.dto.response.PageResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentThreadTest extends PostgresIntegrationTest {
+    private static final OffsetDateTime START = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private UUID userId;
+    private UUID challengeId;
+    private int minute;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userId = UUID.randomUUID();
+        challengeId = UUID.randomUUID();
+        minute = 0;
+        jdbc.update("INSERT INTO users (id, username, avatar_url) VALUES (?, 'commenter', 'a.png')", userId);
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+    }
+
+    @Test
+    void loadsAPageOfThreadsInOneStatement() {
+        UUID first = comment(null, "first");
+        UUID reply = comment(first, "reply");
+        comment(reply, "reply to reply");
+        comment(first, "second reply");
+        comment(null, "second");
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        PageResponseDTO<CommentDTO> page = commentService.getThreads(challengeId, null, 10);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.items()).extracting(CommentDTO::text).containsExactly("first", "second");
+        CommentDTO thread = page.items().getFirst();
+        assertThat(thread.authorUsername()).isEqualTo("commenter");
+        assertThat(thread.replies()).extracting(CommentDTO::text).containsExactly("reply", "second reply");
+        assertThat(thread.replies().getFirst().replies()).extracting(CommentDTO::text).containsExactly("reply to reply");
+    }
+
+    @Test
+    void cursorWalksTopLevelCommentsOnce() {
+        for (int i = 0; i < 7; i++) {
+            UUID root = comment(null, "root " + i);
+            comment(root, "reply " + i);
+        }
+
+        List<String> roots = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponseDTO<CommentDTO> page = commentService.getThreads(challengeId, cursor, 3);
+            page.items().forEach(item -> {
+                roots.add(item.text());
+                assertThat(item.replies()).hasSize(1);
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(roots).containsExactly("root 0", "root 1", "root 2", "root 3", "root 4", "root 5", "root 6");
+    }
+
+    @Test
+    void challengeDetailsListEachCommentOnceWithoutNestedReplies() {
+        jdbc.update("INSERT INTO user_challenge_connection (user_id, challenge_id, type) VALUES (?, ?, 'author')",
+                userId, challengeId);
+        UUID first = comment(null, "first");
+        UUID reply = comment(first, "reply");
+        comment(reply, "reply to reply");
+
+        List<CommentDTO> comments = challengeService.viewChallenge(challengeId).comments();
+
+        assertThat(comments).extracting(CommentDTO::text)
+                .containsExactlyInAnyOrder("first", "reply", "reply to reply");
+        assertThat(comments).allSatisfy(comment -> assertThat(comment.replies()).isNullOrEmpty());
+    }
+
+    private UUID comment(UUID parentId, String text) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO comments (id, text, created_at, parent_comment_id, user_id, challenge_id)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, id, text, START.plusMinutes(minute++), parentId, userId, challengeId);
+        return id;
+    }
+}
@@ -0,0 +1,129 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.exception.ConflictException;
+import backend.exception.NotFoundException;
+import backend.model.UserStatsEntity;
+import backend.model.enums.ConnectionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionTransitionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserChallengeConnectionService connService;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private UUID userId;
+    private UUID challengeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userId = UUID.randomUUID();
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, ?)", userId, "user-" + userId);
+        jdbc.update("INSERT INTO user_stats (user_id, active_challenges_count) VALUES (?, 1)", userId);
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+        jdbc.update("INSERT INTO user_challenge_connection (user_id, challenge_id, type) VALUES (?, ?, 'active')",
+                userId, challengeId);
+    }
+
+    @Test
+    void transitionCostsTwoStatements() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(connService.transitionUserChallengeConnection(userId, challengeId, ConnectionType.active,
+                ConnectionType.pending_verification))
+                .isTrue();
+
+        // move, outbox event; stats and counters follow from the event
+        // previously: merge SELECT + INSERT, stats SELECT + UPDATE, SELECT + DELETE, stats SELECT + UPDATE
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(types()).containsExactly("pending_verification");
+    }
+
+    @Test
+    void concurrentDuplicatesApplyOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return connService.transitionUserChallengeConnection(userId, challengeId, ConnectionType.active,
+                            ConnectionType.pending_verification);
+                }));
+            }
+            start.countDown();
+            int applied = 0;
+            for (Future<Boolean> result : results) {
+                applied += result.get() ? 1 : 0;
+            }
+            assertThat(applied).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        dispatcher.drain();
+        UserStatsEntity stats = statsService.getStatsByUserId(userId);
+        assertThat(stats.getActiveChallengesCount()).isZero();
+        assertThat(stats.getSubmissionsCount()).isEqualTo(1);
+        assertThat(types()).containsExactly("pending_verification");
+    }
+
+    @Test
+    void rejectsTransitionFromTheWrongState() {
+        assertThatThrownBy(() -> connService.transitionUserChallengeConnection(userId, challengeId,
+                ConnectionType.pending_verification, ConnectionType.complete))
+                .isInstanceOf(ConflictException.class);
+        assertThat(types()).containsExactly("active");
+    }
+
+    @Test
+    void acceptReportsAnUnknownChallengeOrUserAsSuch() {
+        assertThatThrownBy(() -> connService.transitionUserChallengeConnection(userId, UUID.randomUUID(),
+                ConnectionType.awaiting_response, ConnectionType.active))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageStartingWith("Challenge");
+        assertThatThrownBy(() -> connService.transitionUserChallengeConnection(UUID.randomUUID(), challengeId,
+                ConnectionType.awaiting_response, ConnectionType.active))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageStartingWith("User");
+    }
+
+    private List<String> types() {
+        return jdbc.queryForList("SELECT type::text FROM user_challenge_connection WHERE user_id = ? AND challenge_id = ?",
+                String.class, userId, challengeId);
+    }
+}
@@ -0,0 +1,114 @@
+package backend.service;
+
+import backend.config.KeycloakConfigProperties;
+import backend.config.WebClientConfig;
+import backend.dto.keycloak.KeycloakTokenResponseDTO;
+import backend.support.KeycloakStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeycloakClientLatencyTest {
+
+    private KeycloakStub stub;
+    private KeycloakConfigProperties props;
+    private KeycloakClient client;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new KeycloakStub();
+        props = new KeycloakConfigProperties();
+        props.setBaseUrl(stub.baseUrl());
+        props.setTokenEndpoint(KeycloakStub.TOKEN_ENDPOINT);
+        props.setClientId("backend");
+        props.setClientSecret("secret");
+        props.getHttp().setRequestTimeout(Duration.ofMillis(300));
+        props.getBulkhead().setUserToken(2);
+        client = newClient();
+    }
+
+    private KeycloakClient newClient() {
+        meterRegistry = new SimpleMeterRegistry();
+        KeycloakClient keycloakClient = new KeycloakClient(new WebClientConfig().keycloakWebClient(props), props, meterRegistry);
+        keycloakClient.startAdminTokenHolder();
+        return keycloakClient;
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stopAdminTokenHolder();
+        stub.close();
+    }
+
+    @Test
+    void slowKeycloakFailsWithinTheDeadline() {
+        stub.setDelayMillis(2_000);
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> client.getUserToken("alice", "secret").block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        long tookMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertThat(tookMillis).isLessThan(1_000);
+        assertThat(meterRegistry.get("keycloak.requests")
+                .tags("operation", "user_token", "outcome", "timeout")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkheadRejectsExcessCallsImmediately() {
+        stub.setDelayMillis(200);
+        // Only the bulkhead is under test: the two admitted calls must not race the deadline on a cold client
+        props.getHttp().setRequestTimeout(Duration.ofSeconds(5));
+        client.stopAdminTokenHolder();
+        client = newClient();
+
+        List<Object> outcomes = Flux.range(0, 10)
+                .flatMap(i -> client.getUserToken("user" + i, "secret")
+                        .<Object>map(token -> token)
+                        .onErrorResume(ResponseStatusException.class, Mono::just))
+                .collectList()
+                .block();
+
+        assertThat(outcomes).hasSize(10);
+        assertThat(outcomes).filteredOn(KeycloakTokenResponseDTO.class::isInstance).hasSize(2);
+        assertThat(outcomes).filteredOn(ResponseStatusException.class::isInstance).hasSize(8);
+        assertThat(stub.passwordGrants()).isEqualTo(2);
+        assertThat(meterRegistry.get("keycloak.requests")
+                .tags("operation", "user_token", "outcome", "rejected")
+                .timer().count()).isEqualTo(8);
+    }
+
+    @Test
+    void concurrentCallsDoNotHoldCallerThreads() {
+        stub.setDelayMillis(200);
+        props.getHttp().setRequestTimeout(Duration.ofSeconds(5));
+        props.getBulkhead().setUserToken(100);
+        client.stopAdminTokenHolder();
+        client = newClient();
+
+        // 50 logins at 200ms each complete from a single subscribing thread in about one round trip
+        long startedAt = System.nanoTime();
+        List<KeycloakTokenResponseDTO> tokens = Flux.range(0, 50)
+                .flatMap(i -> client.getUserToken("user" + i, "secret"))
+                .collectList()
+                .block();
+        long tookMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertThat(tokens).hasSize(50);
+        assertThat(tookMillis).isLessThan(2_000);
+    }
+}
@@ -0,0 +1,91 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.LeaderboardWindow;
+import backend.model.UserStatsEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxDispatcherTest extends PostgresIntegrationTest {
+    private static final int POINTS = 50;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID userId;
+    private UUID challengeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userId = UUID.randomUUID();
+        challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, ?)", userId, "user-" + userId);
+        jdbc.update("INSERT INTO user_stats (user_id, submissions_count) VALUES (?, 1)", userId);
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty, points) VALUES (?, 't', 'sports', 'easy', ?)",
+                challengeId, POINTS);
+        jdbc.update("INSERT INTO user_challenge_connection (user_id, challenge_id, type) VALUES (?, ?, 'pending_verification')",
+                userId, challengeId);
+    }
+
+    @Test
+    void completionAwardsPointsAndStatsAfterDelivery() {
+        challengeService.completeChallenge(challengeId, userId, null);
+        assertThat(statsService.getStatsByUserId(userId).getPoints()).isZero();
+
+        dispatcher.drain();
+
+        UserStatsEntity stats = statsService.getStatsByUserId(userId);
+        assertThat(stats.getPoints()).isEqualTo(POINTS);
+        assertThat(stats.getCompleteChallengesCount()).isEqualTo(1);
+        assertThat(stats.getSubmissionsCount()).isZero();
+        assertThat(leaderboardService.rankOf(LeaderboardWindow.all_time, userId).points()).isEqualTo(POINTS);
+    }
+
+    @Test
+    void redeliveredCompletionAwardsNothing() {
+        challengeService.completeChallenge(challengeId, userId, null);
+        dispatcher.drain();
+
+        // rewind only the points handler, as if its batch had been delivered before a crash lost the offset
+        jdbc.update("UPDATE outbox_offsets SET last_txid = 0, last_id = 0 WHERE handler = 'points-award'");
+        dispatcher.drain();
+
+        assertThat(statsService.getStatsByUserId(userId).getPoints()).isEqualTo(POINTS);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM user_points_events WHERE user_id = ?", Long.class, userId))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void cleanupKeepsEventsUntilEveryHandlerHasAppliedThem() {
+        challengeService.completeChallenge(challengeId, userId, null);
+        dispatcher.scheduledCleanup();
+        assertThat(pendingEvents()).isPositive();
+
+        dispatcher.drain();
+        dispatcher.scheduledCleanup();
+        assertThat(pendingEvents()).isZero();
+    }
+
+    private long pendingEvents() {
+        return jdbc.queryForObject("SELECT count(*) FROM outbox_events WHERE user_id = ?", Long.class, userId);
+    }
+}
@@ -0,0 +1,163 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.request.ReviewSubmissionsRequestDTO;
+import backend.dto.response.PageResponseDTO;
+import backend.dto.response.ReviewSubmissionsResponseDTO;
+import backend.dto.response.SubmissionSummaryDTO;
+import backend.model.enums.ConnectionType;
+import backend.model.enums.SubmissionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubmissionReviewQueueTest extends PostgresIntegrationTest {
+    private static final OffsetDateTime START = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+    private static final int SUBMISSIONS = 12;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private UserChallengeConnectionService connService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID challengeId;
+    private UUID author;
+    private UUID coAuthor;
+    private final List<UUID> submitters = new ArrayList<>();
+    private final List<UUID> submissions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        submitters.clear();
+        submissions.clear();
+        challengeId = UUID.randomUUID();
+        author = user("author");
+        coAuthor = user("co-author");
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+        connect(author, "author");
+        connect(coAuthor, "author");
+
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            UUID submitter = user("submitter-" + i);
+            submitters.add(submitter);
+            connect(submitter, "pending_verification");
+            UUID id = UUID.randomUUID();
+            submissions.add(id);
+            jdbc.update("""
+                    INSERT INTO submissions (id, proof, created_at, user_id, challenge_id)
+                    VALUES (?, 'proof', ?, ?, ?)
+                    """, id, START.plusMinutes(i), submitter, challengeId);
+        }
+        // each submitter is counted as having one submission in verification
+        jdbc.update("INSERT INTO user_stats (user_id, submissions_count) SELECT id, 1 FROM users");
+    }
+
+    @Test
+    void pagesThroughPendingOldestFirst() {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponseDTO<SubmissionSummaryDTO> page = submissionService.getPending(challengeId, author, cursor, 5);
+            page.items().forEach(item -> seen.add(item.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(submissions);
+    }
+
+    @Test
+    void concurrentModeratorsClaimDisjointBatches() {
+        List<SubmissionSummaryDTO> first = submissionService.claimNext(challengeId, author, 5);
+        List<SubmissionSummaryDTO> second = submissionService.claimNext(challengeId, coAuthor, 5);
+        List<SubmissionSummaryDTO> rest = submissionService.claimNext(challengeId, author, 5);
+
+        assertThat(first).extracting(SubmissionSummaryDTO::id).containsExactlyElementsOf(submissions.subList(0, 5));
+        assertThat(second).extracting(SubmissionSummaryDTO::id).containsExactlyElementsOf(submissions.subList(5, 10));
+        assertThat(rest).extracting(SubmissionSummaryDTO::id).containsExactlyElementsOf(submissions.subList(10, 12));
+    }
+
+    @Test
+    void approvesABatchAndCompletesItsSubmitters() {
+        submissionService.claimNext(challengeId, coAuthor, 2);
+        List<UUID> batch = submissions.subList(0, 4);
+
+        ReviewSubmissionsResponseDTO response = submissionService.review(challengeId, author,
+                new ReviewSubmissionsRequestDTO(batch, SubmissionStatus.approved));
+
+        // the first two are claimed by the co-author
+        assertThat(response.decided()).containsExactlyInAnyOrderElementsOf(submissions.subList(2, 4));
+        assertThat(response.skipped()).containsExactlyElementsOf(submissions.subList(0, 2));
+        assertThat(jdbc.queryForObject(
+                "SELECT count(*) FROM submissions WHERE status = 'approved' AND verified_at IS NOT NULL", Long.class))
+                .isEqualTo(2);
+
+        Set<UUID> completed = new HashSet<>(jdbc.queryForList(
+                "SELECT user_id FROM user_challenge_connection WHERE challenge_id = ? AND type = 'complete'",
+                UUID.class, challengeId));
+        assertThat(completed).containsExactlyInAnyOrderElementsOf(submitters.subList(2, 4));
+        assertThat(submissionService.getPending(challengeId, author, null, 100).items()).hasSize(SUBMISSIONS - 2);
+    }
+
+    @Test
+    void rejectsABatchAndLetsItsSubmittersSubmitAgain() {
+        List<UUID> batch = submissions.subList(0, 3);
+
+        ReviewSubmissionsResponseDTO response = submissionService.review(challengeId, author,
+                new ReviewSubmissionsRequestDTO(batch, SubmissionStatus.rejected));
+
+        assertThat(response.decided()).containsExactlyInAnyOrderElementsOf(batch);
+        Set<UUID> active = new HashSet<>(jdbc.queryForList(
+                "SELECT user_id FROM user_challenge_connection WHERE challenge_id = ? AND type = 'active'",
+                UUID.class, challengeId));
+        assertThat(active).containsExactlyInAnyOrderElementsOf(submitters.subList(0, 3));
+
+        dispatcher.drain();
+        UUID rejected = submitters.getFirst();
+        assertThat(jdbc.queryForList("SELECT active_challenges_count, submissions_count FROM user_stats WHERE user_id = ?",
+                rejected).getFirst()).containsEntry("active_challenges_count", 1).containsEntry("submissions_count", 0);
+
+        assertThat(connService.transitionUserChallengeConnection(rejected, challengeId, ConnectionType.active,
+                ConnectionType.pending_verification)).isTrue();
+    }
+
+    @Test
+    void rejectsNonAuthors() {
+        assertThatThrownBy(() -> submissionService.claimNext(challengeId, submitters.getFirst(), 5))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("403");
+    }
+
+    private UUID user(String username) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, ?)", id, username);
+        return id;
+    }
+
+    private void connect(UUID userId, String type) {
+        jdbc.update("""
+                INSERT INTO user_challenge_connection (user_id, challenge_id, type, ts)
+                VALUES (?, ?, CAST(? AS connection_type), CURRENT_TIMESTAMP)
+                """, userId, challengeId, type);
+    }
+}
@@ -0,0 +1,124 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.ChallengeQueryDTO;
+import backend.dto.response.ChallengeSummaryDTO;
+import backend.dto.response.PageResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserFeedTest extends PostgresIntegrationTest {
+    private static final OffsetDateTime START = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+    private static final int SAVED = 45;
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private UUID userId;
+    private UUID authorId;
+    // newest connection first
+    private final List<UUID> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        saved.clear();
+        userId = UUID.randomUUID();
+        authorId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, 'reader')", userId);
+        jdbc.update("INSERT INTO users (id, username, avatar_url) VALUES (?, 'writer', 'w.png')", authorId);
+        jdbc.update("INSERT INTO user_stats (user_id, saved_challenges_count) VALUES (?, ?), (?, 0)",
+                userId, SAVED, authorId);
+
+        for (int i = 0; i < SAVED; i++) {
+            UUID challengeId = UUID.randomUUID();
+            jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, ?, 'sports', 'easy')",
+                    challengeId, "challenge " + i);
+            connect(authorId, challengeId, "author", START);
+            // every third pair shares a timestamp so the id tie-breaker is exercised
+            connect(userId, challengeId, "saved", START.plusMinutes(i - i % 3));
+            saved.add(challengeId);
+        }
+        Map<UUID, Integer> minute = new HashMap<>();
+        for (int i = 0; i < SAVED; i++) {
+            minute.put(saved.get(i), i - i % 3);
+        }
+        // Postgres orders uuids by unsigned bytes, which matches their string form but not UUID.compareTo
+        saved.sort(Comparator.<UUID>comparingInt(minute::get).thenComparing(UUID::toString).reversed());
+    }
+
+    @Test
+    void walksTheFeedOneStatementPerPage() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            PageResponseDTO<ChallengeSummaryDTO> page = challengeService.listChallenges(
+                    ChallengeQueryDTO.fromStrings("saved", null, null, null, cursor, 10), userId);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            page.items().forEach(item -> {
+                assertThat(item.authorUsername()).isEqualTo("writer");
+                seen.add(item.id());
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(saved);
+    }
+
+    @Test
+    void firstPageIsCachedUntilAConnectionChanges() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        ChallengeQueryDTO firstPage = ChallengeQueryDTO.fromStrings("saved", null, null, null, null, null);
+        challengeService.listChallenges(firstPage, userId);
+
+        statistics.clear();
+        challengeService.listChallenges(firstPage, userId);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        UUID newest = saved.getFirst();
+        challengeService.unsaveChallenge(newest, userId);
+        PageResponseDTO<ChallengeSummaryDTO> page = challengeService.listChallenges(firstPage, userId);
+
+        assertThat(page.items()).extracting(ChallengeSummaryDTO::id).doesNotContain(newest);
+    }
+
+    @Test
+    void sortTypeSentWithAConnectionTypeIsIgnored() {
+        // The web client always sends its sort selection, feeds included
+        ChallengeQueryDTO query = ChallengeQueryDTO.fromStrings("saved", null, null, "likes", null, 10);
+
+        assertThat(query.sortType()).isNull();
+        assertThat(challengeService.listChallenges(query, userId).items()).extracting(ChallengeSummaryDTO::id)
+                .containsExactlyElementsOf(saved.subList(0, 10));
+    }
+
+    private void connect(UUID user, UUID challengeId, String type, OffsetDateTime ts) {
+        jdbc.update("""
+                INSERT INTO user_challenge_connection (user_id, challenge_id, type, ts)
+                VALUES (?, ?, CAST(? AS connection_type), ?)
+                """, user, challengeId, type, ts);
+    }
+}
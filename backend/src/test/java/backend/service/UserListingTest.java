@@ -0,0 +1,81 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.dto.response.PageResponseDTO;
+import backend.dto.response.UserResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserListingTest extends PostgresIntegrationTest {
+    private static final OffsetDateTime START = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+    private static final int USERS = 9;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private List<UUID> expected;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        UUID withoutStats = null;
+        for (int i = 0; i < USERS; i++) {
+            // pairs share a creation time, so the id has to break the tie
+            withoutStats = UUID.randomUUID();
+            jdbc.update("INSERT INTO users (id, username, created_at) VALUES (?, ?, ?)",
+                    withoutStats, "user-" + i, START.plusMinutes(i / 2));
+        }
+        // the newest user has no stats row yet
+        jdbc.update("INSERT INTO user_stats (user_id, points) SELECT id, 10 FROM users WHERE id <> ?", withoutStats);
+        expected = jdbc.queryForList("SELECT id FROM users ORDER BY created_at, id", UUID.class);
+    }
+
+    @Test
+    void pagesCoverEveryUserOnceInCreationOrder() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PageResponseDTO<UserResponseDTO> page = userService.listUsers(cursor, 2);
+            page.items().forEach(user -> seen.add(user.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo((USERS + 1) / 2);
+        // one statement per page, and no entity is ever loaded
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void streamYieldsTheSameRowsAsThePages() {
+        List<UserResponseDTO> streamed = new ArrayList<>();
+        userService.forEachUser(streamed::add);
+
+        assertThat(streamed).extracting(UserResponseDTO::id).containsExactlyElementsOf(expected);
+        assertThat(streamed.getFirst().stats().points()).isEqualTo(10);
+        assertThat(streamed.getLast().stats().points()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.model.UserStatsEntity;
+import backend.model.enums.ConnectionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserStatsConcurrencyTest extends PostgresIntegrationTest {
+    private static final int TRANSITIONS = 4_000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users CASCADE");
+        userId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, ?)", userId, "stress-" + userId);
+        jdbc.update("INSERT INTO user_stats (user_id) VALUES (?)", userId);
+    }
+
+    @Test
+    void parallelTransitionsKeepCountersExact() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < TRANSITIONS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    // accept -> submit, plus the points of a completed challenge
+                    record(ConnectionType.active, 1);
+                    record(ConnectionType.pending_verification, 1);
+                    record(ConnectionType.active, -1);
+                    record(ConnectionType.author, 1);
+                    statsService.addPoints(userId, 3);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        UserStatsEntity stats = statsService.getStatsByUserId(userId);
+        assertThat(stats.getActiveChallengesCount()).isZero();
+        assertThat(stats.getSubmissionsCount()).isEqualTo(TRANSITIONS);
+        assertThat(stats.getCreatedChallengesCount()).isEqualTo(TRANSITIONS);
+        assertThat(stats.getCompleteChallengesCount()).isZero();
+        assertThat(stats.getPoints()).isEqualTo(3 * TRANSITIONS);
+    }
+
+    @Test
+    void overlappingBatchesDoNotDeadlock() throws Exception {
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            UUID id = UUID.randomUUID();
+            userIds.add(id);
+            jdbc.update("INSERT INTO users (id, username) VALUES (?, ?)", id, "batch-" + id);
+            jdbc.update("INSERT INTO user_stats (user_id) VALUES (?)", id);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                List<UUID> order = new ArrayList<>(userIds);
+                Collections.shuffle(order);
+                Map<UUID, UserStatsDelta> deltas = new LinkedHashMap<>();
+                order.forEach(id -> deltas.put(id, UserStatsDelta.ofPoints(1)));
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        // The plan a large user_stats gets: walk the array, look each row up by key
+                        jdbc.execute("SET LOCAL enable_hashjoin = off");
+                        jdbc.execute("SET LOCAL enable_mergejoin = off");
+                        statsService.applyDeltas(deltas);
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(jdbc.queryForList("SELECT DISTINCT points FROM user_stats WHERE user_id <> ?", Integer.class, userId))
+                .containsExactly(200);
+    }
+
+    private void record(ConnectionType type, int amount) {
+        statsService.applyDelta(userId, UserStatsDelta.forConnection(type, amount));
+    }
+}
@@ -0,0 +1,202 @@
+package backend.service;
+
+import backend.PostgresIntegrationTest;
+import backend.model.enums.ConnectionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Flushed explicitly, so the scheduled flush is parked
+@TestPropertySource(properties = {
+        "user-stats.write-behind.enabled=true",
+        "user-stats.write-behind.flush-interval-ms=3600000"
+})
+class UserStatsWriteBehindBufferTest extends PostgresIntegrationTest {
+    private static final int DELTAS = 5_000;
+    private static final int READERS = 4;
+
+    @Autowired
+    private UserStatsWriteBehindBuffer buffer;
+
+    @Autowired
+    private UserStatsService statsService;
+
+    @Autowired
+    private UserChallengeConnectionService connService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID userId;
+    private UUID otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE users, challenges CASCADE");
+        userId = UUID.randomUUID();
+        otherUserId = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id, username) VALUES (?, 'buffered'), (?, 'other')", userId, otherUserId);
+        jdbc.update("INSERT INTO user_stats (user_id) SELECT id FROM users");
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.flush(true);
+    }
+
+    @Test
+    void deltasForOneUserMergeIntoOneRowUpdate() {
+        buffer.add(userId, UserStatsDelta.ofPoints(3));
+        buffer.add(userId, UserStatsDelta.ofPoints(4));
+        buffer.add(userId, new UserStatsDelta(0, 0, 0, 1, 0, 0));
+
+        assertThat(buffer.pendingFor(userId)).isEqualTo(new UserStatsDelta(7, 0, 0, 1, 0, 0));
+        buffer.flush(true);
+
+        assertThat(buffer.pendingFor(userId).isZero()).isTrue();
+        assertThat(storedPoints(userId)).isEqualTo(7);
+        assertThat(jdbc.queryForObject("SELECT active_challenges_count FROM user_stats WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    @Test
+    void readsSeeTheirOwnUnflushedWrites() {
+        buffer.add(userId, UserStatsDelta.ofPoints(5));
+
+        assertThat(storedPoints(userId)).isZero();
+        assertThat(statsService.getStatsByUserId(userId).getPoints()).isEqualTo(5);
+    }
+
+    @Test
+    void outboxCountersReachTheRowOnTheNextFlush() {
+        UUID challengeId = UUID.randomUUID();
+        jdbc.update("INSERT INTO challenges (id, title, category, difficulty) VALUES (?, 't', 'sports', 'easy')",
+                challengeId);
+        jdbc.update("INSERT INTO user_challenge_connection (user_id, challenge_id, type) VALUES (?, ?, 'active')",
+                userId, challengeId);
+        jdbc.update("UPDATE user_stats SET active_challenges_count = 1 WHERE user_id = ?", userId);
+
+        connService.transitionUserChallengeConnection(userId, challengeId, ConnectionType.active,
+                ConnectionType.pending_verification);
+        dispatcher.drain();
+
+        assertThat(jdbc.queryForObject("SELECT submissions_count FROM user_stats WHERE user_id = ?",
+                Integer.class, userId)).isZero();
+        assertThat(statsService.getStatsByUserId(userId).getSubmissionsCount()).isEqualTo(1);
+
+        buffer.flush(true);
+
+        assertThat(jdbc.queryForObject("SELECT submissions_count FROM user_stats WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+        assertThat(statsService.getStatsByUserId(userId).getActiveChallengesCount()).isZero();
+    }
+
+    @Test
+    void readsRacingFlushesNeverCountADeltaTwiceOrMissOne() throws Exception {
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        List<String> violations = new ArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(READERS + 2);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < DELTAS; i++) {
+                    started.incrementAndGet();
+                    buffer.add(userId, UserStatsDelta.ofPoints(1));
+                    completed.incrementAndGet();
+                }
+                done.set(true);
+            });
+            Future<?> flusher = pool.submit(() -> {
+                while (!done.get()) {
+                    buffer.flush(false);
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        int lower = completed.get();
+                        int seen = statsService.getStatsByUserId(userId).getPoints();
+                        int upper = started.get();
+                        if (seen < lower || seen > upper) {
+                            synchronized (violations) {
+                                violations.add(seen + " outside [" + lower + ", " + upper + "]");
+                            }
+                        }
+                    }
+                }));
+            }
+            writer.get();
+            flusher.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(violations).isEmpty();
+        buffer.flush(true);
+        assertThat(storedPoints(userId)).isEqualTo(DELTAS);
+    }
+
+    @Test
+    void failingBatchFallsBackToSingleRowsAndDropsOnlyTheBadDelta() {
+        // Counters cannot go negative, so this delta fails the CHECK constraint and with it the batched UPDATE
+        buffer.add(userId, new UserStatsDelta(0, 0, 0, -1, 0, 0));
+        buffer.add(otherUserId, UserStatsDelta.ofPoints(7));
+
+        buffer.flush(true);
+
+        assertThat(jdbc.queryForObject("SELECT active_challenges_count FROM user_stats WHERE user_id = ?",
+                Integer.class, userId)).isZero();
+        assertThat(storedPoints(otherUserId)).isEqualTo(7);
+        assertThat(buffer.pendingFor(userId).isZero()).isTrue();
+        assertThat(buffer.pendingFor(otherUserId).isZero()).isTrue();
+    }
+
+    @Test
+    void deltasSurviveAFlushTheDatabaseRejects() {
+        buffer.add(userId, UserStatsDelta.ofPoints(4));
+        buffer.add(otherUserId, UserStatsDelta.ofPoints(2));
+
+        // Stands in for an outage: every statement against the table fails until it is back
+        jdbc.execute("ALTER TABLE user_stats RENAME TO user_stats_offline");
+        try {
+            buffer.flush(true);
+        } finally {
+            jdbc.execute("ALTER TABLE user_stats_offline RENAME TO user_stats");
+        }
+        assertThat(buffer.pendingFor(userId)).isEqualTo(UserStatsDelta.ofPoints(4));
+        assertThat(statsService.getStatsByUserId(userId).getPoints()).isEqualTo(4);
+
+        buffer.flush(true);
+
+        assertThat(storedPoints(userId)).isEqualTo(4);
+        assertThat(storedPoints(otherUserId)).isEqualTo(2);
+        assertThat(buffer.pendingFor(userId).isZero()).isTrue();
+    }
+
+    private int storedPoints(UUID id) {
+        return jdbc.queryForObject("SELECT points FROM user_stats WHERE user_id = ?", Integer.class, id);
+    }
+}
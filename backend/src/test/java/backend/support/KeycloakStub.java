@@ -0,0 +1,91 @@
+package backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local stand-in for the Keycloak token endpoint, with configurable latency and token lifetime.
+ */
+public class KeycloakStub implements AutoCloseable {
+    public static final String REALM = "test";
+    public static final String TOKEN_ENDPOINT = "/realms/" + REALM + "/protocol/openid-connect/token";
+
+    private final HttpServer server;
+    private final AtomicInteger clientCredentialsGrants = new AtomicInteger();
+    private final AtomicInteger passwordGrants = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile int expiresIn = 300;
+
+    public KeycloakStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(TOKEN_ENDPOINT, this::token);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int clientCredentialsGrants() {
+        return clientCredentialsGrants.get();
+    }
+
+    public int passwordGrants() {
+        return passwordGrants.get();
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void setExpiresIn(int expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (form.contains("grant_type=client_credentials")) {
+            clientCredentialsGrants.incrementAndGet();
+        } else {
+            passwordGrants.incrementAndGet();
+        }
+        sleep(delayMillis);
+
+        String body = """
+                {"access_token":"%s","expires_in":%d,"refresh_token":"%s","refresh_expires_in":%d}
+                """.formatted(UUID.randomUUID(), expiresIn, UUID.randomUUID(), expiresIn * 2);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // the client gave up (e.g. a timeout test); nothing to do
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
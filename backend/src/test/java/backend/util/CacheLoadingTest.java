@@ -0,0 +1,37 @@
+package backend.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheLoadingTest {
+
+    @Test
+    void failedLoadIsNotCachedAndPropagatesTheOriginalException() {
+        AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThatThrownBy(() -> CacheLoading.getOrLoad(cache, "k", key -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        String value = CacheLoading.getOrLoad(cache, "k", key -> {
+            loads.incrementAndGet();
+            return "v";
+        });
+        String cached = CacheLoading.getOrLoad(cache, "k", key -> {
+            loads.incrementAndGet();
+            return "other";
+        });
+
+        assertThat(value).isEqualTo("v");
+        assertThat(cached).isEqualTo("v");
+        assertThat(loads).hasValue(2);
+    }
+}
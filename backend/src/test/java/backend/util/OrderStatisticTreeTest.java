@@ -0,0 +1,64 @@
+package backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void matchesASortedListUnderRandomUpdates() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        Map<UUID, Long> scores = new HashMap<>();
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            users.add(UUID.randomUUID());
+        }
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            UUID user = users.get(random.nextInt(users.size()));
+            Long old = scores.get(user);
+            if (old != null) {
+                assertThat(tree.remove(user, old)).isTrue();
+            }
+            long score = random.nextInt(100);
+            scores.put(user, score);
+            tree.insert(user, score);
+        }
+
+        List<Map.Entry<UUID, Long>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(Comparator.<Map.Entry<UUID, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            OrderStatisticTree.Entry entry = tree.select(i);
+            long score = entry.score();
+            assertThat(entry.id()).isEqualTo(expected.get(i).getKey());
+            assertThat(tree.indexOf(entry.id(), score)).isEqualTo(i);
+            assertThat(tree.countAbove(score))
+                    .isEqualTo((int) expected.stream().filter(e -> e.getValue() > score).count());
+        }
+    }
+
+    @Test
+    void rangeIsClippedToTheTree() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        for (int i = 0; i < 5; i++) {
+            tree.insert(UUID.randomUUID(), i);
+        }
+
+        assertThat(tree.range(-2, 4)).extracting(OrderStatisticTree.Entry::score).containsExactly(4L, 3L);
+        assertThat(tree.range(3, 10)).extracting(OrderStatisticTree.Entry::score).containsExactly(1L, 0L);
+        assertThat(tree.remove(UUID.randomUUID(), 3)).isFalse();
+    }
+}
@@ -0,0 +1,99 @@
+package backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ru", "te", "zo"};
+
+    private record Doc(UUID id, String text, int score) {
+    }
+
+    @Test
+    void matchesABruteForceScanAcrossBulkLoadAndIncrementalAdds() {
+        Random random = new Random(42);
+        List<Integer> scores = new ArrayList<>();
+        for (int i = 0; i < 12_000; i++) scores.add(i);
+        Collections.shuffle(scores, random);
+
+        List<Doc> docs = new ArrayList<>();
+        PrefixIndex.Builder builder = PrefixIndex.builder();
+        for (int i = 0; i < 4_000; i++) {
+            Doc doc = new Doc(UUID.randomUUID(), title(random), scores.get(i));
+            docs.add(doc);
+            builder.add(doc.id(), doc.text(), doc.score());
+        }
+        PrefixIndex index = builder.build();
+        // enough incremental words to merge the tail more than once
+        for (int i = 4_000; i < 12_000; i++) {
+            Doc doc = new Doc(UUID.randomUUID(), title(random), scores.get(i));
+            docs.add(doc);
+            index.add(doc.id(), doc.text(), doc.score());
+        }
+
+        for (int q = 0; q < 300; q++) {
+            String word = word(random);
+            String query = switch (q % 3) {
+                case 0 -> word.substring(0, 1 + random.nextInt(3));
+                case 1 -> word.substring(0, 4 + random.nextInt(3));
+                default -> word(random).substring(0, 2) + " " + word.substring(0, 3);
+            };
+            assertThat(index.search(query, 10)).extracting(PrefixIndex.Match::id)
+                    .as(query)
+                    .containsExactlyElementsOf(bruteForce(docs, query, 10));
+        }
+    }
+
+    @Test
+    void matchesWordsNotSubstringsAndIgnoresCase() {
+        PrefixIndex index = PrefixIndex.builder()
+                .add(UUID.randomUUID(), "Morning Swim", 1)
+                .add(UUID.randomUUID(), "Reswimming", 2)
+                .build();
+
+        assertThat(index.search("SWI", 10)).extracting(PrefixIndex.Match::text).containsExactly("Morning Swim");
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void reportsAnIdAddedTwiceOnce() {
+        UUID id = UUID.randomUUID();
+        PrefixIndex index = PrefixIndex.builder().add(id, "Plant a tree", 5).build();
+        index.add(id, "Plant a tree", 5);
+
+        assertThat(index.search("tree", 10)).hasSize(1);
+        assertThat(index.search("tr", 10)).hasSize(1);
+    }
+
+    private static List<UUID> bruteForce(List<Doc> docs, String query, int limit) {
+        String[] terms = query.toLowerCase(Locale.ROOT).split(" ");
+        return docs.stream()
+                .filter(doc -> {
+                    List<String> words = Arrays.asList(doc.text().toLowerCase(Locale.ROOT).split(" "));
+                    return Arrays.stream(terms).allMatch(term -> words.stream().anyMatch(w -> w.startsWith(term)));
+                })
+                .sorted(Comparator.comparingInt(Doc::score).reversed())
+                .limit(limit)
+                .map(Doc::id)
+                .toList();
+    }
+
+    private static String title(Random random) {
+        return word(random) + " " + word(random) + " " + word(random);
+    }
+
+    private static String word(Random random) {
+        return SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                + SYLLABLES[random.nextInt(SYLLABLES.length)];
+    }
+}
@@ -27,12 +27,20 @@ export default function Home() {
   const [isCreateModalOpen, setIsCreateModalOpen] = useState(false)
   const { user } = useAuth()
 
-  // Get challenges from API using RTK Query
-  const { data: challenges = [], isLoading, error, refetch } = useGetChallengesQuery({
+  const filters = {
     category: selectedCategories.includes('All Categories') ? undefined : selectedCategories[0],
     sortType: sortConfig.field === 'none' ? undefined : `${sortConfig.field}_${sortConfig.direction}`,
     userConnectionType: selectedStatus === 'all' ? undefined : selectedStatus
-  })
+  }
+  // A cursor only belongs to the filters it was issued for; changing them starts again from the first page
+  const filtersKey = JSON.stringify(filters)
+  const [nextPage, setNextPage] = useState<{ filtersKey: string; cursor: string }>()
+  const cursor = nextPage?.filtersKey === filtersKey ? nextPage.cursor : undefined
+
+  // Get challenges from API using RTK Query; loaded pages accumulate in one cache entry
+  const { data, isLoading, isFetching, error, refetch } = useGetChallengesQuery({ ...filters, cursor })
+  const challenges = useMemo(() => data?.items ?? [], [data])
+  const nextCursor = data?.nextCursor
 
   // Filter challenges using useMemo
   const filteredChallenges = useMemo(() => {
@@ -144,6 +152,18 @@ export default function Home() {
         )}
       </Box>
 
+      {nextCursor && (
+        <Box sx={{ display: 'flex', justifyContent: 'center' }}>
+          <Button
+            variant="outlined"
+            disabled={isFetching}
+            onClick={() => setNextPage({ filtersKey, cursor: nextCursor })}
+          >
+            Load more
+          </Button>
+        </Box>
+      )}
+
       {/* Floating action button */}
       {user && !isLoading && (
         <Fab
@@ -1,6 +1,6 @@
 import { apiSlice } from './apiSlice'
-import { FetchBaseQueryError } from '@reduxjs/toolkit/query/react'
-import type { Challenge, CreateChallengeRequest } from '@/lib/types/api.types'
+import { FetchBaseQueryError, defaultSerializeQueryArgs } from '@reduxjs/toolkit/query/react'
+import type { Challenge, CreateChallengeRequest, PageResponse } from '@/lib/types/api.types'
 import { addFavoriteToStorage, removeFavoriteFromStorage, isFavoriteInStorage } from '@/lib/utils/favorites'
 
 export interface ChallengeFilters {
@@ -8,6 +8,9 @@ export interface ChallengeFilters {
   difficulty?: string
   category?: string
   sortType?: string
+  // nextCursor of the previous page; omitted for the first page
+  cursor?: string
+  limit?: number
 }
 
 // Error handling helper
@@ -29,8 +32,8 @@ const handleError = (error: FetchBaseQueryError | undefined) => {
 
 export const challengesApi = apiSlice.injectEndpoints({
   endpoints: (builder) => ({
-    // Get all challenges with filters
-    getChallenges: builder.query<Challenge[], ChallengeFilters>({
+    // Get challenges with filters, one page at a time
+    getChallenges: builder.query<PageResponse<Challenge>, ChallengeFilters>({
       query: (filters) => ({
         url: '/challenges',
         method: 'GET',
@@ -38,9 +41,24 @@ export const challengesApi = apiSlice.injectEndpoints({
           userConnectionType: filters?.userConnectionType || 'saved',
           difficulty: filters?.difficulty?.toLowerCase(),
           category: filters?.category,
-          sortType: filters?.sortType
+          sortType: filters?.sortType,
+          cursor: filters?.cursor,
+          limit: filters?.limit
         }
       }),
+      // One cache entry per filter set: later pages are appended to the first one
+      serializeQueryArgs: ({ endpointName, queryArgs, endpointDefinition }) =>
+        defaultSerializeQueryArgs({ endpointName, queryArgs: { ...queryArgs, cursor: undefined }, endpointDefinition }),
+      merge: (cached, page, { arg }) => {
+        if (!arg?.cursor) {
+          return page
+        }
+        // A refetch of an already loaded page must not add its challenges twice
+        const loaded = new Set(cached.items.map(c => c.id))
+        cached.items.push(...page.items.filter(c => !loaded.has(c.id)))
+        cached.nextCursor = page.nextCursor
+      },
+      forceRefetch: ({ currentArg, previousArg }) => currentArg?.cursor !== previousArg?.cursor,
       transformErrorResponse: (error) => {
         handleError(error)
         return error
@@ -89,11 +107,11 @@ export const challengesApi = apiSlice.injectEndpoints({
         // Get the current challenges list
         const savedChallenges = dispatch(
           challengesApi.util.updateQueryData('getChallenges', { userConnectionType: 'saved' }, (draft) => {
-            if (!draft.find(c => c.id === challengeId)) {
+            if (!draft.items.find(c => c.id === challengeId)) {
               // Add the challenge to saved list if not already there
-              const challenge = draft.find(c => c.id === challengeId)
+              const challenge = draft.items.find(c => c.id === challengeId)
               if (challenge) {
-                draft.push(challenge)
+                draft.items.push(challenge)
               }
             }
           })
@@ -127,9 +145,9 @@ export const challengesApi = apiSlice.injectEndpoints({
         // Get the current challenges list
         const savedChallenges = dispatch(
           challengesApi.util.updateQueryData('getChallenges', { userConnectionType: 'saved' }, (draft) => {
-            const index = draft.findIndex(c => c.id === challengeId)
+            const index = draft.items.findIndex(c => c.id === challengeId)
             if (index !== -1) {
-              draft.splice(index, 1)
+              draft.items.splice(index, 1)
             }
           })
         )
@@ -159,7 +177,7 @@ export const challengesApi = apiSlice.injectEndpoints({
           const state = getState() as any;
           const savedChallenges = state.api?.queries?.['getChallenges({"userConnectionType":"saved"}']?.data;
           if (savedChallenges) {
-            const isSaved = savedChallenges.some((c: Challenge) => c.id === challengeId);
+            const isSaved = savedChallenges.items.some((c: Challenge) => c.id === challengeId);
             // Update localStorage if found in API state
             if (isSaved) {
               addFavoriteToStorage(challengeId);
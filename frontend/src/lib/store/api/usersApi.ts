@@ -1,22 +1,15 @@
 import { apiSlice } from './apiSlice'
 import { User } from '../../../lib/hooks/useAuth'
-
-export interface UserListResponse {
-  users: User[]
-  total: number
-  page: number
-  totalPages: number
-}
+import type { PageResponse } from '@/lib/types/api.types'
 
 export const usersApi = apiSlice.injectEndpoints({
   endpoints: (builder) => ({
-    // Get all users with pagination and search
-    getUsers: builder.query<UserListResponse, { page?: number; limit?: number; search?: string }>({
-      query: ({ page = 1, limit = 20, search = '' }) => {
+    // Get users oldest first, one page at a time; pass nextCursor back as cursor for the next page
+    getUsers: builder.query<PageResponse<User>, { cursor?: string; limit?: number }>({
+      query: ({ cursor, limit = 20 }) => {
         const params = new URLSearchParams({
-          page: page.toString(),
           limit: limit.toString(),
-          ...(search && { search })
+          ...(cursor && { cursor })
         })
         return `/users?${params}`
       },
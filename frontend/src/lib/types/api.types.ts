@@ -39,6 +39,12 @@ export interface Challenge {
   createdAt: string
 }
 
+// Cursor-paginated list response: pass nextCursor back as `cursor` to get the following page
+export interface PageResponse<T> {
+  items: T[]
+  nextCursor: string | null
+}
+
 export interface ChallengeStatus {
   status: 'not_started' | 'in_progress' | 'completed' | 'failed'
   startedAt?: string